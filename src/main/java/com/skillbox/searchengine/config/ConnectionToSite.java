@@ -1,5 +1,6 @@
 package com.skillbox.searchengine.config;
 
+import com.skillbox.searchengine.utils.fetching.PageFetcherType;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -12,4 +13,24 @@ import org.springframework.stereotype.Component;
 public class ConnectionToSite {
     private String userAgent;
     private String referrer;
+    /**
+     * Реализация загрузчика страниц.
+     */
+    private PageFetcherType fetcher = PageFetcherType.HTTP_CLIENT;
+    /**
+     * Время ожидания установки соединения (в миллисекундах).
+     */
+    private int connectTimeoutMillis = 10_000;
+    /**
+     * Наибольшее время получения ответа сервера целиком, вместе с телом (в миллисекундах).
+     */
+    private int readTimeoutMillis = 30_000;
+    /**
+     * Наибольший размер загружаемого тела страницы (в байтах); остаток тела не загружается.
+     */
+    private int maxBodySizeBytes = 2 * 1024 * 1024;
+    /**
+     * Наибольший размер служебного ресурса: robots.txt, карты сайта (в байтах).
+     */
+    private int maxResourceSizeBytes = 50 * 1024 * 1024;
 }
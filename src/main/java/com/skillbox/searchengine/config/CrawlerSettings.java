@@ -0,0 +1,188 @@
+package com.skillbox.searchengine.config;
+
+import com.skillbox.searchengine.services.indexation.crawling.CrawlEngineType;
+import com.skillbox.searchengine.services.indexation.crawling.TrailingSlashPolicy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Настройки обхода сайтов и записи собранных страниц в базу данных.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "crawler-settings")
+public class CrawlerSettings {
+
+    /**
+     * Количество страниц, сохраняемых в базу данных одной пачкой.
+     */
+    private int pageBatchSize = 100;
+
+    /**
+     * Ёмкость очереди между обходчиком и записью в базу данных.
+     * Когда очередь заполнена, обходчик ждёт, пока запись не освободит место.
+     */
+    private int pageQueueCapacity = 500;
+
+    /**
+     * Количество посещённых ссылок сайта, хранимых точно.
+     * Сверх этого лимита ссылки учитываются в фильтре Блума.
+     */
+    private int visitedExactLimit = 100_000;
+
+    /**
+     * Ожидаемое количество ссылок в фильтре Блума.
+     */
+    private long visitedFilterCapacity = 1_000_000;
+
+    /**
+     * Допустимая доля ложных срабатываний фильтра Блума.
+     */
+    private double visitedFilterFalsePositiveRate = 0.001;
+
+    /**
+     * Допустимое количество запросов в секунду к одному хосту,
+     * если для сайта не задано своё значение.
+     */
+    private double requestsPerSecond = 6.5;
+
+    /**
+     * Количество запросов к одному хосту, допустимых подряд без паузы,
+     * если для сайта не задано своё значение.
+     */
+    private int burst = 1;
+
+    /**
+     * Способ выполнения задач обхода страниц.
+     */
+    private CrawlEngineType engine = CrawlEngineType.FORK_JOIN;
+
+    /**
+     * Общее для всех сайтов ограничение одновременных загрузок.
+     */
+    private int globalConcurrency = 256;
+
+    /**
+     * Ограничение одновременных загрузок одного сайта.
+     */
+    private int siteConcurrency = 32;
+
+    /**
+     * Количество сайтов, лемматизация которых выполняется одновременно.
+     */
+    private int lemmatizationConcurrency = 4;
+
+    /**
+     * Количество словоформ, результаты морфологического разбора которых хранятся в памяти.
+     * Ноль отключает кэш.
+     */
+    private int morphologyCacheCapacity = 200_000;
+
+    /**
+     * Количество потоков лемматизации страниц, общих для всех сайтов.
+     * Ноль или отрицательное значение — по числу процессоров.
+     */
+    private int lemmatizationThreads = 0;
+
+    /**
+     * Количество строк лемм и индекса, вставляемых одним многострочным INSERT.
+     */
+    private int bulkInsertBatchSize = 1000;
+
+    /**
+     * Наибольшее количество строк, удаляемых одним запросом при удалении данных сайта.
+     * Ограничивает время удержания блокировок каждым запросом.
+     */
+    private int purgeBatchSize = 10_000;
+
+    /**
+     * Задержка перед удалением прежнего поколения индекса после переключения на новое (в секундах).
+     * Даёт завершиться поисковым запросам, начатым по прежнему поколению.
+     */
+    private long generationPurgeDelaySeconds = 30;
+
+    /**
+     * Интервал записи загрузки планировщика обхода в журнал (в секундах).
+     * Ноль или отрицательное значение отключает запись.
+     */
+    private long governorReportIntervalSeconds = 30;
+
+    /**
+     * Наибольшее расстояние Хэмминга между отпечатками SimHash, при котором
+     * страницы сайта считаются почти одинаковыми и копия не сохраняется.
+     * Отрицательное значение отключает поиск почти одинаковых страниц.
+     */
+    private int nearDuplicateDistance = 3;
+
+    /**
+     * Схемы ссылок, которые обходятся.
+     */
+    private List<String> allowedLinkSchemes = List.of("http", "https");
+
+    /**
+     * Расширения файлов, ссылки на которые не обходятся.
+     * Сравниваются только с окончанием пути ссылки, без учёта регистра.
+     */
+    private List<String> deniedLinkExtensions = List.of("jpg", "jpeg", "png", "gif", "webp",
+            "pdf", "eps", "xlsx", "doc", "docx", "pptx");
+
+    /**
+     * Имена параметров запроса, ссылки с которыми не обходятся.
+     * Шаблон, оканчивающийся на {@code *}, задаёт префикс имени.
+     */
+    private List<String> deniedQueryParameters = List.of("_ga*");
+
+    /**
+     * Приведение завершающей косой черты пути при канонизации ссылок.
+     */
+    private TrailingSlashPolicy trailingSlash = TrailingSlashPolicy.REMOVE;
+
+    /**
+     * Параметры отслеживания, удаляемые из ссылок при канонизации.
+     * Шаблон, оканчивающийся на {@code *}, задаёт префикс имени.
+     */
+    private List<String> strippedQueryParameters = List.of("utm_*", "_ga", "_gl", "gclid",
+            "yclid", "fbclid", "openstat");
+
+    /**
+     * Каталог для контрольных точек обхода, по которым прерванный обход можно продолжить.
+     */
+    private String checkpointDirectory = "crawl-checkpoints";
+
+    /**
+     * Интервал записи контрольной точки обхода (в секундах).
+     * Ноль или отрицательное значение отключает периодическую запись;
+     * контрольная точка всё равно записывается при остановке индексации.
+     */
+    private long checkpointIntervalSeconds = 60;
+
+    /**
+     * Учитывать правила robots.txt: Allow / Disallow и Crawl-delay.
+     */
+    private boolean respectRobotsTxt = true;
+
+    /**
+     * Начинать обход со ссылок из карт сайта (sitemap), а не только с главной страницы.
+     */
+    private boolean useSitemaps = true;
+
+    /**
+     * Наибольшая глубина вложенности индексов карт сайта.
+     */
+    private int sitemapMaxDepth = 3;
+
+    /**
+     * Наибольшее количество ссылок, получаемых из карт сайта.
+     */
+    private int sitemapUrlLimit = 100_000;
+
+    /**
+     * Количество карт сайта, загружаемых одновременно.
+     */
+    private int sitemapFetchConcurrency = 4;
+}
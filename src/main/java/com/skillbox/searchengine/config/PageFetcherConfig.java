@@ -0,0 +1,22 @@
+package com.skillbox.searchengine.config;
+
+import com.skillbox.searchengine.utils.fetching.HttpClientPageFetcher;
+import com.skillbox.searchengine.utils.fetching.JsoupPageFetcher;
+import com.skillbox.searchengine.utils.fetching.PageFetcher;
+import com.skillbox.searchengine.utils.fetching.PageFetcherType;
+import com.skillbox.searchengine.utils.metrics.CrawlerMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PageFetcherConfig {
+
+    @Bean
+    public PageFetcher pageFetcher(ConnectionToSite connectionToSite, CrawlerMetrics crawlerMetrics) {
+        if (connectionToSite.getFetcher() == PageFetcherType.JSOUP) {
+            return new JsoupPageFetcher(connectionToSite, crawlerMetrics);
+        }
+        return new HttpClientPageFetcher(connectionToSite, crawlerMetrics);
+    }
+
+}
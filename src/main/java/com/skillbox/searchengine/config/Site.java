@@ -14,4 +14,19 @@ import org.springframework.stereotype.Component;
 public class Site {
     private String url;
     private String name;
+    /**
+     * Допустимое количество запросов в секунду к сайту.
+     * Если не задано, используется значение из настроек обходчика.
+     */
+    private Double requestsPerSecond;
+    /**
+     * Количество запросов к сайту, допустимых подряд без паузы.
+     * Если не задано, используется значение из настроек обходчика.
+     */
+    private Integer burst;
+
+    public Site(String url, String name) {
+        this.url = url;
+        this.name = name;
+    }
 }
@@ -3,16 +3,21 @@ package com.skillbox.searchengine.controllers;
 import com.skillbox.searchengine.dto.Response;
 import com.skillbox.searchengine.dto.indexing.ErrorResponse;
 import com.skillbox.searchengine.dto.indexing.OkResponse;
+import com.skillbox.searchengine.dto.metrics.MorphologyCacheStats;
 import com.skillbox.searchengine.dto.statistics.StatisticsResponse;
+import com.skillbox.searchengine.services.indexation.IndexingMode;
 import com.skillbox.searchengine.services.indexation.IndexingService;
 import com.skillbox.searchengine.services.search.SearchService;
 import com.skillbox.searchengine.services.statistics.StatisticsService;
 import com.skillbox.searchengine.utils.MessageLogs;
+import com.skillbox.searchengine.utils.MorphologyCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Locale;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api")
@@ -21,6 +26,7 @@ public class ApiController {
     private final StatisticsService statisticsService;
     private final IndexingService indexingService;
     private final SearchService searchService;
+    private final MorphologyCache morphologyCache;
 
     /**
      * Предоставляет статистику по индексе страниц.
@@ -32,6 +38,16 @@ public class ApiController {
         return ResponseEntity.ok(statisticsService.getStatistics());
     }
 
+    /**
+     * Предоставляет показатели кэша морфологического разбора.
+     *
+     * @return JSON-представление попаданий, промахов, доли попаданий, размера и ёмкости кэша.
+     */
+    @GetMapping("/morphologyCache")
+    public ResponseEntity<MorphologyCacheStats> morphologyCache() {
+        return ResponseEntity.ok(morphologyCache.getStats());
+    }
+
     /**
      * Запускает процесс полного переиндексирования всех страниц.
      *
@@ -47,6 +63,28 @@ public class ApiController {
         }
     }
 
+    /**
+     * Запускает процесс переиндексирования всех страниц в заданном режиме.
+     *
+     * @param mode Режим индексации: full, incremental или resume.
+     * @return OK, если процесс запущен успешно, или BAD REQUEST, если режим неизвестен или возникла ошибка.
+     */
+    @GetMapping(value = "/startIndexing", params = "mode")
+    public ResponseEntity<Response> startIndexing(@RequestParam(name = "mode") String mode) {
+        IndexingMode indexingMode;
+        try {
+            indexingMode = IndexingMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(MessageLogs.UNKNOWN_INDEXING_MODE));
+        }
+        try {
+            indexingService.startIndexing(indexingMode);
+            return ResponseEntity.ok(new OkResponse());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     /**
      * Останавливает текущий процесс переиндексирования.
      *
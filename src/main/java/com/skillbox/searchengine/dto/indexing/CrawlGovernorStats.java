@@ -0,0 +1,30 @@
+package com.skillbox.searchengine.dto.indexing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Снимок загрузки общего планировщика обхода.
+ */
+@Getter
+@AllArgsConstructor
+public class CrawlGovernorStats {
+    private int activeSites;
+    private int queuedTasks;
+    private int runningTasks;
+    private int taskCapacity;
+    private int runningLemmatizations;
+    private int lemmatizationCapacity;
+    private Map<String, Integer> siteQueueDepth;
+
+    /**
+     * Доля занятых мест для одновременных загрузок.
+     *
+     * @return Значение от 0 до 1.
+     */
+    public double getUtilization() {
+        return taskCapacity == 0 ? 0 : (double) runningTasks / taskCapacity;
+    }
+}
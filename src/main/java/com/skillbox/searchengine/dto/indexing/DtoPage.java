@@ -11,4 +11,13 @@ public class DtoPage {
     private int code;
     private String path;
     private String content;
+    private String etag;
+    private String lastModified;
+    private String title;
+    private String text;
+    private String links;
+
+    public DtoPage(int code, String path, String content, String etag, String lastModified) {
+        this(code, path, content, etag, lastModified, null, null, null);
+    }
 }
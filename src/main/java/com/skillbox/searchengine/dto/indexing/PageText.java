@@ -0,0 +1,18 @@
+package com.skillbox.searchengine.dto.indexing;
+
+/**
+ * Разобранное содержимое сохранённой страницы, необходимое для лемматизации и обхода ссылок.
+ */
+public interface PageText {
+    Long getId();
+
+    String getPath();
+
+    int getCode();
+
+    String getTitle();
+
+    String getText();
+
+    String getLinks();
+}
@@ -0,0 +1,14 @@
+package com.skillbox.searchengine.dto.indexing;
+
+/**
+ * Сведения о сохранённой странице, необходимые для условной загрузки.
+ */
+public interface PageValidators {
+    Long getId();
+
+    String getPath();
+
+    String getEtag();
+
+    String getLastModified();
+}
@@ -0,0 +1,26 @@
+package com.skillbox.searchengine.dto.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Показатели кэша морфологического разбора словоформ.
+ */
+@Getter
+@AllArgsConstructor
+public class MorphologyCacheStats {
+    private long hits;
+    private long misses;
+    private int size;
+    private int capacity;
+
+    /**
+     * Возвращает долю обращений, обслуженных из кэша.
+     *
+     * @return Доля попаданий от 0 до 1.
+     */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -32,8 +32,24 @@ public class PageEntity implements Serializable {
     private int code;
 
     @Lob
-    @Column(name = "content", columnDefinition = "MEDIUMTEXT", nullable = false)
-    private String content;
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "content_gz", columnDefinition = "MEDIUMBLOB")
+    private byte[] content;
+
+    @Column(name = "etag", columnDefinition = "VARCHAR(255)")
+    private String etag;
+
+    @Column(name = "last_modified", columnDefinition = "VARCHAR(64)")
+    private String lastModified;
+
+    @Column(name = "title", columnDefinition = "TEXT")
+    private String title;
+
+    @Column(name = "text", columnDefinition = "MEDIUMTEXT")
+    private String text;
+
+    @Column(name = "links", columnDefinition = "MEDIUMTEXT")
+    private String links;
 
     @OneToMany(mappedBy = "pageId", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<IndexEntity> index = new ArrayList<>();
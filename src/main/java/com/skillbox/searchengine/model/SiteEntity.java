@@ -38,6 +38,18 @@ public class SiteEntity implements Serializable {
     @Column(name = "name", nullable = false, columnDefinition = "VARCHAR(255)")
     private String name;
 
+    /**
+     * Номер поколения индекса сайта; каждая полная индексация строит новое поколение.
+     */
+    @Column(name = "generation", nullable = false, columnDefinition = "INT NOT NULL DEFAULT 1")
+    private int generation = 1;
+
+    /**
+     * Признак поколения, по которому выполняется поиск. У сайта не больше одного такого поколения.
+     */
+    @Column(name = "live", nullable = false, columnDefinition = "BOOLEAN NOT NULL DEFAULT TRUE")
+    private boolean live = true;
+
     @OneToMany(mappedBy = "siteId", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<PageEntity> pages = new ArrayList<>();
 
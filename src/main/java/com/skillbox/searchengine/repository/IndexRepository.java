@@ -2,9 +2,11 @@ package com.skillbox.searchengine.repository;
 
 import com.skillbox.searchengine.model.IndexEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -43,4 +45,16 @@ public interface IndexRepository extends JpaRepository<IndexEntity, Long> {
             nativeQuery = true)
     List<IndexEntity> findIndexByPageIds(@Param("pageIds") List<Long> pageIds);
 
+    /**
+     * Удаляет все записи индекса страницы.
+     *
+     * @param pageId Идентификатор страницы.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM `index`
+            WHERE page_id = :pageId""",
+            nativeQuery = true)
+    void deleteByPageId(@Param("pageId") Long pageId);
+
 }
@@ -3,9 +3,11 @@ package com.skillbox.searchengine.repository;
 import com.skillbox.searchengine.model.LemmaEntity;
 import com.skillbox.searchengine.model.SiteEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -38,16 +40,43 @@ public interface LemmaRepository extends JpaRepository<LemmaEntity, Long> {
     /**
      * Найти леммы по списку заданных лемм и сайту.
      * <p>
-     * Если siteId не задан (NULL), поиск ведется по всему списку лемм без привязки к сайту.
+     * Если siteId не задан (NULL), поиск ведется по леммам действующих поколений всех сайтов.
      *
      * @param lemmas Список лемм для поиска.
      * @param siteId Идентификатор сайта (может быть NULL).
      * @return Список лемм, удовлетворяющих критериям поиска.
      */
     @Query(value = """
-            SELECT l.* FROM lemma l 
-            WHERE l.lemma IN (:lemmas) 
-            AND ((l.site_id = :siteId) OR (:siteId IS NULL))""", nativeQuery = true)
+            SELECT l.* FROM lemma l
+            JOIN site s ON s.id = l.site_id
+            WHERE l.lemma IN (:lemmas)
+            AND ((l.site_id = :siteId) OR (:siteId IS NULL AND s.live = TRUE))""", nativeQuery = true)
     List<LemmaEntity> findByLemmasAndSiteIds(@Param("lemmas") List<String> lemmas,
                                              @Param("siteId") Long siteId);
+
+    /**
+     * Уменьшает на единицу частоту всех лемм, встречающихся на странице.
+     *
+     * @param pageId Идентификатор страницы.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE lemma l
+            JOIN `index` i ON i.lemma_id = l.id
+            SET l.frequency = l.frequency - 1
+            WHERE i.page_id = :pageId""",
+            nativeQuery = true)
+    void decrementFrequencyByPageId(@Param("pageId") Long pageId);
+
+    /**
+     * Удаляет леммы сайта, которые больше не встречаются ни на одной странице.
+     *
+     * @param siteId Идентификатор сайта.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM lemma
+            WHERE site_id = :siteId AND frequency <= 0""",
+            nativeQuery = true)
+    void deleteUnusedBySiteId(@Param("siteId") Long siteId);
 }
@@ -1,8 +1,11 @@
 package com.skillbox.searchengine.repository;
 
+import com.skillbox.searchengine.dto.indexing.PageText;
+import com.skillbox.searchengine.dto.indexing.PageValidators;
 import com.skillbox.searchengine.model.PageEntity;
 import com.skillbox.searchengine.model.SiteEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,12 +19,14 @@ import java.util.List;
 public interface PageRepository extends JpaRepository<PageEntity, Long> {
 
     /**
-     * Поиск страницы по уникальному пути (URL).
+     * Поиск страницы сайта по пути.
+     * Путь уникален только в пределах сайта: у каждого поколения индекса свои страницы.
      *
-     * @param path Путь страницы (полный URL).
+     * @param siteEntity Сайт (поколение индекса), которому принадлежит страница.
+     * @param path       Путь страницы.
      * @return Сущность страницы, если найдена; null, если страница не найдена.
      */
-    PageEntity findByPath(String path);
+    PageEntity findBySiteIdAndPath(SiteEntity siteEntity, String path);
 
     /**
      * Найти все страницы, принадлежащие сайту с заданным идентификатором.
@@ -55,6 +60,54 @@ public interface PageRepository extends JpaRepository<PageEntity, Long> {
             nativeQuery = true)
     int countPageBySiteId(Long siteId);
 
+    /**
+     * Находит пути и валидаторы (ETag, Last-Modified) всех страниц сайта без загрузки их содержимого.
+     *
+     * @param siteId Идентификатор сайта.
+     * @return Список валидаторов страниц сайта.
+     */
+    @Query(value = """
+            SELECT p.id AS id, p.path AS path, p.etag AS etag, p.last_modified AS lastModified
+            FROM page p
+            WHERE p.site_id = :siteId""",
+            nativeQuery = true)
+    List<PageValidators> findValidatorsBySiteId(@Param("siteId") Long siteId);
 
-}
+    /**
+     * Находит разобранное содержимое всех страниц сайта без загрузки HTML.
+     *
+     * @param siteId Идентификатор сайта.
+     * @return Список текстов страниц сайта.
+     */
+    @Query(value = """
+            SELECT p.id AS id, p.path AS path, p.code AS code, p.title AS title, p.text AS text, p.links AS links
+            FROM page p
+            WHERE p.site_id = :siteId""",
+            nativeQuery = true)
+    List<PageText> findTextsBySiteId(@Param("siteId") Long siteId);
+
+    /**
+     * Возвращает разобранное содержимое страницы без загрузки HTML.
+     *
+     * @param pageId Идентификатор страницы.
+     * @return Текст, заголовок и ссылки страницы.
+     */
+    @Query(value = """
+            SELECT p.id AS id, p.path AS path, p.code AS code, p.title AS title, p.text AS text, p.links AS links
+            FROM page p
+            WHERE p.id = :pageId""",
+            nativeQuery = true)
+    PageText findTextById(@Param("pageId") Long pageId);
 
+    /**
+     * Удаляет страницу без каскадной загрузки связанных записей индекса.
+     *
+     * @param pageId Идентификатор страницы.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM page
+            WHERE id = :pageId""",
+            nativeQuery = true)
+    void deletePageById(@Param("pageId") Long pageId);
+}
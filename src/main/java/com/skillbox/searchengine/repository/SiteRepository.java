@@ -14,12 +14,28 @@ import java.util.List;
 public interface SiteRepository extends JpaRepository<SiteEntity, Long> {
 
     /**
-     * Поиск сайта по уникальному URL.
+     * Поиск поколения сайта, по которому выполняется поиск.
      *
-     * @param url Уникальный URL сайта.
-     * @return Сущность сайта, если найдена; null, если сайт не найден.
+     * @param url URL сайта.
+     * @return Действующее поколение сайта; null, если его нет.
+     */
+    SiteEntity findByUrlAndLiveTrue(String url);
+
+    /**
+     * Поиск последнего поколения сайта: строящегося или действующего.
+     *
+     * @param url URL сайта.
+     * @return Последнее поколение сайта; null, если сайт не индексировался.
+     */
+    SiteEntity findFirstByUrlOrderByGenerationDescIdDesc(String url);
+
+    /**
+     * Поиск всех поколений сайта.
+     *
+     * @param url URL сайта.
+     * @return Список поколений сайта.
      */
-    SiteEntity findByUrl(String url);
+    List<SiteEntity> findAllByUrl(String url);
 
     /**
      * Поиск всех сайтов с заданным статусом.
@@ -30,12 +46,12 @@ public interface SiteRepository extends JpaRepository<SiteEntity, Long> {
     List<SiteEntity> findByStatus(SiteStatus siteStatus);
 
     /**
-     * Поиск сайта по подобию URL (использует LIKE-запрос).
+     * Поиск действующего поколения сайта по подобию URL (использует LIKE-запрос).
      *
      * @param url Часть URL сайта.
      * @return Сущность сайта, если найдена; null, если сайт не найден.
      */
-    SiteEntity findByUrlLike(String url);
+    SiteEntity findFirstByUrlLikeAndLiveTrue(String url);
 
     /**
      * Проверяет существование сайтов с заданным статусом.
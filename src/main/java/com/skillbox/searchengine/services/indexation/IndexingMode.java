@@ -0,0 +1,22 @@
+package com.skillbox.searchengine.services.indexation;
+
+/**
+ * Режим индексации сайтов.
+ */
+public enum IndexingMode {
+    /**
+     * Данные сайта удаляются, и все страницы загружаются заново.
+     */
+    FULL,
+    /**
+     * Страницы загружаются условными запросами с ETag / Last-Modified прошлой загрузки.
+     * Неизменившиеся страницы, их леммы и индекс остаются нетронутыми.
+     */
+    INCREMENTAL,
+    /**
+     * Прерванный полный обход продолжается с последней контрольной точки:
+     * ожидающие ссылки загружаются снова, уже посещённые ссылки не обходятся.
+     * Сайты без контрольной точки, индексация которых не завершилась, индексируются полностью.
+     */
+    RESUME
+}
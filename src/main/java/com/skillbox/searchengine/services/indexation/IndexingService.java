@@ -17,6 +17,17 @@ public interface IndexingService {
      */
     void startIndexing();
 
+    /**
+     * Запускает процесс переиндексирования всех известных сайтов в заданном режиме.
+     * В инкрементальном режиме данные ранее проиндексированных сайтов не удаляются,
+     * а обновляются только изменившиеся, новые и исчезнувшие страницы.
+     * В режиме продолжения прерванный обход возобновляется с последней контрольной точки.
+     *
+     * @param mode Режим индексации.
+     * @throws IllegalStateException если процесс индексации уже запущен.
+     */
+    void startIndexing(IndexingMode mode);
+
     /**
      * Запускает процесс индексации отдельной страницы.
      *
@@ -1,20 +1,28 @@
 package com.skillbox.searchengine.services.indexation;
 
+import com.skillbox.searchengine.config.CrawlerSettings;
 import com.skillbox.searchengine.config.Site;
 import com.skillbox.searchengine.config.SitesList;
 import com.skillbox.searchengine.exception.PageOutsideConfigured;
 import com.skillbox.searchengine.model.SiteEntity;
 import com.skillbox.searchengine.model.SiteStatus;
-import com.skillbox.searchengine.repository.IndexRepository;
-import com.skillbox.searchengine.repository.LemmaRepository;
 import com.skillbox.searchengine.repository.PageRepository;
 import com.skillbox.searchengine.repository.SiteRepository;
+import com.skillbox.searchengine.services.indexation.crawling.CrawlCheckpointStore;
+import com.skillbox.searchengine.services.indexation.crawling.CrawlGovernor;
 import com.skillbox.searchengine.services.indexation.crawling.PageIndexer;
+import com.skillbox.searchengine.services.indexation.crawling.PolitenessScheduler;
+import com.skillbox.searchengine.services.indexation.crawling.SiteSeeder;
 import com.skillbox.searchengine.services.indexation.crawling.WebsiteIndexer;
+import com.skillbox.searchengine.services.indexation.indexing.BulkIndexWriter;
+import com.skillbox.searchengine.services.indexation.indexing.IncrementalIndexUpdater;
 import com.skillbox.searchengine.services.indexation.indexing.IndexBuilder;
+import com.skillbox.searchengine.services.indexation.indexing.IndexGenerations;
+import com.skillbox.searchengine.services.indexation.indexing.SitePurger;
 import com.skillbox.searchengine.services.indexation.lemmatization.LemmasCollector;
 import com.skillbox.searchengine.utils.MessageLogs;
 import com.skillbox.searchengine.utils.UrlHelper;
+import com.skillbox.searchengine.utils.metrics.CrawlerMetrics;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,18 +42,32 @@ public class IndexingServiceImpl implements IndexingService {
     
     private final SiteRepository siteRepository;
     private final PageRepository pageRepository;
-    private final LemmaRepository lemmaRepository;
-    private final IndexRepository indexRepository;
     private final LemmasCollector lemmasCollector;
     private final IndexBuilder indexBuilder;
     private final PageIndexer pageIndexer;
     private final UrlHelper urlHelper;
     private final SitesList sitesList;
+    private final CrawlerSettings crawlerSettings;
+    private final PolitenessScheduler politenessScheduler;
+    private final CrawlGovernor crawlGovernor;
+    private final IncrementalIndexUpdater incrementalIndexUpdater;
+    private final CrawlCheckpointStore crawlCheckpointStore;
+    private final SiteSeeder siteSeeder;
+    private final CrawlerMetrics crawlerMetrics;
+    private final BulkIndexWriter bulkIndexWriter;
+    private final SitePurger sitePurger;
+    private final IndexGenerations indexGenerations;
     private ExecutorService executorService;
 
     @Transactional
     @Override
     public void startIndexing() {
+        startIndexing(IndexingMode.FULL);
+    }
+
+    @Transactional
+    @Override
+    public void startIndexing(IndexingMode mode) {
         if (isIndexing()) {
             throw new IllegalStateException(MessageLogs.INDEXING_IS_ALREADY_RUNNING);
         }
@@ -54,9 +76,13 @@ public class IndexingServiceImpl implements IndexingService {
 
         for (Site site : siteList) {
             executorService.submit(new WebsiteIndexer(siteRepository,
-                    pageRepository, lemmaRepository, indexRepository,
-                    lemmasCollector, indexBuilder, site, urlHelper));
+                    pageRepository,
+                    lemmasCollector, indexBuilder, site, urlHelper, crawlerSettings,
+                    politenessScheduler, crawlGovernor, incrementalIndexUpdater, mode,
+                    crawlCheckpointStore, siteSeeder, crawlerMetrics, bulkIndexWriter, sitePurger,
+                    indexGenerations));
         }
+        executorService.shutdown();
     }
 
     @Transactional
@@ -0,0 +1,153 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный фильтр Блума для строк.
+ * <p>
+ * Хранит только биты, поэтому занимает фиксированный объём памяти,
+ * рассчитанный по ожидаемому числу элементов и допустимой доле ложных срабатываний.
+ * Биты устанавливаются через CAS без блокировок.
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Создаёт фильтр под заданное количество элементов.
+     *
+     * @param expectedInsertions Ожидаемое количество элементов.
+     * @param falsePositiveRate  Допустимая доля ложных срабатываний (от 0 до 1).
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long insertions = Math.max(1, expectedInsertions);
+        long bitsNeeded = (long) (-insertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        this.bitCount = Math.max(Long.SIZE, bitsNeeded);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / insertions * LN2));
+        this.bits = new AtomicLongArray((int) ((bitCount + Long.SIZE - 1) / Long.SIZE));
+    }
+
+    private BloomFilter(long bitCount, int hashCount, AtomicLongArray bits) {
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.bits = bits;
+    }
+
+    /**
+     * Читает фильтр, записанный {@link #writeTo(DataOutputStream)}.
+     *
+     * @param in Поток чтения.
+     * @return Восстановленный фильтр.
+     * @throws IOException если чтение не удалось.
+     */
+    public static BloomFilter readFrom(DataInputStream in) throws IOException {
+        long bitCount = in.readLong();
+        int hashCount = in.readInt();
+        AtomicLongArray bits = new AtomicLongArray(in.readInt());
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, in.readLong());
+        }
+        return new BloomFilter(bitCount, hashCount, bits);
+    }
+
+    /**
+     * Проверяет, мог ли элемент быть добавлен ранее.
+     *
+     * @param value Проверяемая строка.
+     * @return false, если строка точно не добавлялась; true, если, вероятно, добавлялась.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bitIndex = bitIndex(first + i * second);
+            if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Добавляет элемент в фильтр.
+     *
+     * @param value Добавляемая строка.
+     * @return true, если хотя бы один бит изменился, то есть строка точно встречается впервые.
+     */
+    public boolean put(String value) {
+        long hash = hash64(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 1; i <= hashCount; i++) {
+            changed |= setBit(bitIndex(first + i * second));
+        }
+        return changed;
+    }
+
+    /**
+     * Возвращает объём памяти, занимаемый битами фильтра (в байтах).
+     *
+     * @return Размер фильтра в байтах.
+     */
+    public long sizeInBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    /**
+     * Записывает параметры и биты фильтра.
+     *
+     * @param out Поток записи.
+     * @throws IOException если запись не удалась.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(bitCount);
+        out.writeInt(hashCount);
+        out.writeInt(bits.length());
+        for (int i = 0; i < bits.length(); i++) {
+            out.writeLong(bits.get(i));
+        }
+    }
+
+    private long bitIndex(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+
+    private boolean setBit(long bitIndex) {
+        int wordIndex = (int) (bitIndex >>> 6);
+        long mask = 1L << bitIndex;
+        long word;
+        do {
+            word = bits.get(wordIndex);
+            if ((word & mask) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(wordIndex, word, word | mask));
+        return true;
+    }
+
+    /**
+     * 64-битный хеш FNV-1a по символам строки с финальным перемешиванием.
+     *
+     * @param value Строка.
+     * @return Хеш строки.
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,144 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.utils.MessageLogs;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Хранилище контрольных точек обхода сайтов на локальном диске.
+ * <p>
+ * Во время полного обхода учёт посещённых и ожидающих ссылок ({@link UrlFrontier})
+ * периодически записывается в файл сайта. Запись идёт во временный файл,
+ * который затем атомарно заменяет прежний, поэтому сбой во время записи
+ * не портит последнюю контрольную точку.
+ */
+@Component
+@Slf4j
+public class CrawlCheckpointStore {
+
+    private static final String FILE_EXTENSION = ".checkpoint";
+    private final Path directory;
+    private final long intervalSeconds;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "crawl-checkpoint");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Создаёт хранилище по настройкам обходчика.
+     *
+     * @param crawlerSettings Настройки обходчика.
+     */
+    public CrawlCheckpointStore(CrawlerSettings crawlerSettings) {
+        this.directory = Paths.get(crawlerSettings.getCheckpointDirectory());
+        this.intervalSeconds = crawlerSettings.getCheckpointIntervalSeconds();
+    }
+
+    /**
+     * Запускает периодическую запись контрольной точки обхода сайта.
+     *
+     * @param siteUrl  Адрес сайта.
+     * @param frontier Учёт ссылок сайта.
+     * @return Задача периодической записи или null, если запись отключена.
+     */
+    public ScheduledFuture<?> schedule(String siteUrl, UrlFrontier frontier) {
+        if (intervalSeconds <= 0) {
+            return null;
+        }
+        return timer.scheduleWithFixedDelay(() -> save(siteUrl, frontier),
+                intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Записывает контрольную точку обхода сайта.
+     *
+     * @param siteUrl  Адрес сайта.
+     * @param frontier Учёт ссылок сайта.
+     */
+    public synchronized void save(String siteUrl, UrlFrontier frontier) {
+        Path file = checkpointFile(siteUrl);
+        try {
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                frontier.writeTo(out);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error(MessageLogs.LOG_CHECKPOINT_SAVE_ERROR, siteUrl, e);
+        }
+    }
+
+    /**
+     * Проверяет, есть ли контрольная точка обхода сайта.
+     *
+     * @param siteUrl Адрес сайта.
+     * @return true, если контрольная точка записана.
+     */
+    public boolean exists(String siteUrl) {
+        return Files.isRegularFile(checkpointFile(siteUrl));
+    }
+
+    /**
+     * Восстанавливает учёт ссылок сайта из контрольной точки.
+     *
+     * @param siteUrl  Адрес сайта.
+     * @param frontier Новый учёт ссылок, который нужно заполнить.
+     * @return true, если контрольная точка прочитана.
+     */
+    public boolean restore(String siteUrl, UrlFrontier frontier) {
+        Path file = checkpointFile(siteUrl);
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            frontier.readFrom(in);
+            return true;
+        } catch (IOException e) {
+            log.error(MessageLogs.LOG_CHECKPOINT_LOAD_ERROR, siteUrl, e);
+            return false;
+        }
+    }
+
+    /**
+     * Удаляет контрольную точку обхода сайта.
+     *
+     * @param siteUrl Адрес сайта.
+     */
+    public synchronized void delete(String siteUrl) {
+        try {
+            Files.deleteIfExists(checkpointFile(siteUrl));
+        } catch (IOException e) {
+            log.error(MessageLogs.LOG_CHECKPOINT_SAVE_ERROR, siteUrl, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private Path checkpointFile(String siteUrl) {
+        return directory.resolve(siteUrl.replaceAll("[^a-zA-Z0-9.-]", "_") + FILE_EXTENSION);
+    }
+}
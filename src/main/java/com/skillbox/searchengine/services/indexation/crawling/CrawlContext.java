@@ -0,0 +1,86 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.dto.indexing.DtoPage;
+import com.skillbox.searchengine.utils.UrlHelper;
+import com.skillbox.searchengine.utils.metrics.CrawlerMetrics;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Общее состояние обхода одного сайта.
+ * <p>
+ * Хранит учёт посещённых ссылок и очередь собранных страниц, передаёт задачи обхода
+ * в {@link CrawlEngine} и отслеживает количество незавершённых задач. Механизм обхода
+ * выпускает задачу, только когда для её хоста есть маркер {@link PolitenessScheduler}
+ * ({@link #tryAcquireHost(String)}).
+ * Когда последняя задача завершается, завершается и {@link #getCompletion()}.
+ */
+@RequiredArgsConstructor
+public class CrawlContext {
+
+    @Getter
+    private final UrlFrontier frontier;
+    @Getter
+    private final BlockingQueue<DtoPage> pageQueue;
+    @Getter
+    private final UrlHelper urlHelper;
+    @Getter
+    private final IncrementalCrawlState crawlState;
+    @Getter
+    private final NearDuplicateDetector duplicateDetector;
+    @Getter
+    private final UrlCanonicalizer urlCanonicalizer;
+    @Getter
+    private final UrlClassifier urlClassifier;
+    @Getter
+    private final CrawlerMetrics crawlerMetrics;
+    private final PolitenessScheduler politenessScheduler;
+    private final CrawlEngine crawlEngine;
+    private final double requestsPerSecond;
+    private final int burst;
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    @Getter
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    /**
+     * Ставит страницу в очередь на обход с учётом ограничения частоты запросов к хосту.
+     *
+     * @param url Адрес страницы.
+     */
+    public void submit(String url) {
+        pendingTasks.incrementAndGet();
+        execute(url);
+    }
+
+    /**
+     * Забирает маркер хоста страницы, если запрос к хосту можно выполнить сейчас.
+     *
+     * @param url Адрес страницы.
+     * @return 0, если маркер забран; иначе через сколько наносекунд появится маркер.
+     */
+    public long tryAcquireHost(String url) {
+        return politenessScheduler.tryAcquire(urlHelper.getHostFromPage(url), requestsPerSecond, burst);
+    }
+
+    /**
+     * Отмечает завершение задачи обхода одной страницы.
+     */
+    public void taskFinished() {
+        if (pendingTasks.decrementAndGet() == 0) {
+            completion.complete(null);
+        }
+    }
+
+    private void execute(String url) {
+        try {
+            crawlEngine.execute(this, url);
+        } catch (RejectedExecutionException e) {
+            taskFinished();
+        }
+    }
+}
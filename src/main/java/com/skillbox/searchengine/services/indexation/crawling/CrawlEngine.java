@@ -0,0 +1,21 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+/**
+ * Механизм выполнения задач обхода страниц одного сайта.
+ */
+public interface CrawlEngine {
+
+    /**
+     * Запускает обход страницы.
+     *
+     * @param crawlContext Состояние обхода сайта.
+     * @param url          Адрес страницы.
+     * @throws java.util.concurrent.RejectedExecutionException если механизм уже остановлен.
+     */
+    void execute(CrawlContext crawlContext, String url);
+
+    /**
+     * Останавливает выполнение, прерывая запущенные задачи.
+     */
+    void shutdownNow();
+}
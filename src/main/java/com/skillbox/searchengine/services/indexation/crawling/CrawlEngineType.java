@@ -0,0 +1,15 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+/**
+ * Тип рабочих потоков общего планировщика обхода ({@link CrawlGovernor}).
+ */
+public enum CrawlEngineType {
+    /**
+     * Задачи {@link WebCrawlerTask} выполняются в общем {@link java.util.concurrent.ForkJoinPool}.
+     */
+    FORK_JOIN,
+    /**
+     * Каждая страница загружается в отдельном виртуальном потоке.
+     */
+    VIRTUAL_THREADS
+}
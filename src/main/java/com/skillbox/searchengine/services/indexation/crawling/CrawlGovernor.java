@@ -0,0 +1,313 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.dto.indexing.CrawlGovernorStats;
+import com.skillbox.searchengine.utils.MessageLogs;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий для всех сайтов планировщик обхода.
+ * <p>
+ * Все сайты обходятся одним пулом рабочих потоков. Каждый сайт получает свою очередь задач
+ * ({@link #register(String)}), а планировщик выпускает задачи из очередей по кругу:
+ * сайт с большой очередью не вытесняет остальные. Одновременно выполняется не больше
+ * {@code globalConcurrency} загрузок всего и не больше {@code siteConcurrency} загрузок одного сайта.
+ * Задача выпускается, только когда для её хоста есть маркер вежливого обхода
+ * ({@link CrawlContext#tryAcquireHost(String)}); иначе очередь сайта откладывается до появления маркера,
+ * а освободившееся место получают другие сайты.
+ * Лемматизация сайтов ограничивается отдельно ({@link #runLemmatization(InterruptibleTask)}).
+ * <p>
+ * Загрузка планировщика доступна в {@link #getStats()} и периодически записывается в журнал.
+ */
+@Component
+@Slf4j
+public class CrawlGovernor {
+
+    private final int globalConcurrency;
+    private final int siteConcurrency;
+    private final int lemmatizationConcurrency;
+    private final ExecutorService workers;
+    private final Semaphore lemmatizationPermits;
+    private final ArrayDeque<SiteLane> readyLanes = new ArrayDeque<>();
+    private final Set<SiteLane> lanes = new HashSet<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "crawl-governor-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private int runningTasks;
+
+    public CrawlGovernor(CrawlerSettings crawlerSettings) {
+        this.globalConcurrency = Math.max(1, crawlerSettings.getGlobalConcurrency());
+        this.siteConcurrency = Math.max(1, crawlerSettings.getSiteConcurrency());
+        this.lemmatizationConcurrency = Math.max(1, crawlerSettings.getLemmatizationConcurrency());
+        this.lemmatizationPermits = new Semaphore(lemmatizationConcurrency, true);
+        this.workers = createWorkers(crawlerSettings.getEngine(), globalConcurrency);
+        long reportInterval = crawlerSettings.getGovernorReportIntervalSeconds();
+        if (reportInterval > 0) {
+            timer.scheduleAtFixedRate(this::report, reportInterval, reportInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Регистрирует сайт и создаёт для него очередь задач обхода.
+     * Очередь нужно остановить ({@link CrawlEngine#shutdownNow()}) после обхода сайта.
+     *
+     * @param siteUrl Адрес сайта (для отчётов о загрузке).
+     * @return Механизм обхода сайта.
+     */
+    public CrawlEngine register(String siteUrl) {
+        SiteLane lane = new SiteLane(siteUrl);
+        synchronized (this) {
+            lanes.add(lane);
+        }
+        return lane;
+    }
+
+    /**
+     * Выполняет лемматизацию сайта, когда освободится место среди одновременных лемматизаций.
+     *
+     * @param task Лемматизация и построение индекса сайта.
+     * @throws InterruptedException если поток был прерван.
+     */
+    public void runLemmatization(InterruptibleTask task) throws InterruptedException {
+        lemmatizationPermits.acquire();
+        try {
+            task.run();
+        } finally {
+            lemmatizationPermits.release();
+        }
+    }
+
+    /**
+     * Возвращает снимок загрузки планировщика.
+     *
+     * @return Количество сайтов, задач в очередях и выполняемых задач.
+     */
+    public synchronized CrawlGovernorStats getStats() {
+        Map<String, Integer> siteQueueDepth = new LinkedHashMap<>();
+        int queuedTasks = 0;
+        for (SiteLane lane : lanes) {
+            siteQueueDepth.merge(lane.siteUrl, lane.queue.size(), Integer::sum);
+            queuedTasks += lane.queue.size();
+        }
+        return new CrawlGovernorStats(lanes.size(), queuedTasks, runningTasks, globalConcurrency,
+                lemmatizationConcurrency - lemmatizationPermits.availablePermits(),
+                lemmatizationConcurrency, siteQueueDepth);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private synchronized void enqueue(SiteLane lane, CrawlTask task) {
+        if (lane.closed) {
+            throw new RejectedExecutionException();
+        }
+        lane.queue.add(task);
+        markReady(lane);
+        dispatch();
+    }
+
+    /**
+     * Выпускает задачи из очередей сайтов по кругу, пока есть свободные места.
+     * Маркер хоста забирается в момент выпуска: если его нет, очередь сайта откладывается.
+     */
+    private void dispatch() {
+        while (runningTasks < globalConcurrency && !readyLanes.isEmpty()) {
+            SiteLane lane = readyLanes.poll();
+            lane.ready = false;
+            CrawlTask task = lane.queue.peek();
+            if (task == null) {
+                continue;
+            }
+            long delay = task.crawlContext().tryAcquireHost(task.url());
+            if (delay > 0) {
+                park(lane, delay);
+                continue;
+            }
+            lane.queue.poll();
+            lane.running++;
+            runningTasks++;
+            markReady(lane);
+            try {
+                workers.execute(() -> runTask(lane, task));
+            } catch (RejectedExecutionException e) {
+                lane.running--;
+                runningTasks--;
+                readyLanes.remove(lane);
+                lane.ready = false;
+                task.crawlContext().taskFinished();
+                return;
+            }
+        }
+    }
+
+    private void markReady(SiteLane lane) {
+        if (!lane.ready && !lane.parked && !lane.closed && !lane.queue.isEmpty() && lane.running < siteConcurrency) {
+            lane.ready = true;
+            readyLanes.add(lane);
+        }
+    }
+
+    /**
+     * Откладывает очередь сайта до появления маркера хоста.
+     *
+     * @param lane  Очередь сайта.
+     * @param delay Через сколько наносекунд появится маркер.
+     */
+    private void park(SiteLane lane, long delay) {
+        lane.parked = true;
+        try {
+            timer.schedule(() -> unpark(lane), delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            lane.parked = false;
+        }
+    }
+
+    private synchronized void unpark(SiteLane lane) {
+        lane.parked = false;
+        markReady(lane);
+        dispatch();
+    }
+
+    private void runTask(SiteLane lane, CrawlTask task) {
+        Thread thread = Thread.currentThread();
+        synchronized (this) {
+            if (lane.closed) {
+                task.crawlContext().taskFinished();
+                finishTask(lane);
+                return;
+            }
+            lane.threads.add(thread);
+        }
+        try {
+            task.run();
+        } finally {
+            synchronized (this) {
+                lane.threads.remove(thread);
+                Thread.interrupted();
+                finishTask(lane);
+            }
+        }
+    }
+
+    private void finishTask(SiteLane lane) {
+        lane.running--;
+        runningTasks--;
+        markReady(lane);
+        dispatch();
+    }
+
+    private synchronized void close(SiteLane lane) {
+        lane.closed = true;
+        lane.queue.forEach(task -> task.crawlContext().taskFinished());
+        lane.queue.clear();
+        readyLanes.remove(lane);
+        lane.ready = false;
+        lane.threads.forEach(Thread::interrupt);
+        lanes.remove(lane);
+    }
+
+    private void report() {
+        CrawlGovernorStats stats = getStats();
+        if (stats.getActiveSites() > 0) {
+            log.info(MessageLogs.LOG_CRAWL_GOVERNOR_STATS, stats.getActiveSites(), stats.getQueuedTasks(),
+                    stats.getRunningTasks(), stats.getTaskCapacity(),
+                    Math.round(stats.getUtilization() * 100), stats.getRunningLemmatizations(),
+                    stats.getLemmatizationCapacity());
+        }
+    }
+
+    /**
+     * Создаёт общий пул рабочих потоков выбранного типа.
+     *
+     * @param engineType        Способ выполнения задач обхода.
+     * @param globalConcurrency Наибольшее количество одновременных загрузок.
+     * @return Пул рабочих потоков.
+     */
+    private static ExecutorService createWorkers(CrawlEngineType engineType, int globalConcurrency) {
+        if (engineType == CrawlEngineType.VIRTUAL_THREADS) {
+            try {
+                return (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+                log.debug(MessageLogs.LOG_VIRTUAL_THREADS_UNAVAILABLE);
+                return Executors.newCachedThreadPool();
+            }
+        }
+        return new ForkJoinPool(globalConcurrency);
+    }
+
+    /**
+     * Задача, которая может быть прервана.
+     */
+    @FunctionalInterface
+    public interface InterruptibleTask {
+        void run() throws InterruptedException;
+    }
+
+    /**
+     * Задача обхода страницы.
+     *
+     * @param crawlContext Состояние обхода сайта.
+     * @param url          Адрес страницы.
+     */
+    private record CrawlTask(CrawlContext crawlContext, String url) implements Runnable {
+
+        @Override
+        public void run() {
+            new WebCrawlerTask(crawlContext, url).invoke();
+        }
+    }
+
+    /**
+     * Очередь задач обхода одного сайта.
+     * Все поля изменяются только под блокировкой планировщика.
+     */
+    private class SiteLane implements CrawlEngine {
+
+        private final String siteUrl;
+        private final ArrayDeque<CrawlTask> queue = new ArrayDeque<>();
+        private final List<Thread> threads = new ArrayList<>();
+        private int running;
+        private boolean ready;
+        private boolean parked;
+        private boolean closed;
+
+        private SiteLane(String siteUrl) {
+            this.siteUrl = siteUrl;
+        }
+
+        @Override
+        public void execute(CrawlContext crawlContext, String url) {
+            enqueue(this, new CrawlTask(crawlContext, url));
+        }
+
+        @Override
+        public void shutdownNow() {
+            close(this);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+/**
+ * Маркерное ведро (token bucket) для ограничения частоты запросов к одному хосту.
+ * <p>
+ * Вместо ожидания вызывающий поток получает резерв: время, через которое
+ * запрос можно выполнить ({@link #reserve(long)}), либо забирает маркер только
+ * если он уже есть ({@link #tryAcquire(long)}). Ведро вмещает {@code burst} маркеров
+ * и пополняется со скоростью {@code requestsPerSecond}.
+ */
+public class HostTokenBucket {
+
+    private static final long NANOS_IN_SECOND = 1_000_000_000L;
+    private final double requestsPerSecond;
+    private final int burst;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private long nextFreeNanos;
+
+    /**
+     * Создаёт ведро с заданной скоростью и ёмкостью.
+     *
+     * @param requestsPerSecond Допустимое количество запросов в секунду.
+     * @param burst             Количество запросов, допустимых подряд без паузы.
+     */
+    public HostTokenBucket(double requestsPerSecond, int burst) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.intervalNanos = (long) (NANOS_IN_SECOND / requestsPerSecond);
+        this.burstNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.nextFreeNanos = Long.MIN_VALUE / 2;
+    }
+
+    /**
+     * Резервирует маркер для очередного запроса.
+     *
+     * @param nowNanos Текущее время в наносекундах ({@link System#nanoTime()}).
+     * @return Через сколько наносекунд можно выполнить запрос; 0, если сразу.
+     */
+    public synchronized long reserve(long nowNanos) {
+        long earliestAllowed = nowNanos - burstNanos;
+        if (nextFreeNanos < earliestAllowed) {
+            nextFreeNanos = earliestAllowed;
+        }
+        long delay = Math.max(0, nextFreeNanos - nowNanos);
+        nextFreeNanos += intervalNanos;
+        return delay;
+    }
+
+    /**
+     * Забирает маркер, если он уже доступен. Если маркера нет, ничего не резервирует.
+     *
+     * @param nowNanos Текущее время в наносекундах ({@link System#nanoTime()}).
+     * @return 0, если маркер забран; иначе через сколько наносекунд появится маркер.
+     */
+    public synchronized long tryAcquire(long nowNanos) {
+        long earliestAllowed = nowNanos - burstNanos;
+        if (nextFreeNanos < earliestAllowed) {
+            nextFreeNanos = earliestAllowed;
+        }
+        if (nextFreeNanos > nowNanos) {
+            return nextFreeNanos - nowNanos;
+        }
+        nextFreeNanos += intervalNanos;
+        return 0;
+    }
+
+    /**
+     * Проверяет, создано ли ведро с заданными скоростью и ёмкостью.
+     *
+     * @param requestsPerSecond Допустимое количество запросов в секунду.
+     * @param burst             Количество запросов, допустимых подряд без паузы.
+     * @return true, если ограничения ведра совпадают с заданными.
+     */
+    public boolean hasLimits(double requestsPerSecond, int burst) {
+        return this.requestsPerSecond == requestsPerSecond && this.burst == burst;
+    }
+}
@@ -0,0 +1,111 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.dto.indexing.PageText;
+import com.skillbox.searchengine.dto.indexing.PageValidators;
+import com.skillbox.searchengine.repository.PageRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сведения о ранее сохранённых страницах сайта для инкрементального обхода.
+ * <p>
+ * Позволяет отправлять условные запросы с валидаторами прошлой загрузки,
+ * читать сохранённое содержимое неизменившихся страниц для обхода их ссылок
+ * и по завершении обхода определить страницы, которые на сайте больше не встречаются.
+ */
+public class IncrementalCrawlState {
+
+    private static final IncrementalCrawlState NONE = new IncrementalCrawlState(Map.of(), null);
+    private final Map<String, PageValidators> knownPages;
+    private final Set<String> seenPaths = ConcurrentHashMap.newKeySet();
+    private final PageRepository pageRepository;
+
+    private IncrementalCrawlState(Map<String, PageValidators> knownPages,
+                                  PageRepository pageRepository) {
+        this.knownPages = knownPages;
+        this.pageRepository = pageRepository;
+    }
+
+    /**
+     * Состояние полного обхода, при котором сохранённых страниц нет.
+     *
+     * @return Пустое состояние.
+     */
+    public static IncrementalCrawlState none() {
+        return NONE;
+    }
+
+    /**
+     * Загружает валидаторы сохранённых страниц сайта.
+     *
+     * @param pageRepository Репозиторий страниц.
+     * @param siteId         Идентификатор сайта.
+     * @return Состояние инкрементального обхода.
+     */
+    public static IncrementalCrawlState load(PageRepository pageRepository, Long siteId) {
+        Map<String, PageValidators> knownPages = pageRepository.findValidatorsBySiteId(siteId)
+                .stream()
+                .collect(Collectors.toMap(PageValidators::getPath, Function.identity(),
+                        (first, second) -> first));
+        return new IncrementalCrawlState(knownPages, pageRepository);
+    }
+
+    /**
+     * Проверяет, что обход инкрементальный.
+     *
+     * @return true, если есть сохранённые страницы.
+     */
+    public boolean isIncremental() {
+        return this != NONE;
+    }
+
+    /**
+     * Находит сохранённую страницу по пути.
+     *
+     * @param path Путь страницы.
+     * @return Валидаторы страницы или null, если страница ранее не сохранялась.
+     */
+    public PageValidators findKnownPage(String path) {
+        return knownPages.get(path);
+    }
+
+    /**
+     * Возвращает разобранное содержимое сохранённой страницы.
+     *
+     * @param knownPage Сохранённая страница.
+     * @return Текст и ссылки страницы или null, если страница уже удалена.
+     */
+    public PageText loadStoredPage(PageValidators knownPage) {
+        return pageRepository.findTextById(knownPage.getId());
+    }
+
+    /**
+     * Отмечает, что страница встретилась при текущем обходе.
+     *
+     * @param path Путь страницы.
+     */
+    public void markSeen(String path) {
+        seenPaths.add(path);
+    }
+
+    /**
+     * Возвращает сохранённые страницы, не встретившиеся при текущем обходе.
+     *
+     * @return Список страниц, удалённых с сайта.
+     */
+    public List<PageValidators> findUnseenPages() {
+        List<PageValidators> unseenPages = new ArrayList<>();
+        for (Map.Entry<String, PageValidators> entry : knownPages.entrySet()) {
+            if (!seenPaths.contains(entry.getKey())) {
+                unseenPages.add(entry.getValue());
+            }
+        }
+        return unseenPages;
+    }
+}
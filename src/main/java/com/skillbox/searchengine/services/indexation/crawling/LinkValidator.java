@@ -3,8 +3,12 @@ package com.skillbox.searchengine.services.indexation.crawling;
 /**
  * Валидатор ссылок, позволяющий проверить корректность URL и установить,
  * является ли ссылка изображением или документом.
+ * Класс оставлен для сравнения в нагрузочных тестах.
+ *
+ * @deprecated Используйте {@link UrlClassifier}: его правила задаются в настройках
+ *             и компилируются один раз.
  */
-
+@Deprecated
 public class LinkValidator {
 
     /**
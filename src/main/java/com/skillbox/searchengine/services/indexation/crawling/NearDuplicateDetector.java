@@ -0,0 +1,166 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Поиск почти одинаковых страниц сайта по отпечаткам {@link SimHash}.
+ * <p>
+ * Отпечаток делится на {@code maxDistance + 1} блоков битов. Если два отпечатка отличаются
+ * не более чем в {@code maxDistance} битах, хотя бы один блок у них совпадает целиком,
+ * поэтому кандидаты ищутся по точному совпадению блока, а не перебором всех отпечатков сайта.
+ * Проверка и регистрация отпечатка выполняются атомарно, так что из двух одновременно
+ * загруженных копий сохранится только одна.
+ */
+public class NearDuplicateDetector {
+
+    private static final NearDuplicateDetector DISABLED = new NearDuplicateDetector(-1);
+    private final int maxDistance;
+    private final int[] blockShifts;
+    private final long[] blockMasks;
+    private final List<Map<Long, List<Fingerprint>>> blockIndexes = new ArrayList<>();
+    private final AtomicInteger checkedPages = new AtomicInteger();
+    private final AtomicInteger duplicatePages = new AtomicInteger();
+
+    /**
+     * Создаёт поиск почти одинаковых страниц.
+     *
+     * @param maxDistance Наибольшее расстояние Хэмминга, при котором страницы считаются
+     *                    почти одинаковыми (от 0 до 63); отрицательное значение отключает поиск.
+     */
+    public NearDuplicateDetector(int maxDistance) {
+        this.maxDistance = Math.min(maxDistance, Long.SIZE - 1);
+        int blockCount = Math.max(0, this.maxDistance + 1);
+        this.blockShifts = new int[blockCount];
+        this.blockMasks = new long[blockCount];
+        int shift = 0;
+        for (int block = 0; block < blockCount; block++) {
+            int width = Long.SIZE / blockCount + (block < Long.SIZE % blockCount ? 1 : 0);
+            blockShifts[block] = shift;
+            blockMasks[block] = width == Long.SIZE ? -1L : (1L << width) - 1;
+            blockIndexes.add(new HashMap<>());
+            shift += width;
+        }
+    }
+
+    /**
+     * Отключённый поиск: ни одна страница не считается копией.
+     *
+     * @return Отключённый поиск почти одинаковых страниц.
+     */
+    public static NearDuplicateDetector disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Проверяет, включён ли поиск.
+     *
+     * @return true, если страницы проверяются на почти полное совпадение.
+     */
+    public boolean isEnabled() {
+        return maxDistance >= 0;
+    }
+
+    /**
+     * Ищет ранее встреченную почти одинаковую страницу и, если её нет, запоминает текущую.
+     *
+     * @param url  Адрес проверяемой страницы.
+     * @param text Очищенный текст страницы.
+     * @return Адрес страницы, копией которой является текущая, или null, если страница уникальна.
+     */
+    public String findDuplicateOrRegister(String url, String text) {
+        if (!isEnabled() || text == null || text.isBlank()) {
+            return null;
+        }
+        long fingerprint = SimHash.fingerprint(text);
+        checkedPages.incrementAndGet();
+        synchronized (this) {
+            Fingerprint original = findNearest(fingerprint);
+            if (original != null) {
+                duplicatePages.incrementAndGet();
+                return original.getUrl();
+            }
+            add(new Fingerprint(fingerprint, url));
+            return null;
+        }
+    }
+
+    /**
+     * Запоминает страницу, сохранённую до начала обхода, без проверки и учёта в статистике.
+     *
+     * @param url  Адрес страницы.
+     * @param text Очищенный текст страницы.
+     */
+    public void register(String url, String text) {
+        if (!isEnabled() || text == null || text.isBlank()) {
+            return;
+        }
+        long fingerprint = SimHash.fingerprint(text);
+        synchronized (this) {
+            if (findNearest(fingerprint) == null) {
+                add(new Fingerprint(fingerprint, url));
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество проверенных страниц.
+     *
+     * @return Количество страниц, для которых вычислен отпечаток.
+     */
+    public int getCheckedPages() {
+        return checkedPages.get();
+    }
+
+    /**
+     * Возвращает количество найденных почти одинаковых страниц.
+     *
+     * @return Количество страниц, признанных копиями.
+     */
+    public int getDuplicatePages() {
+        return duplicatePages.get();
+    }
+
+    private Fingerprint findNearest(long fingerprint) {
+        for (int block = 0; block < blockShifts.length; block++) {
+            List<Fingerprint> candidates = blockIndexes.get(block).get(blockKey(fingerprint, block));
+            if (candidates == null) {
+                continue;
+            }
+            for (Fingerprint candidate : candidates) {
+                if (SimHash.distance(candidate.getValue(), fingerprint) <= maxDistance) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void add(Fingerprint entry) {
+        for (int block = 0; block < blockShifts.length; block++) {
+            blockIndexes.get(block)
+                    .computeIfAbsent(blockKey(entry.getValue(), block), key -> new ArrayList<>(1))
+                    .add(entry);
+        }
+    }
+
+    private long blockKey(long fingerprint, int block) {
+        return (fingerprint >>> blockShifts[block]) & blockMasks[block];
+    }
+
+    /**
+     * Запомненный отпечаток страницы.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class Fingerprint {
+        private final long value;
+        private final String url;
+    }
+}
@@ -0,0 +1,240 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.dto.indexing.DtoPage;
+import com.skillbox.searchengine.dto.indexing.PageValidators;
+import com.skillbox.searchengine.model.PageEntity;
+import com.skillbox.searchengine.model.SiteEntity;
+import com.skillbox.searchengine.repository.PageRepository;
+import com.skillbox.searchengine.services.indexation.indexing.IncrementalIndexUpdater;
+import com.skillbox.searchengine.services.indexation.lemmatization.LemmasCollector;
+import com.skillbox.searchengine.services.indexation.lemmatization.SiteLemmas;
+import com.skillbox.searchengine.services.indexation.lemmatization.StoredPageText;
+import com.skillbox.searchengine.utils.MessageLogs;
+import com.skillbox.searchengine.utils.PageContentCodec;
+import com.skillbox.searchengine.utils.UrlHelper;
+import com.skillbox.searchengine.utils.fetching.FetchedPage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись страниц, поступающих от обходчика, в базу данных пачками.
+ * <p>
+ * Страницы забираются из ограниченной очереди и сохраняются каждые
+ * {@code batchSize} штук, поэтому в памяти одновременно находится
+ * не больше ёмкости очереди и одной пачки, независимо от размера сайта.
+ * <p>
+ * При инкрементальном обходе неизменившиеся страницы (ответ 304) не перезаписываются,
+ * изменившиеся заменяют прежнюю версию, а леммы и индекс обновляются только для них.
+ * При полном обходе каждая сохранённая пачка сразу лемматизируется параллельно, а леммы накапливаются
+ * в {@link SiteLemmas}, поэтому после обхода страницы не загружаются из базы данных повторно.
+ * <p>
+ * HTML страниц сохраняется сжатым ({@link PageContentCodec}); в журнал записываются средние размеры
+ * HTML, сжатого HTML и текста страницы.
+ * <p>
+ * После сохранения пачки её ссылки отмечаются обработанными в {@link UrlFrontier},
+ * чтобы контрольная точка обхода не требовала загружать их повторно.
+ */
+@Slf4j
+public class PageBatchWriter {
+
+    /**
+     * Время ожидания очередной страницы из очереди (в миллисекундах).
+     */
+    private static final long POLL_TIMEOUT_MS = 100;
+    private final PageRepository pageRepository;
+    private final UrlHelper urlHelper;
+    private final SiteEntity siteEntity;
+    private final BlockingQueue<DtoPage> pageQueue;
+    private final int batchSize;
+    private final IncrementalCrawlState crawlState;
+    private final IncrementalIndexUpdater indexUpdater;
+    private final UrlFrontier frontier;
+    private final LemmasCollector lemmasCollector;
+    private final SiteLemmas siteLemmas;
+    private final List<String> batchUrls = new ArrayList<>();
+    private long htmlBytes;
+    private long compressedBytes;
+    private long textBytes;
+    private long measuredPages;
+
+    /**
+     * Создаёт запись страниц для полного обхода сайта.
+     *
+     * @param pageRepository  Репозиторий страниц.
+     * @param urlHelper       Помощник для работы с адресами.
+     * @param siteEntity      Сайт, которому принадлежат страницы.
+     * @param pageQueue       Очередь страниц, наполняемая обходчиком.
+     * @param batchSize       Размер пачки сохраняемых страниц.
+     */
+    public PageBatchWriter(PageRepository pageRepository, UrlHelper urlHelper, SiteEntity siteEntity,
+                           BlockingQueue<DtoPage> pageQueue, int batchSize) {
+        this(pageRepository, urlHelper, siteEntity, pageQueue, batchSize,
+                IncrementalCrawlState.none(), null, null, null, null);
+    }
+
+    /**
+     * Создаёт запись страниц обхода сайта.
+     *
+     * @param pageRepository  Репозиторий страниц.
+     * @param urlHelper       Помощник для работы с адресами.
+     * @param siteEntity      Сайт, которому принадлежат страницы.
+     * @param pageQueue       Очередь страниц, наполняемая обходчиком.
+     * @param batchSize       Размер пачки сохраняемых страниц.
+     * @param crawlState      Сведения о ранее сохранённых страницах сайта.
+     * @param indexUpdater    Постраничное обновление лемм и индекса.
+     * @param frontier        Учёт ссылок, в котором отмечаются сохранённые страницы (может быть null).
+     * @param lemmasCollector Лемматизация сохранённых страниц (может быть null).
+     * @param siteLemmas      Леммы сайта, к которым добавляются леммы сохранённых страниц (может быть null).
+     */
+    public PageBatchWriter(PageRepository pageRepository, UrlHelper urlHelper, SiteEntity siteEntity,
+                           BlockingQueue<DtoPage> pageQueue, int batchSize,
+                           IncrementalCrawlState crawlState, IncrementalIndexUpdater indexUpdater,
+                           UrlFrontier frontier, LemmasCollector lemmasCollector, SiteLemmas siteLemmas) {
+        this.pageRepository = pageRepository;
+        this.urlHelper = urlHelper;
+        this.siteEntity = siteEntity;
+        this.pageQueue = pageQueue;
+        this.batchSize = batchSize;
+        this.crawlState = crawlState;
+        this.indexUpdater = indexUpdater;
+        this.frontier = frontier;
+        this.lemmasCollector = lemmasCollector;
+        this.siteLemmas = siteLemmas;
+    }
+
+    /**
+     * Сохраняет страницы из очереди, пока обход не завершится и очередь не опустеет.
+     *
+     * @param crawling Задача обхода сайта, наполняющая очередь.
+     * @return Количество сохранённых страниц.
+     * @throws InterruptedException если поток был прерван.
+     */
+    public int writeUntilDone(Future<?> crawling) throws InterruptedException {
+        List<DtoPage> drained = new ArrayList<>(batchSize);
+        List<PageEntity> batch = new ArrayList<>(batchSize);
+        int savedPages = 0;
+
+        while (!crawling.isDone() || !pageQueue.isEmpty()) {
+            DtoPage dtoPage = pageQueue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            if (dtoPage == null) {
+                continue;
+            }
+            drained.add(dtoPage);
+            pageQueue.drainTo(drained, batchSize - batch.size() - 1);
+            for (DtoPage page : drained) {
+                addToBatch(page, batch);
+            }
+            drained.clear();
+
+            if (batch.size() >= batchSize) {
+                savedPages += flush(batch);
+            }
+        }
+        savedPages += flush(batch);
+        log.info(MessageLogs.LOG_PAGES_SAVED, siteEntity.getUrl(), savedPages);
+        if (measuredPages > 0) {
+            log.info(MessageLogs.LOG_PAGE_STORAGE, siteEntity.getUrl(), htmlBytes / measuredPages,
+                    compressedBytes / measuredPages, textBytes / measuredPages);
+        }
+        return savedPages;
+    }
+
+    /**
+     * Добавляет страницу в пачку, заменяя её прежнюю версию при инкрементальном обходе.
+     *
+     * @param dtoPage Страница, полученная обходчиком.
+     * @param batch   Пачка страниц.
+     */
+    private void addToBatch(DtoPage dtoPage, List<PageEntity> batch) {
+        String path = urlHelper.getPathToPage(dtoPage.getPath());
+        if (crawlState.isIncremental()) {
+            crawlState.markSeen(path);
+            if (dtoPage.getCode() == FetchedPage.NOT_MODIFIED_STATUS_CODE) {
+                markProcessed(dtoPage.getPath());
+                return;
+            }
+            PageValidators knownPage = crawlState.findKnownPage(path);
+            if (knownPage != null) {
+                indexUpdater.removePage(siteEntity, knownPage.getId());
+            }
+        }
+        batch.add(toPageEntity(dtoPage, path));
+        batchUrls.add(dtoPage.getPath());
+    }
+
+    private void markProcessed(String url) {
+        if (frontier != null) {
+            frontier.markProcessed(url);
+        }
+    }
+
+    /**
+     * Сохраняет накопленную пачку страниц и очищает её.
+     *
+     * @param batch Пачка страниц.
+     * @return Количество сохранённых страниц.
+     */
+    private int flush(List<PageEntity> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int size = batch.size();
+        pageRepository.saveAll(batch);
+        if (crawlState.isIncremental()) {
+            batch.forEach(indexUpdater::addPage);
+        } else if (siteLemmas != null) {
+            lemmasCollector.collectPages(siteLemmas, batch.stream().map(StoredPageText::of).toList());
+        }
+        batch.clear();
+        batchUrls.forEach(this::markProcessed);
+        batchUrls.clear();
+        return size;
+    }
+
+    /**
+     * Сжимает HTML страницы и учитывает размеры HTML, сжатого HTML и текста для отчёта.
+     *
+     * @param html HTML-содержимое страницы или null.
+     * @param text Текст страницы или null.
+     * @return Сжатое содержимое или null.
+     */
+    private byte[] compress(String html, String text) {
+        if (html == null) {
+            return null;
+        }
+        byte[] htmlUtf8 = html.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = PageContentCodec.compress(htmlUtf8);
+        htmlBytes += htmlUtf8.length;
+        compressedBytes += compressed.length;
+        textBytes += text == null ? 0 : text.getBytes(StandardCharsets.UTF_8).length;
+        measuredPages++;
+        return compressed;
+    }
+
+    /**
+     * Преобразует страницу, полученную обходчиком, в сущность страницы сайта.
+     *
+     * @param dtoPage Страница, полученная обходчиком.
+     * @param path    Путь страницы относительно сайта.
+     * @return Сущность страницы.
+     */
+    private PageEntity toPageEntity(DtoPage dtoPage, String path) {
+        PageEntity pageEntity = new PageEntity();
+        pageEntity.setSiteId(siteEntity);
+        pageEntity.setPath(path);
+        pageEntity.setCode(dtoPage.getCode());
+        pageEntity.setContent(compress(dtoPage.getContent(), dtoPage.getText()));
+        pageEntity.setEtag(dtoPage.getEtag());
+        pageEntity.setLastModified(dtoPage.getLastModified());
+        pageEntity.setTitle(dtoPage.getTitle());
+        pageEntity.setText(dtoPage.getText());
+        pageEntity.setLinks(dtoPage.getLinks());
+        return pageEntity;
+    }
+}
@@ -1,5 +1,6 @@
 package com.skillbox.searchengine.services.indexation.crawling;
 
+import com.skillbox.searchengine.config.CrawlerSettings;
 import com.skillbox.searchengine.config.Site;
 import com.skillbox.searchengine.config.SitesList;
 import com.skillbox.searchengine.exception.PageOutsideConfigured;
@@ -8,13 +9,17 @@ import com.skillbox.searchengine.model.SiteEntity;
 import com.skillbox.searchengine.model.SiteStatus;
 import com.skillbox.searchengine.repository.PageRepository;
 import com.skillbox.searchengine.repository.SiteRepository;
+import com.skillbox.searchengine.services.indexation.indexing.SitePurger;
+import com.skillbox.searchengine.utils.PageContentCodec;
 import com.skillbox.searchengine.utils.UrlHelper;
+import com.skillbox.searchengine.utils.fetching.FetchedPage;
+import com.skillbox.searchengine.utils.parsing.HtmlPageParser;
+import com.skillbox.searchengine.utils.parsing.ParsedPage;
 import lombok.RequiredArgsConstructor;
-import org.jsoup.Connection;
-import org.jsoup.nodes.Document;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -31,20 +36,26 @@ public class PageIndexer {
     private final PageRepository pageRepository;
     private final SitesList sitesList;
     private final UrlHelper urlHelper;
+    private final SitePurger sitePurger;
+    private final CrawlerSettings crawlerSettings;
 
     /**
      * Запускает процедуру индексации страницы.
      *
-     * @param page URL страницы, которую нужно проиндексировать.
+     * Ссылка приводится к каноническому виду так же, как при обходе сайта,
+     * чтобы страница заменила ранее сохранённую обходчиком, а не добавилась рядом.
+     *
+     * @param link URL страницы, которую нужно проиндексировать.
      * @throws PageOutsideConfigured если страница находится за пределами разрешенных сайтов.
      */
-    public void start(String page) {
+    public void start(String link) {
+        String page = UrlCanonicalizer.fromSettings(crawlerSettings).canonicalize(link);
         String hostSite = urlHelper.getHostFromPage(page);
         String path = urlHelper.getPathToPage(page);
 
-        SiteEntity siteEntity;
+        SiteEntity siteEntity = siteRepository.findFirstByUrlLikeAndLiveTrue("%" + hostSite + "%");
 
-        if (siteRepository.findByUrlLike("%" + hostSite + "%") == null) {
+        if (siteEntity == null) {
             String name = getNameSite(page);
             String url = getUrlSite(page);
             siteEntity = new SiteEntity();
@@ -54,24 +65,28 @@ public class PageIndexer {
             siteEntity.setName(name);
             siteRepository.save(siteEntity);
         } else {
-            siteEntity = siteRepository.findByUrlLike("%" + hostSite + "%");
-        }
-        if (pageRepository.findByPath(path) != null) {
-            PageEntity pageEntity = pageRepository.findByPath(path);
-            pageRepository.deleteById(pageEntity.getId());
+            PageEntity storedPage = pageRepository.findBySiteIdAndPath(siteEntity, path);
+            if (storedPage != null) {
+                sitePurger.purgePages(List.of(storedPage.getId()));
+            }
         }
 
         PageEntity pageEntity = new PageEntity();
-        Optional<Document> optionalDoc = urlHelper.getConnection(page);
-        if (optionalDoc.isPresent()) {
-            Document document = optionalDoc.get();
-            Connection.Response response = document.connection().response();
-            int code = response.statusCode();
-            String htmlContent = document.outerHtml();
+        Optional<FetchedPage> optionalPage = urlHelper.fetchPage(page);
+        if (optionalPage.isPresent()) {
+            FetchedPage fetchedPage = optionalPage.get();
+            int code = fetchedPage.getStatusCode();
+            String htmlContent = fetchedPage.getDocument().outerHtml();
+            ParsedPage parsedPage = HtmlPageParser.parse(fetchedPage.getDocument());
             pageEntity.setSiteId(siteEntity);
             pageEntity.setPath(path);
             pageEntity.setCode(code);
-            pageEntity.setContent(htmlContent);
+            pageEntity.setContent(PageContentCodec.compress(htmlContent));
+            pageEntity.setEtag(fetchedPage.getEtag());
+            pageEntity.setLastModified(fetchedPage.getLastModified());
+            pageEntity.setTitle(parsedPage.getTitle());
+            pageEntity.setText(parsedPage.getText());
+            pageEntity.setLinks(parsedPage.joinLinks());
         } else {
             throw new PageOutsideConfigured();
         }
@@ -0,0 +1,92 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Планировщик вежливого обхода: ограничивает частоту запросов к каждому хосту.
+ * <p>
+ * Для каждого хоста ведётся своё маркерное ведро. Задача не ждёт в рабочем потоке,
+ * а откладывается и передаётся на выполнение, когда для неё освободится маркер.
+ * Поэтому запросы к разным хостам не мешают друг другу, а рабочие потоки не простаивают.
+ * Задачи обхода забирают маркер в момент выпуска на выполнение ({@link #tryAcquire(String, double, int)}),
+ * а не при постановке в очередь, чтобы ожидание свободного рабочего потока не сжимало паузы между запросами.
+ * Если лимит хоста изменился (например, сайт задал Crawl-delay в robots.txt), ведро создаётся заново.
+ */
+@Component
+public class PolitenessScheduler {
+
+    private final Map<String, HostTokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "politeness-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Ставит запрос к хосту в очередь и выпускает его в соответствии с лимитом хоста.
+     *
+     * @param host              Хост, к которому выполняется запрос.
+     * @param requestsPerSecond Допустимое количество запросов в секунду к хосту.
+     * @param burst             Количество запросов, допустимых подряд без паузы.
+     * @param release           Действие, запускающее запрос.
+     */
+    public void schedule(String host, double requestsPerSecond, int burst, Runnable release) {
+        long delay = bucketFor(host, requestsPerSecond, burst).reserve(System.nanoTime());
+        if (delay == 0) {
+            release.run();
+        } else {
+            timer.schedule(release, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Ждёт маркер хоста в вызывающем потоке.
+     * Используется для служебных запросов (robots.txt, карты сайта), выполняемых до начала обхода.
+     *
+     * @param host              Хост, к которому выполняется запрос.
+     * @param requestsPerSecond Допустимое количество запросов в секунду к хосту.
+     * @param burst             Количество запросов, допустимых подряд без паузы.
+     * @throws InterruptedException если поток был прерван.
+     */
+    public void acquire(String host, double requestsPerSecond, int burst) throws InterruptedException {
+        long delay = bucketFor(host, requestsPerSecond, burst).reserve(System.nanoTime());
+        if (delay > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+    }
+
+    /**
+     * Забирает маркер хоста, если он уже доступен.
+     *
+     * @param host              Хост, к которому выполняется запрос.
+     * @param requestsPerSecond Допустимое количество запросов в секунду к хосту.
+     * @param burst             Количество запросов, допустимых подряд без паузы.
+     * @return 0, если запрос можно выполнить сейчас; иначе через сколько наносекунд появится маркер.
+     */
+    public long tryAcquire(String host, double requestsPerSecond, int burst) {
+        return bucketFor(host, requestsPerSecond, burst).tryAcquire(System.nanoTime());
+    }
+
+    private HostTokenBucket bucketFor(String host, double requestsPerSecond, int burst) {
+        HostTokenBucket bucket = buckets.get(host);
+        if (bucket == null || !bucket.hasLimits(requestsPerSecond, burst)) {
+            bucket = buckets.compute(host, (key, current) ->
+                    current != null && current.hasLimits(requestsPerSecond, burst)
+                            ? current : new HostTokenBucket(requestsPerSecond, burst));
+        }
+        return bucket;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
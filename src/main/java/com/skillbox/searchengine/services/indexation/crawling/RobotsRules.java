@@ -0,0 +1,221 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Правила robots.txt, относящиеся к обходчику.
+ * <p>
+ * Из файла выбирается группа с самым длинным названием агента, входящим в User-Agent обходчика,
+ * а если такой нет — группа {@code *}. Правила Allow / Disallow поддерживают символы {@code *}
+ * и {@code $}; из нескольких подходящих правил действует самое длинное, при равной длине — Allow.
+ * Проверка пути выполняется без создания объектов.
+ */
+public class RobotsRules {
+
+    private static final RobotsRules ALLOW_ALL = new RobotsRules(new String[0], new boolean[0], 0, List.of());
+    private static final String WILDCARD_AGENT = "*";
+    private final String[] patterns;
+    private final boolean[] allowed;
+    /**
+     * Пауза между запросами, запрошенная сайтом (в секундах); 0, если не задана.
+     */
+    @Getter
+    private final double crawlDelaySeconds;
+    /**
+     * Адреса карт сайта, перечисленные в robots.txt.
+     */
+    @Getter
+    private final List<String> sitemaps;
+
+    private RobotsRules(String[] patterns, boolean[] allowed, double crawlDelaySeconds,
+                        List<String> sitemaps) {
+        this.patterns = patterns;
+        this.allowed = allowed;
+        this.crawlDelaySeconds = crawlDelaySeconds;
+        this.sitemaps = sitemaps;
+    }
+
+    /**
+     * Правила, разрешающие обход всех страниц.
+     *
+     * @return Правила без ограничений.
+     */
+    public static RobotsRules allowAll() {
+        return ALLOW_ALL;
+    }
+
+    /**
+     * Разбирает robots.txt.
+     *
+     * @param content   Содержимое robots.txt.
+     * @param userAgent User-Agent обходчика.
+     * @return Правила для обходчика.
+     */
+    public static RobotsRules parse(String content, String userAgent) {
+        String agent = userAgent == null ? "" : userAgent.toLowerCase(Locale.ROOT);
+        List<String> sitemaps = new ArrayList<>();
+        List<Group> groups = new ArrayList<>();
+        Group current = null;
+        boolean readingAgents = false;
+
+        for (String rawLine : content.split("\r\n|\r|\n")) {
+            int comment = rawLine.indexOf('#');
+            String line = (comment >= 0 ? rawLine.substring(0, comment) : rawLine).trim();
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String field = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            switch (field) {
+                case "user-agent" -> {
+                    if (!readingAgents) {
+                        current = new Group();
+                        groups.add(current);
+                        readingAgents = true;
+                    }
+                    current.agents.add(value.toLowerCase(Locale.ROOT));
+                }
+                case "allow", "disallow" -> {
+                    readingAgents = false;
+                    if (current != null && !value.isEmpty()) {
+                        current.patterns.add(value);
+                        current.allowed.add("allow".equals(field));
+                    }
+                }
+                case "crawl-delay" -> {
+                    readingAgents = false;
+                    if (current != null) {
+                        current.crawlDelaySeconds = parseDelay(value);
+                    }
+                }
+                case "sitemap" -> sitemaps.add(value);
+                default -> readingAgents = false;
+            }
+        }
+        return fromGroups(selectGroups(groups, agent), sitemaps);
+    }
+
+    /**
+     * Проверяет, разрешён ли обход ссылки.
+     *
+     * @param link      Ссылка.
+     * @param pathStart Индекс начала пути в ссылке или -1, если путь пустой.
+     * @return true, если обход ссылки разрешён.
+     */
+    public boolean isAllowed(String link, int pathStart) {
+        if (patterns.length == 0) {
+            return true;
+        }
+        String text = pathStart < 0 ? "/" : link;
+        int start = Math.max(0, pathStart);
+        int bestLength = -1;
+        boolean result = true;
+        for (int i = 0; i < patterns.length; i++) {
+            String pattern = patterns[i];
+            if (pattern.length() >= bestLength && matches(pattern, text, start)) {
+                if (pattern.length() > bestLength || allowed[i]) {
+                    result = allowed[i];
+                }
+                bestLength = pattern.length();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет, соответствует ли путь шаблону robots.txt.
+     * Шаблон без {@code $} в конце сопоставляется с началом пути.
+     */
+    private static boolean matches(String pattern, String text, int start) {
+        int patternLength = pattern.length();
+        boolean anchored = pattern.charAt(patternLength - 1) == '$';
+        if (anchored) {
+            patternLength--;
+        }
+        int length = text.length();
+        int p = 0;
+        int t = start;
+        int starPattern = -1;
+        int starText = -1;
+        while (true) {
+            if (p == patternLength) {
+                if (!anchored || t == length) {
+                    return true;
+                }
+            } else if (pattern.charAt(p) == '*') {
+                starPattern = p++;
+                starText = t;
+                continue;
+            } else if (t < length && pattern.charAt(p) == text.charAt(t)) {
+                p++;
+                t++;
+                continue;
+            }
+            if (starPattern < 0 || starText >= length) {
+                return false;
+            }
+            t = ++starText;
+            p = starPattern + 1;
+        }
+    }
+
+    private static List<Group> selectGroups(List<Group> groups, String agent) {
+        String bestAgent = null;
+        for (Group group : groups) {
+            for (String groupAgent : group.agents) {
+                if (!WILDCARD_AGENT.equals(groupAgent) && !groupAgent.isEmpty() && agent.contains(groupAgent)
+                        && (bestAgent == null || groupAgent.length() > bestAgent.length())) {
+                    bestAgent = groupAgent;
+                }
+            }
+        }
+        String selectedAgent = bestAgent != null ? bestAgent : WILDCARD_AGENT;
+        List<Group> selected = new ArrayList<>();
+        for (Group group : groups) {
+            if (group.agents.contains(selectedAgent)) {
+                selected.add(group);
+            }
+        }
+        return selected;
+    }
+
+    private static RobotsRules fromGroups(List<Group> groups, List<String> sitemaps) {
+        List<String> patterns = new ArrayList<>();
+        List<Boolean> allowed = new ArrayList<>();
+        double crawlDelaySeconds = 0;
+        for (Group group : groups) {
+            patterns.addAll(group.patterns);
+            allowed.addAll(group.allowed);
+            crawlDelaySeconds = Math.max(crawlDelaySeconds, group.crawlDelaySeconds);
+        }
+        boolean[] allowedArray = new boolean[allowed.size()];
+        for (int i = 0; i < allowedArray.length; i++) {
+            allowedArray[i] = allowed.get(i);
+        }
+        return new RobotsRules(patterns.toArray(String[]::new), allowedArray, crawlDelaySeconds,
+                List.copyOf(sitemaps));
+    }
+
+    private static double parseDelay(String value) {
+        try {
+            return Math.max(0, Double.parseDouble(value));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Группа правил для одного или нескольких агентов.
+     */
+    private static class Group {
+        private final List<String> agents = new ArrayList<>();
+        private final List<String> patterns = new ArrayList<>();
+        private final List<Boolean> allowed = new ArrayList<>();
+        private double crawlDelaySeconds;
+    }
+}
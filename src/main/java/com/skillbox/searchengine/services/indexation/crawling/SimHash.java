@@ -0,0 +1,104 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+/**
+ * 64-битный отпечаток SimHash для текста страницы.
+ * <p>
+ * Признаками служат шинглы из {@value #SHINGLE_SIZE} подряд идущих слов. Каждый шингл
+ * хешируется в 64 бита, и бит отпечатка устанавливается, если у большинства шинглов
+ * он равен единице. Поэтому у почти одинаковых текстов отпечатки отличаются
+ * в небольшом числе битов, и близость текстов оценивается расстоянием Хэмминга.
+ * Текст разбирается за один проход по символам без промежуточных строк.
+ */
+public final class SimHash {
+
+    /**
+     * Количество слов в одном шингле.
+     */
+    public static final int SHINGLE_SIZE = 3;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SimHash() {
+    }
+
+    /**
+     * Вычисляет отпечаток текста.
+     *
+     * @param text Текст страницы.
+     * @return Отпечаток текста; 0, если в тексте нет слов.
+     */
+    public static long fingerprint(String text) {
+        int[] weights = new int[Long.SIZE];
+        long[] window = new long[SHINGLE_SIZE];
+        int wordCount = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+            long wordHash = FNV_OFFSET_BASIS;
+            char c;
+            while (i < length && Character.isLetterOrDigit(c = text.charAt(i))) {
+                wordHash ^= Character.toLowerCase(c);
+                wordHash *= FNV_PRIME;
+                i++;
+            }
+            window[wordCount % SHINGLE_SIZE] = wordHash;
+            wordCount++;
+            if (wordCount >= SHINGLE_SIZE) {
+                addFeature(weights, shingleHash(window, wordCount, SHINGLE_SIZE));
+            }
+        }
+        if (wordCount > 0 && wordCount < SHINGLE_SIZE) {
+            addFeature(weights, shingleHash(window, wordCount, wordCount));
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Возвращает расстояние Хэмминга между отпечатками.
+     *
+     * @param first  Первый отпечаток.
+     * @param second Второй отпечаток.
+     * @return Количество различающихся битов.
+     */
+    public static int distance(long first, long second) {
+        return Long.bitCount(first ^ second);
+    }
+
+    /**
+     * Хеширует последние слова окна в порядке их следования в тексте.
+     *
+     * @param window    Кольцевое окно хешей слов.
+     * @param wordCount Количество слов, прочитанных к этому моменту.
+     * @param size      Количество слов в шингле.
+     * @return Хеш шингла.
+     */
+    private static long shingleHash(long[] window, int wordCount, int size) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int j = wordCount - size; j < wordCount; j++) {
+            hash = (hash ^ window[j % SHINGLE_SIZE]) * FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static void addFeature(int[] weights, long featureHash) {
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            weights[bit] += ((featureHash >>> bit) & 1L) != 0 ? 1 : -1;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.config.ConnectionToSite;
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.utils.MessageLogs;
+import com.skillbox.searchengine.utils.UrlHelper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Подготовка обхода сайта по robots.txt и картам сайта.
+ * <p>
+ * Из robots.txt берутся правила Allow / Disallow, Crawl-delay и адреса карт сайта
+ * (если их нет — {@code /sitemap.xml}). Карты сайта и индексы карт раскрываются по уровням,
+ * карты одного уровня загружаются параллельно. Найденные адреса упорядочиваются
+ * по {@code lastmod}: сначала недавно изменённые страницы, затем страницы без даты.
+ * Каждый запрос ждёт маркер хоста в {@link PolitenessScheduler}, поэтому загрузка карт
+ * соблюдает тот же лимит частоты запросов и Crawl-delay, что и обход.
+ * Так обходчик сразу получает почти все страницы сайта, а не находит их
+ * по ссылкам за много последовательных загрузок.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SiteSeeder {
+
+    private static final String ROBOTS_PATH = "robots.txt";
+    private static final String DEFAULT_SITEMAP_PATH = "sitemap.xml";
+    private static final int GZIP_MAGIC_FIRST_BYTE = 0x1f;
+    private static final int GZIP_MAGIC_SECOND_BYTE = 0x8b;
+    private final UrlHelper urlHelper;
+    private final CrawlerSettings crawlerSettings;
+    private final ConnectionToSite connectionToSite;
+    private final PolitenessScheduler politenessScheduler;
+
+    /**
+     * Загружает правила robots.txt сайта.
+     *
+     * @param startUrl  Каноническая ссылка на главную страницу сайта.
+     * @param hostLimit Лимит частоты запросов к сайту.
+     * @return Правила robots.txt или правила без ограничений, если файл не найден
+     * либо его учёт отключён.
+     * @throws InterruptedException если поток был прерван.
+     */
+    public RobotsRules loadRobotsRules(String startUrl, HostLimit hostLimit) throws InterruptedException {
+        if (!crawlerSettings.isRespectRobotsTxt()) {
+            return RobotsRules.allowAll();
+        }
+        Optional<byte[]> content = fetchResource(resolve(startUrl, ROBOTS_PATH), hostLimit);
+        return content
+                .map(bytes -> RobotsRules.parse(new String(bytes, StandardCharsets.UTF_8),
+                        connectionToSite.getUserAgent()))
+                .orElse(RobotsRules.allowAll());
+    }
+
+    /**
+     * Собирает адреса страниц из карт сайта.
+     *
+     * @param startUrl    Каноническая ссылка на главную страницу сайта.
+     * @param robotsRules Правила robots.txt сайта.
+     * @param hostLimit   Лимит частоты запросов к сайту с учётом Crawl-delay.
+     * @return Адреса страниц: сначала с более поздним {@code lastmod}, затем без даты.
+     * @throws InterruptedException если поток был прерван.
+     */
+    public List<String> collectSitemapUrls(String startUrl, RobotsRules robotsRules, HostLimit hostLimit)
+            throws InterruptedException {
+        if (!crawlerSettings.isUseSitemaps()) {
+            return List.of();
+        }
+        List<String> sitemaps = robotsRules.getSitemaps().isEmpty()
+                ? List.of(resolve(startUrl, DEFAULT_SITEMAP_PATH))
+                : robotsRules.getSitemaps();
+
+        int urlLimit = crawlerSettings.getSitemapUrlLimit();
+        List<SitemapEntry> entries = new ArrayList<>();
+        Set<String> seenSitemaps = new HashSet<>(sitemaps);
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, crawlerSettings.getSitemapFetchConcurrency()));
+        try {
+            List<String> level = sitemaps;
+            for (int depth = 0; depth <= crawlerSettings.getSitemapMaxDepth() && !level.isEmpty()
+                    && entries.size() < urlLimit; depth++) {
+                List<Callable<Sitemap>> tasks = new ArrayList<>();
+                for (String sitemapUrl : level) {
+                    tasks.add(() -> fetchSitemap(sitemapUrl, hostLimit));
+                }
+                List<String> nextLevel = new ArrayList<>();
+                for (Future<Sitemap> future : executor.invokeAll(tasks)) {
+                    Sitemap sitemap = getResult(future);
+                    entries.addAll(sitemap.getEntries());
+                    for (String child : sitemap.getChildSitemaps()) {
+                        if (seenSitemaps.add(child)) {
+                            nextLevel.add(child);
+                        }
+                    }
+                }
+                level = nextLevel;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        entries.sort(Comparator.comparing(SitemapEntry::getLastModified,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        Set<String> urls = new LinkedHashSet<>();
+        for (SitemapEntry entry : entries) {
+            if (urls.size() >= urlLimit) {
+                break;
+            }
+            urls.add(entry.getLocation());
+        }
+        log.info(MessageLogs.LOG_SITEMAP_URLS_FOUND, startUrl, urls.size());
+        return new ArrayList<>(urls);
+    }
+
+    /**
+     * Загружает и разбирает карту сайта или индекс карт.
+     *
+     * @param sitemapUrl Адрес карты сайта.
+     * @param hostLimit  Лимит частоты запросов к сайту.
+     * @return Адреса страниц и вложенных карт; пустой результат, если карту не удалось получить.
+     * @throws InterruptedException если поток был прерван.
+     */
+    private Sitemap fetchSitemap(String sitemapUrl, HostLimit hostLimit) throws InterruptedException {
+        Optional<byte[]> content = fetchResource(sitemapUrl, hostLimit);
+        if (content.isEmpty()) {
+            return new Sitemap(List.of(), List.of());
+        }
+        try (InputStream in = openContent(content.get())) {
+            Document document = Jsoup.parse(in, StandardCharsets.UTF_8.name(), sitemapUrl, Parser.xmlParser());
+            List<String> childSitemaps = new ArrayList<>();
+            for (Element location : document.select("sitemapindex > sitemap > loc")) {
+                childSitemaps.add(location.text().trim());
+            }
+            List<SitemapEntry> entries = new ArrayList<>();
+            for (Element url : document.select("urlset > url")) {
+                Element location = url.selectFirst("> loc");
+                if (location == null || location.text().isBlank()) {
+                    continue;
+                }
+                Element lastModified = url.selectFirst("> lastmod");
+                entries.add(new SitemapEntry(location.text().trim(),
+                        lastModified == null ? null : lastModified.text().trim()));
+            }
+            return new Sitemap(entries, childSitemaps);
+        } catch (IOException e) {
+            log.error(MessageLogs.LOG_SITEMAP_ERROR, sitemapUrl, e);
+            return new Sitemap(List.of(), List.of());
+        }
+    }
+
+    private Optional<byte[]> fetchResource(String url, HostLimit hostLimit) throws InterruptedException {
+        politenessScheduler.acquire(urlHelper.getHostFromPage(url), hostLimit.requestsPerSecond(), hostLimit.burst());
+        return urlHelper.fetchResource(url);
+    }
+
+    private static InputStream openContent(byte[] content) throws IOException {
+        InputStream in = new ByteArrayInputStream(content);
+        if (content.length > 1 && (content[0] & 0xff) == GZIP_MAGIC_FIRST_BYTE
+                && (content[1] & 0xff) == GZIP_MAGIC_SECOND_BYTE) {
+            return new GZIPInputStream(in);
+        }
+        return in;
+    }
+
+    private static Sitemap getResult(Future<Sitemap> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.error(MessageLogs.LOG_SITEMAP_ERROR, "", e.getCause());
+            return new Sitemap(List.of(), List.of());
+        }
+    }
+
+    private static String resolve(String startUrl, String path) {
+        return startUrl.endsWith("/") ? startUrl + path : startUrl + "/" + path;
+    }
+
+    /**
+     * Лимит частоты запросов к хосту.
+     *
+     * @param requestsPerSecond Допустимое количество запросов в секунду.
+     * @param burst             Количество запросов, допустимых подряд без паузы.
+     */
+    public record HostLimit(double requestsPerSecond, int burst) {
+    }
+
+    /**
+     * Разобранная карта сайта.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class Sitemap {
+        private final List<SitemapEntry> entries;
+        private final List<String> childSitemaps;
+    }
+
+    /**
+     * Адрес страницы из карты сайта и дата её изменения в формате W3C (или null).
+     * Даты одного сайта записываются в одном формате, поэтому сравниваются как строки.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class SitemapEntry {
+        private final String location;
+        private final String lastModified;
+    }
+}
@@ -0,0 +1,20 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+/**
+ * Приведение завершающей косой черты пути при канонизации ссылок.
+ */
+public enum TrailingSlashPolicy {
+    /**
+     * Завершающая косая черта удаляется: {@code /catalog/} и {@code /catalog} — одна страница {@code /catalog}.
+     */
+    REMOVE,
+    /**
+     * Завершающая косая черта добавляется к путям, последний сегмент которых не похож на файл:
+     * {@code /catalog} и {@code /catalog/} — одна страница {@code /catalog/}, а {@code /item.html} не меняется.
+     */
+    ADD,
+    /**
+     * Путь не меняется.
+     */
+    KEEP
+}
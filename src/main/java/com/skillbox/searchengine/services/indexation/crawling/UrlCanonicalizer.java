@@ -0,0 +1,209 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Приведение ссылок к каноническому виду перед проверкой на посещённость.
+ * <p>
+ * Одна и та же страница часто встречается под разными адресами: {@code /a}, {@code /a/},
+ * {@code /a?utm_source=x}, {@code HTTP://Host/a}, {@code /a/./}. После канонизации
+ * такие адреса совпадают, поэтому страница загружается и сохраняется один раз.
+ * <p>
+ * Канонизация:
+ * <ul>
+ *     <li>приводит схему и хост к нижнему регистру и удаляет порт по умолчанию;</li>
+ *     <li>удаляет сегменты {@code .} и {@code ..} пути (RFC 3986, раздел 5.2.4);</li>
+ *     <li>применяет {@link TrailingSlashPolicy} к пути, пустой путь заменяет на {@code /};</li>
+ *     <li>удаляет параметры отслеживания и сортирует оставшиеся параметры запроса;</li>
+ *     <li>приводит шестнадцатеричные цифры %-кодирования к верхнему регистру;</li>
+ *     <li>удаляет фрагмент ({@code #...}).</li>
+ * </ul>
+ * Ссылки без схемы {@code scheme://} возвращаются без изменений.
+ */
+public class UrlCanonicalizer {
+
+    private final TrailingSlashPolicy trailingSlashPolicy;
+    private final String[] strippedParameters;
+    private final boolean[] strippedParameterPrefixes;
+
+    /**
+     * Создаёт канонизацию ссылок.
+     *
+     * @param trailingSlashPolicy     Приведение завершающей косой черты пути.
+     * @param strippedQueryParameters Имена удаляемых параметров запроса;
+     *                                шаблон с {@code *} в конце задаёт префикс имени.
+     */
+    public UrlCanonicalizer(TrailingSlashPolicy trailingSlashPolicy, List<String> strippedQueryParameters) {
+        this.trailingSlashPolicy = trailingSlashPolicy;
+        this.strippedParameters = new String[strippedQueryParameters.size()];
+        this.strippedParameterPrefixes = new boolean[strippedQueryParameters.size()];
+        for (int i = 0; i < strippedQueryParameters.size(); i++) {
+            String parameter = strippedQueryParameters.get(i);
+            strippedParameterPrefixes[i] = parameter.endsWith("*");
+            strippedParameters[i] = strippedParameterPrefixes[i]
+                    ? parameter.substring(0, parameter.length() - 1) : parameter;
+        }
+    }
+
+    /**
+     * Создаёт канонизацию по настройкам обходчика.
+     *
+     * @param crawlerSettings Настройки обходчика.
+     * @return Канонизация ссылок.
+     */
+    public static UrlCanonicalizer fromSettings(CrawlerSettings crawlerSettings) {
+        return new UrlCanonicalizer(crawlerSettings.getTrailingSlash(),
+                crawlerSettings.getStrippedQueryParameters());
+    }
+
+    /**
+     * Приводит ссылку к каноническому виду.
+     *
+     * @param link Абсолютная ссылка.
+     * @return Каноническая ссылка.
+     */
+    public String canonicalize(String link) {
+        String url = link.trim();
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd <= 0) {
+            return link;
+        }
+        String scheme = url.substring(0, schemeEnd).toLowerCase(Locale.ROOT);
+
+        int fragmentStart = url.indexOf('#');
+        int end = fragmentStart < 0 ? url.length() : fragmentStart;
+        int authorityStart = schemeEnd + 3;
+        int authorityEnd = authorityStart;
+        while (authorityEnd < end && url.charAt(authorityEnd) != '/' && url.charAt(authorityEnd) != '?') {
+            authorityEnd++;
+        }
+        int queryStart = url.indexOf('?', authorityEnd);
+        if (queryStart < 0 || queryStart > end) {
+            queryStart = end;
+        }
+
+        StringBuilder canonical = new StringBuilder(url.length());
+        canonical.append(scheme).append("://")
+                .append(canonicalAuthority(scheme, url.substring(authorityStart, authorityEnd)));
+        canonical.append(normalizePercentEncoding(
+                applyTrailingSlashPolicy(removeDotSegments(url.substring(authorityEnd, queryStart)))));
+        if (queryStart < end) {
+            String query = canonicalQuery(url.substring(queryStart + 1, end));
+            if (!query.isEmpty()) {
+                canonical.append('?').append(normalizePercentEncoding(query));
+            }
+        }
+        return canonical.toString();
+    }
+
+    private static String canonicalAuthority(String scheme, String authority) {
+        int hostStart = authority.lastIndexOf('@') + 1;
+        String userInfo = authority.substring(0, hostStart);
+        String hostAndPort = authority.substring(hostStart).toLowerCase(Locale.ROOT);
+        int portStart = hostAndPort.lastIndexOf(':');
+        if (portStart > hostAndPort.lastIndexOf(']')) {
+            String port = hostAndPort.substring(portStart + 1);
+            if (port.isEmpty() || ("http".equals(scheme) && "80".equals(port))
+                    || ("https".equals(scheme) && "443".equals(port))) {
+                hostAndPort = hostAndPort.substring(0, portStart);
+            }
+        }
+        if (hostAndPort.endsWith(".")) {
+            hostAndPort = hostAndPort.substring(0, hostAndPort.length() - 1);
+        }
+        return userInfo + hostAndPort;
+    }
+
+    /**
+     * Удаляет из пути сегменты {@code .} и {@code ..}.
+     *
+     * @param path Путь ссылки.
+     * @return Путь без относительных сегментов.
+     */
+    private static String removeDotSegments(String path) {
+        if (!path.contains(".")) {
+            return path;
+        }
+        String[] segments = path.split("/", -1);
+        List<String> output = new ArrayList<>(segments.length);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            boolean last = i == segments.length - 1;
+            if (".".equals(segment) || "..".equals(segment)) {
+                if ("..".equals(segment) && output.size() > 1) {
+                    output.remove(output.size() - 1);
+                }
+                if (last) {
+                    output.add("");
+                }
+            } else {
+                output.add(segment);
+            }
+        }
+        return String.join("/", output);
+    }
+
+    private String applyTrailingSlashPolicy(String path) {
+        if (path.isEmpty() || "/".equals(path)) {
+            return "/";
+        }
+        if (trailingSlashPolicy == TrailingSlashPolicy.REMOVE) {
+            int end = path.length();
+            while (end > 1 && path.charAt(end - 1) == '/') {
+                end--;
+            }
+            return path.substring(0, end);
+        }
+        if (trailingSlashPolicy == TrailingSlashPolicy.ADD && !path.endsWith("/")
+                && path.indexOf('.', path.lastIndexOf('/')) < 0) {
+            return path + "/";
+        }
+        return path;
+    }
+
+    private String canonicalQuery(String query) {
+        List<String> parameters = new ArrayList<>();
+        for (String parameter : query.split("&")) {
+            if (!parameter.isEmpty() && !isStripped(parameter)) {
+                parameters.add(parameter);
+            }
+        }
+        Collections.sort(parameters);
+        return String.join("&", parameters);
+    }
+
+    private boolean isStripped(String parameter) {
+        int nameEnd = parameter.indexOf('=');
+        int nameLength = nameEnd < 0 ? parameter.length() : nameEnd;
+        for (int i = 0; i < strippedParameters.length; i++) {
+            String stripped = strippedParameters[i];
+            boolean lengthMatches = strippedParameterPrefixes[i]
+                    ? nameLength >= stripped.length() : nameLength == stripped.length();
+            if (lengthMatches && parameter.regionMatches(true, 0, stripped, 0, stripped.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalizePercentEncoding(String value) {
+        int percent = value.indexOf('%');
+        if (percent < 0) {
+            return value;
+        }
+        char[] chars = value.toCharArray();
+        for (int i = percent; i < chars.length - 2; i++) {
+            if (chars[i] == '%') {
+                chars[i + 1] = Character.toUpperCase(chars[i + 1]);
+                chars[i + 2] = Character.toUpperCase(chars[i + 2]);
+                i += 2;
+            }
+        }
+        return new String(chars);
+    }
+}
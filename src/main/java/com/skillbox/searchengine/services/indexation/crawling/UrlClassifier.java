@@ -0,0 +1,236 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Классификатор ссылок, решающий, нужно ли обходить ссылку.
+ * <p>
+ * Правила (допустимые схемы, запрещённые расширения и параметры запроса)
+ * компилируются один раз в таблицы символов и массивы строк, сгруппированные по длине.
+ * Проверка ссылки выполняется за один проход по её символам через {@link String#charAt(int)}
+ * и {@link String#regionMatches(boolean, int, String, int, int)} без создания объектов.
+ * <p>
+ * Ссылка отклоняется, если:
+ * <ul>
+ *     <li>её схема не входит в число допустимых или после схемы нет {@code //};</li>
+ *     <li>она содержит символы вне допустимого набора URL или оканчивается знаком препинания;</li>
+ *     <li>она содержит фрагмент ({@code #});</li>
+ *     <li>расширение последнего сегмента пути входит в запрещённый список;</li>
+ *     <li>имя одного из параметров запроса совпадает с запрещённым шаблоном
+ *     (шаблон, оканчивающийся на {@code *}, задаёт префикс имени);</li>
+ *     <li>обход её пути запрещён правилами robots.txt сайта ({@link RobotsRules}).</li>
+ * </ul>
+ */
+public class UrlClassifier {
+
+    private static final String URL_CHARS = "-+&@#/%?=~_|!:,.;";
+    private static final String URL_LAST_CHARS = "-+&@#/%=~_|";
+    private static final boolean[] ALLOWED_CHARS = charTable(URL_CHARS);
+    private static final boolean[] ALLOWED_LAST_CHARS = charTable(URL_LAST_CHARS);
+    private final String[] allowedSchemes;
+    private final String[][] deniedExtensionsByLength;
+    private final String[] deniedParameters;
+    private final boolean[] deniedParameterPrefixes;
+    private final RobotsRules robotsRules;
+
+    /**
+     * Компилирует правила классификации.
+     *
+     * @param allowedSchemes        Допустимые схемы ссылок (например, http, https).
+     * @param deniedExtensions      Расширения файлов, ссылки на которые не обходятся.
+     * @param deniedQueryParameters Имена параметров запроса, ссылки с которыми не обходятся;
+     *                              шаблон с {@code *} в конце задаёт префикс имени.
+     */
+    public UrlClassifier(List<String> allowedSchemes, List<String> deniedExtensions,
+                         List<String> deniedQueryParameters) {
+        this(allowedSchemes, deniedExtensions, deniedQueryParameters, RobotsRules.allowAll());
+    }
+
+    /**
+     * Компилирует правила классификации с учётом robots.txt сайта.
+     *
+     * @param allowedSchemes        Допустимые схемы ссылок (например, http, https).
+     * @param deniedExtensions      Расширения файлов, ссылки на которые не обходятся.
+     * @param deniedQueryParameters Имена параметров запроса, ссылки с которыми не обходятся;
+     *                              шаблон с {@code *} в конце задаёт префикс имени.
+     * @param robotsRules           Правила robots.txt сайта.
+     */
+    public UrlClassifier(List<String> allowedSchemes, List<String> deniedExtensions,
+                         List<String> deniedQueryParameters, RobotsRules robotsRules) {
+        this.robotsRules = robotsRules;
+        this.allowedSchemes = allowedSchemes.stream()
+                .map(scheme -> scheme.toLowerCase(Locale.ROOT))
+                .toArray(String[]::new);
+        this.deniedExtensionsByLength = groupByLength(deniedExtensions);
+        this.deniedParameters = new String[deniedQueryParameters.size()];
+        this.deniedParameterPrefixes = new boolean[deniedQueryParameters.size()];
+        for (int i = 0; i < deniedQueryParameters.size(); i++) {
+            String parameter = deniedQueryParameters.get(i);
+            deniedParameterPrefixes[i] = parameter.endsWith("*");
+            deniedParameters[i] = deniedParameterPrefixes[i]
+                    ? parameter.substring(0, parameter.length() - 1) : parameter;
+        }
+    }
+
+    /**
+     * Компилирует правила из настроек обходчика.
+     *
+     * @param crawlerSettings Настройки обходчика.
+     * @return Классификатор ссылок.
+     */
+    public static UrlClassifier fromSettings(CrawlerSettings crawlerSettings) {
+        return fromSettings(crawlerSettings, RobotsRules.allowAll());
+    }
+
+    /**
+     * Компилирует правила из настроек обходчика и robots.txt сайта.
+     *
+     * @param crawlerSettings Настройки обходчика.
+     * @param robotsRules     Правила robots.txt сайта.
+     * @return Классификатор ссылок.
+     */
+    public static UrlClassifier fromSettings(CrawlerSettings crawlerSettings, RobotsRules robotsRules) {
+        return new UrlClassifier(crawlerSettings.getAllowedLinkSchemes(),
+                crawlerSettings.getDeniedLinkExtensions(),
+                crawlerSettings.getDeniedQueryParameters(), robotsRules);
+    }
+
+    /**
+     * Проверяет, нужно ли обходить ссылку.
+     *
+     * @param link Абсолютная ссылка.
+     * @return true, если ссылка допустима и не ведёт на файл или служебный адрес.
+     */
+    public boolean isCrawlable(String link) {
+        int length = link.length();
+        int schemeEnd = link.indexOf(':');
+        if (schemeEnd <= 0 || !isAllowedScheme(link, schemeEnd)
+                || !link.startsWith("//", schemeEnd + 1) || length == schemeEnd + 3) {
+            return false;
+        }
+
+        int queryStart = -1;
+        int pathStart = -1;
+        int lastSlash = -1;
+        int lastDot = -1;
+        for (int i = schemeEnd + 3; i < length; i++) {
+            char c = link.charAt(i);
+            if (c >= ALLOWED_CHARS.length || !ALLOWED_CHARS[c] || c == '#') {
+                return false;
+            }
+            if (queryStart < 0) {
+                if (c == '?') {
+                    queryStart = i;
+                } else if (c == '/') {
+                    if (pathStart < 0) {
+                        pathStart = i;
+                    }
+                    lastSlash = i;
+                } else if (c == '.') {
+                    lastDot = i;
+                }
+            }
+        }
+        char last = link.charAt(length - 1);
+        if (last >= ALLOWED_LAST_CHARS.length || !ALLOWED_LAST_CHARS[last]) {
+            return false;
+        }
+
+        int pathEnd = queryStart < 0 ? length : queryStart;
+        if (lastDot > lastSlash && lastSlash > 0 && isDeniedExtension(link, lastDot + 1, pathEnd)) {
+            return false;
+        }
+        if (queryStart >= 0 && hasDeniedParameter(link, queryStart + 1, length)) {
+            return false;
+        }
+        return robotsRules.isAllowed(link, pathStart);
+    }
+
+    private boolean isAllowedScheme(String link, int schemeEnd) {
+        for (String scheme : allowedSchemes) {
+            if (scheme.length() == schemeEnd && link.regionMatches(true, 0, scheme, 0, schemeEnd)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isDeniedExtension(String link, int start, int end) {
+        int length = end - start;
+        if (length <= 0 || length >= deniedExtensionsByLength.length) {
+            return false;
+        }
+        for (String extension : deniedExtensionsByLength[length]) {
+            if (link.regionMatches(true, start, extension, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasDeniedParameter(String link, int start, int end) {
+        int nameStart = start;
+        while (nameStart < end) {
+            int nameEnd = nameStart;
+            while (nameEnd < end && link.charAt(nameEnd) != '=' && link.charAt(nameEnd) != '&') {
+                nameEnd++;
+            }
+            if (isDeniedParameter(link, nameStart, nameEnd - nameStart)) {
+                return true;
+            }
+            int next = nameEnd;
+            while (next < end && link.charAt(next) != '&') {
+                next++;
+            }
+            nameStart = next + 1;
+        }
+        return false;
+    }
+
+    private boolean isDeniedParameter(String link, int nameStart, int nameLength) {
+        for (int i = 0; i < deniedParameters.length; i++) {
+            String parameter = deniedParameters[i];
+            boolean lengthMatches = deniedParameterPrefixes[i]
+                    ? nameLength >= parameter.length() : nameLength == parameter.length();
+            if (lengthMatches && link.regionMatches(nameStart, parameter, 0, parameter.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[][] groupByLength(List<String> values) {
+        int maxLength = 0;
+        for (String value : values) {
+            maxLength = Math.max(maxLength, value.length());
+        }
+        List<List<String>> groups = new ArrayList<>();
+        for (int i = 0; i <= maxLength; i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (String value : values) {
+            String extension = value.startsWith(".") ? value.substring(1) : value;
+            groups.get(extension.length()).add(extension.toLowerCase(Locale.ROOT));
+        }
+        return groups.stream().map(group -> group.toArray(String[]::new)).toArray(String[][]::new);
+    }
+
+    private static boolean[] charTable(String punctuation) {
+        boolean[] table = new boolean[128];
+        for (char c = 'a'; c <= 'z'; c++) {
+            table[c] = true;
+            table[Character.toUpperCase(c)] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            table[c] = true;
+        }
+        for (int i = 0; i < punctuation.length(); i++) {
+            table[punctuation.charAt(i)] = true;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,215 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.utils.MessageLogs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Потокобезопасный учёт посещённых ссылок при обходе сайта.
+ * <p>
+ * Первые {@code exactLimit} ссылок хранятся в конкурентном множестве и проверяются точно.
+ * После превышения лимита новые ссылки учитываются в фильтре Блума фиксированного размера,
+ * поэтому расход памяти не растёт вместе с сайтом. Ценой этого является небольшая доля
+ * ссылок, ошибочно принятых за уже посещённые.
+ * <p>
+ * Кроме посещённых ссылок учитываются ожидающие: отмеченные посещёнными, но ещё не сохранённые
+ * в базу данных. Ожидающей ссылку делает только тот поток, который первым отметил её посещённой,
+ * и делает это в той же операции под блокировкой чтения; перестаёт быть ожидающей ссылка только
+ * после {@link #markProcessed(String)}. Снимок ({@link #writeTo(DataOutputStream)}) снимается
+ * под блокировкой записи, поэтому не теряет ни одной ссылки: каждая посещённая ссылка в нём
+ * либо сохранена, либо ожидает, либо будет снова найдена на ожидающей странице.
+ */
+public class UrlFrontier {
+
+    private static final int SNAPSHOT_VERSION = 1;
+    private final Set<String> exactVisited = ConcurrentHashMap.newKeySet();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger exactSize = new AtomicInteger();
+    private final AtomicInteger overflowSize = new AtomicInteger();
+    private final int exactLimit;
+    private final long filterCapacity;
+    private final double filterFalsePositiveRate;
+    private volatile BloomFilter overflowFilter;
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    /**
+     * Создаёт учёт посещённых ссылок.
+     *
+     * @param exactLimit              Количество ссылок, хранимых точно.
+     * @param filterCapacity          Ожидаемое количество ссылок в фильтре Блума.
+     * @param filterFalsePositiveRate Допустимая доля ложных срабатываний фильтра.
+     */
+    public UrlFrontier(int exactLimit, long filterCapacity, double filterFalsePositiveRate) {
+        this.exactLimit = exactLimit;
+        this.filterCapacity = filterCapacity;
+        this.filterFalsePositiveRate = filterFalsePositiveRate;
+    }
+
+    /**
+     * Атомарно отмечает ссылку посещённой.
+     *
+     * @param url Ссылка.
+     * @return true, если ссылка встретилась впервые и её нужно обойти.
+     */
+    public boolean markVisited(String url) {
+        if (exactVisited.contains(url)) {
+            return false;
+        }
+        snapshotLock.readLock().lock();
+        try {
+            if (!markVisitedIfAbsent(url)) {
+                return false;
+            }
+            pending.add(url);
+            return true;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Отмечает, что страница по ссылке сохранена или не требует сохранения.
+     *
+     * @param url Ссылка.
+     */
+    public void markProcessed(String url) {
+        pending.remove(url);
+    }
+
+    /**
+     * Возвращает ссылки, отмеченные посещёнными, но ещё не обработанные.
+     *
+     * @return Копия списка ожидающих ссылок.
+     */
+    public List<String> getPendingUrls() {
+        return new ArrayList<>(pending);
+    }
+
+    /**
+     * Возвращает количество ссылок, отмеченных посещёнными, но ещё не обработанных.
+     *
+     * @return Количество ожидающих ссылок.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Записывает снимок посещённых и ожидающих ссылок.
+     *
+     * @param out Поток записи.
+     * @throws IOException если запись не удалась.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        List<String> visited;
+        List<String> pendingUrls;
+        int visitedCount;
+        byte[] filterBytes = null;
+        snapshotLock.writeLock().lock();
+        try {
+            visited = new ArrayList<>(exactVisited);
+            pendingUrls = getPendingUrls();
+            visitedCount = visited.size() + overflowSize.get();
+            BloomFilter filter = overflowFilter;
+            if (filter != null) {
+                ByteArrayOutputStream filterOut = new ByteArrayOutputStream();
+                filter.writeTo(new DataOutputStream(filterOut));
+                filterBytes = filterOut.toByteArray();
+            }
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeInt(visitedCount);
+        writeStrings(out, visited);
+        out.writeBoolean(filterBytes != null);
+        if (filterBytes != null) {
+            out.write(filterBytes);
+        }
+        writeStrings(out, pendingUrls);
+    }
+
+    /**
+     * Восстанавливает посещённые и ожидающие ссылки из снимка.
+     * Вызывается для нового, ещё не использованного учёта.
+     *
+     * @param in Поток чтения.
+     * @throws IOException если снимок повреждён или записан несовместимой версией.
+     */
+    public void readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException(MessageLogs.UNSUPPORTED_CHECKPOINT_VERSION);
+        }
+        int visitedCount = in.readInt();
+        List<String> visited = readStrings(in);
+        exactVisited.addAll(visited);
+        exactSize.set(visited.size());
+        if (in.readBoolean()) {
+            overflowFilter = BloomFilter.readFrom(in);
+            overflowSize.set(Math.max(0, visitedCount - visited.size()));
+        }
+        pending.addAll(readStrings(in));
+    }
+
+    private boolean markVisitedIfAbsent(String url) {
+        BloomFilter filter = overflowFilter;
+        if (filter == null && exactSize.get() < exactLimit) {
+            if (exactVisited.add(url)) {
+                exactSize.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+        if (filter == null) {
+            filter = initOverflowFilter();
+        }
+        if (filter.mightContain(url) || !filter.put(url)) {
+            return false;
+        }
+        overflowSize.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Возвращает количество ссылок, отмеченных посещёнными.
+     *
+     * @return Количество посещённых ссылок.
+     */
+    public int size() {
+        return exactSize.get() + overflowSize.get();
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    private synchronized BloomFilter initOverflowFilter() {
+        if (overflowFilter == null) {
+            overflowFilter = new BloomFilter(filterCapacity, filterFalsePositiveRate);
+        }
+        return overflowFilter;
+    }
+}
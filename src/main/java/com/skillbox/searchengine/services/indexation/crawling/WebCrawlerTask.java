@@ -1,76 +1,148 @@
 package com.skillbox.searchengine.services.indexation.crawling;
 
 import com.skillbox.searchengine.dto.indexing.DtoPage;
+import com.skillbox.searchengine.dto.indexing.PageText;
+import com.skillbox.searchengine.dto.indexing.PageValidators;
 import com.skillbox.searchengine.utils.MessageLogs;
-import com.skillbox.searchengine.utils.UrlHelper;
+import com.skillbox.searchengine.utils.fetching.FetchedPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Connection;
+import com.skillbox.searchengine.utils.parsing.HtmlPageParser;
+import com.skillbox.searchengine.utils.parsing.ParsedPage;
 import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.RecursiveAction;
 
 /**
  * Задача параллельного веб-крэлинга (crawling),
- * ответственная за рекурсивный обход ссылок и сохранение собранных данных.
+ * ответственная за обход одной страницы и сохранение собранных данных.
  * <p>
- * Класс реализует рекурсивную стратегию обхода ссылок,
- * позволяя параллельно сканировать веб-страницы.
+ * Найденные на странице ссылки приводятся к каноническому виду ({@link UrlCanonicalizer}),
+ * поэтому разные записи одного адреса считаются одной ссылкой.
+ * Ссылки не обходятся рекурсивно в этом же потоке,
+ * а передаются в {@link CrawlContext}, который выпускает их с учётом
+ * ограничения частоты запросов к хосту. Задача не ждёт ни дочерних задач, ни пауз.
+ * Посещённые ссылки учитываются в общем потокобезопасном {@link UrlFrontier}.
+ * Собранные страницы передаются в ограниченную очередь: если запись в базу данных
+ * не успевает, обходчик ждёт освобождения места.
+ * <p>
+ * Загруженная страница разбирается один раз ({@link HtmlPageParser}): её текст, заголовок и ссылки
+ * передаются на запись вместе с HTML и больше не извлекаются из разметки.
+ * <p>
+ * Для ранее сохранённых страниц запрос отправляется условным. Если страница не изменилась,
+ * её ссылки берутся из сохранённых полей, а в очередь передаётся только отметка 304.
+ * <p>
+ * Текст успешно загруженной страницы проверяется в {@link NearDuplicateDetector}: почти полная
+ * копия ранее встреченной страницы не передаётся на запись и не лемматизируется,
+ * но её ссылки всё равно обходятся.
  */
 @RequiredArgsConstructor
 @Slf4j
 public class WebCrawlerTask extends RecursiveAction {
 
-    /**
-     * Задержка между последовательными запросами (в миллисекундах).
-     */
-    public static final int DELAY_BETWEEN_REQUESTS = 150;
     /**
      * Специальный статус ошибки, используемый при внутренних проблемах (код 500).
      */
     public static final int ERROR_CODE = 500;
-    private final Set<String> visitedLinks;
-    private final List<DtoPage> pages;
-    private final UrlHelper urlHelper;
+    private final CrawlContext crawlContext;
     private final String startUrl;
 
     /**
      * Основной метод выполнения задачи.
      * Осуществляет попытку соединения со страницей,
-     * получение её контента и последующий обход внутренних ссылок.
+     * получение её контента и постановку в очередь внутренних ссылок.
      */
     @Override
     protected void compute() {
-        visitedLinks.add(startUrl);
         try {
-            Thread.sleep(DELAY_BETWEEN_REQUESTS);
-            Optional<Document> optionalDoc = urlHelper.getConnection(startUrl);
+            PageValidators knownPage = findKnownPage();
+            Optional<FetchedPage> optionalPage = knownPage == null
+                    ? crawlContext.getUrlHelper().fetchPage(startUrl)
+                    : crawlContext.getUrlHelper().fetchPage(startUrl,
+                    knownPage.getEtag(), knownPage.getLastModified());
 
-            if (optionalDoc.isPresent()) {
-                Document document = optionalDoc.get();
-                Connection.Response response = document.connection().response();
-                int statusCode = response.statusCode();
-                String htmlContent = document.outerHtml();
-                DtoPage successPage = new DtoPage(statusCode, startUrl, htmlContent);
-                pages.add(successPage);
-                crawlInternalLinks(document);
+            if (optionalPage.isPresent() && optionalPage.get().isNotModified()) {
+                processNotModifiedPage(optionalPage.get(), knownPage);
+            } else if (optionalPage.isPresent()) {
+                FetchedPage fetchedPage = optionalPage.get();
+                Document document = fetchedPage.getDocument();
+                ParsedPage parsedPage = HtmlPageParser.parse(document);
+                int statusCode = fetchedPage.getStatusCode();
+                if (!fetchedPage.isSuccessful() || !isNearDuplicate(parsedPage.getText())) {
+                    String htmlContent = document.outerHtml();
+                    DtoPage successPage = new DtoPage(statusCode, startUrl, htmlContent,
+                            fetchedPage.getEtag(), fetchedPage.getLastModified(),
+                            parsedPage.getTitle(), parsedPage.getText(), parsedPage.joinLinks());
+                    submitPage(successPage);
+                }
+                if (fetchedPage.isSuccessful()) {
+                    crawlInternalLinks(parsedPage.getLinks(), document.baseUri());
+                }
             } else {
                 addErrorPage(startUrl);
             }
-        } catch (InterruptedException e) {
-            log.error(MessageLogs.LOG_INTERRUPT_EXCEPTION, startUrl, e);
-            Thread.currentThread().interrupt();
-            addErrorPage(startUrl);
         } catch (Exception e) {
             log.error(MessageLogs.LOG_HTML_PAGE_ERROR, startUrl, e);
+            crawlContext.getCrawlerMetrics().recordProcessingError(e);
             addErrorPage(startUrl);
+        } finally {
+            crawlContext.getCrawlerMetrics().recordPageProcessed();
+            crawlContext.taskFinished();
+        }
+    }
+
+    /**
+     * Находит ранее сохранённую версию страницы.
+     *
+     * @return Валидаторы страницы или null, если обход полный или страница новая.
+     */
+    private PageValidators findKnownPage() {
+        IncrementalCrawlState crawlState = crawlContext.getCrawlState();
+        if (!crawlState.isIncremental()) {
+            return null;
         }
+        return crawlState.findKnownPage(crawlContext.getUrlHelper().getPathToPage(startUrl));
+    }
+
+    /**
+     * Отмечает страницу неизменившейся и обходит ссылки из её сохранённого содержимого.
+     *
+     * @param fetchedPage Ответ 304 на условный запрос.
+     * @param knownPage   Сохранённая версия страницы.
+     */
+    private void processNotModifiedPage(FetchedPage fetchedPage, PageValidators knownPage) {
+        submitPage(new DtoPage(fetchedPage.getStatusCode(), startUrl, null,
+                fetchedPage.getEtag(), fetchedPage.getLastModified()));
+        PageText storedPage = crawlContext.getCrawlState().loadStoredPage(knownPage);
+        if (storedPage == null) {
+            return;
+        }
+        if (storedPage.getText() != null) {
+            crawlContext.getDuplicateDetector().findDuplicateOrRegister(startUrl, storedPage.getText());
+        }
+        crawlInternalLinks(ParsedPage.splitLinks(storedPage.getLinks()), startUrl);
+    }
+
+    /**
+     * Проверяет, не является ли страница почти полной копией ранее встреченной.
+     *
+     * @param text Видимый текст текущей страницы.
+     * @return true, если страница почти совпадает с уже сохранённой.
+     */
+    private boolean isNearDuplicate(String text) {
+        NearDuplicateDetector duplicateDetector = crawlContext.getDuplicateDetector();
+        if (!duplicateDetector.isEnabled()) {
+            return false;
+        }
+        String originalUrl = duplicateDetector.findDuplicateOrRegister(startUrl, text);
+        if (originalUrl == null) {
+            return false;
+        }
+        log.debug(MessageLogs.LOG_NEAR_DUPLICATE_PAGE, startUrl, originalUrl);
+        crawlContext.getFrontier().markProcessed(startUrl);
+        return true;
     }
 
     /**
@@ -79,34 +151,38 @@ public class WebCrawlerTask extends RecursiveAction {
      * @param url URL страницы, для которой зафиксирована ошибка.
      */
     private void addErrorPage(String url) {
-        DtoPage errorPage = new DtoPage(ERROR_CODE, url, MessageLogs.INTERNAL_SERVER_ERROR);
-        pages.add(errorPage);
+        DtoPage errorPage = new DtoPage(ERROR_CODE, url, MessageLogs.INTERNAL_SERVER_ERROR,
+                null, null, "", MessageLogs.INTERNAL_SERVER_ERROR, "");
+        submitPage(errorPage);
     }
 
     /**
-     * Рекурсивно посещает внутренние ссылки страницы и создаёт новые задачи
-     * для обработки этих ссылок.
+     * Передаёт страницу на запись, ожидая свободного места в очереди.
      *
-     * @param document Документ текущей страницы.
-     * @throws InterruptedException если поток прерван.
+     * @param page Собранная страница.
      */
-    private void crawlInternalLinks(Document document) throws InterruptedException {
-        Elements links = document.select("body").select("a");
-        List<WebCrawlerTask> subTasks = new ArrayList<>();
-        for (Element link : links) {
-            String href = link.absUrl("href");
-            if (!visitedLinks.contains(href) && LinkValidator.isCorrectLink(href)
-                    && href.startsWith(link.baseUri())) {
-                visitedLinks.add(href);
-                WebCrawlerTask task = new WebCrawlerTask(
-                        visitedLinks, pages, urlHelper, href);
-                task.fork();
-                subTasks.add(task);
-            }
+    private void submitPage(DtoPage page) {
+        try {
+            crawlContext.getPageQueue().put(page);
+        } catch (InterruptedException e) {
+            log.error(MessageLogs.LOG_INTERRUPT_EXCEPTION, page.getPath(), e);
+            Thread.currentThread().interrupt();
         }
-        for (WebCrawlerTask task : subTasks) {
-            task.join();
+    }
+
+    /**
+     * Ставит в очередь на обход ещё не посещённые внутренние ссылки страницы.
+     *
+     * @param links   Абсолютные адреса ссылок страницы.
+     * @param baseUri Адрес страницы, внутри которого ссылки считаются внутренними.
+     */
+    private void crawlInternalLinks(List<String> links, String baseUri) {
+        for (String link : links) {
+            String href = crawlContext.getUrlCanonicalizer().canonicalize(link);
+            if (crawlContext.getUrlClassifier().isCrawlable(href) && href.startsWith(baseUri)
+                    && crawlContext.getFrontier().markVisited(href)) {
+                crawlContext.submit(href);
+            }
         }
     }
 }
-
@@ -1,27 +1,41 @@
 package com.skillbox.searchengine.services.indexation.crawling;
 
+import com.skillbox.searchengine.config.CrawlerSettings;
 import com.skillbox.searchengine.config.Site;
-import com.skillbox.searchengine.dto.indexing.DtoIndex;
 import com.skillbox.searchengine.dto.indexing.DtoLemma;
 import com.skillbox.searchengine.dto.indexing.DtoPage;
+import com.skillbox.searchengine.dto.indexing.PageText;
+import com.skillbox.searchengine.dto.indexing.PageValidators;
 import com.skillbox.searchengine.model.*;
-import com.skillbox.searchengine.repository.IndexRepository;
-import com.skillbox.searchengine.repository.LemmaRepository;
 import com.skillbox.searchengine.repository.PageRepository;
 import com.skillbox.searchengine.repository.SiteRepository;
+import com.skillbox.searchengine.services.indexation.IndexingMode;
+import com.skillbox.searchengine.services.indexation.indexing.BulkIndexWriter;
+import com.skillbox.searchengine.services.indexation.indexing.IncrementalIndexUpdater;
 import com.skillbox.searchengine.services.indexation.indexing.IndexBuilder;
+import com.skillbox.searchengine.services.indexation.indexing.IndexGenerations;
+import com.skillbox.searchengine.services.indexation.indexing.IndexPostings;
+import com.skillbox.searchengine.services.indexation.indexing.SitePurger;
 import com.skillbox.searchengine.services.indexation.lemmatization.LemmasCollector;
+import com.skillbox.searchengine.services.indexation.lemmatization.SiteLemmas;
+import com.skillbox.searchengine.services.indexation.lemmatization.StoredPageText;
 import com.skillbox.searchengine.utils.MessageLogs;
 import com.skillbox.searchengine.utils.UrlHelper;
+import com.skillbox.searchengine.utils.metrics.CrawlerMetrics;
+import com.skillbox.searchengine.utils.metrics.GcActivity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.ForkJoinPool;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Класс, ответственный за индексацию сайта.
@@ -30,6 +44,20 @@ import java.util.concurrent.ForkJoinPool;
  * <p>
  * Работа начинается с этапа подготовки сайта, затем переходит к
  * этапу индексации страниц и заканчивается созданием индекса.
+ * <p>
+ * В инкрементальном режиме ранее проиндексированный сайт не удаляется: страницы
+ * загружаются условными запросами, а леммы и индекс обновляются постранично
+ * только для изменившихся, новых и исчезнувших страниц.
+ * <p>
+ * Во время полного обхода периодически записывается контрольная точка ({@link CrawlCheckpointStore}).
+ * В режиме продолжения прерванный обход возобновляется с неё: загружаются только ожидающие ссылки,
+ * после чего строятся леммы и индекс.
+ * <p>
+ * Перед обходом читается robots.txt сайта ({@link SiteSeeder}): его правила учитываются при отборе ссылок,
+ * Crawl-delay ограничивает частоту запросов, а ссылки из карт сайта сразу добавляются к начальным.
+ * <p>
+ * Страницы загружаются и леммы собираются в общем для всех сайтов {@link CrawlGovernor}:
+ * очередь сайта закрывается сразу после его обхода.
  */
 @RequiredArgsConstructor
 @Slf4j
@@ -37,37 +65,73 @@ public class WebsiteIndexer implements Runnable {
 
     private final SiteRepository siteRepository;
     private final PageRepository pageRepository;
-    private final LemmaRepository lemmaRepository;
-    private final IndexRepository indexRepository;
     private final LemmasCollector lemmasCollector;
     private final IndexBuilder indexBuilder;
     private final Site site;
     private final UrlHelper urlHelper;
+    private final CrawlerSettings crawlerSettings;
+    private final PolitenessScheduler politenessScheduler;
+    private final CrawlGovernor crawlGovernor;
+    private final IncrementalIndexUpdater incrementalIndexUpdater;
+    private final IndexingMode indexingMode;
+    private final CrawlCheckpointStore crawlCheckpointStore;
+    private final SiteSeeder siteSeeder;
+    private final CrawlerMetrics crawlerMetrics;
+    private final BulkIndexWriter bulkIndexWriter;
+    private final SitePurger sitePurger;
+    private final IndexGenerations indexGenerations;
 
     /**
      * Основной метод выполнения задачи индексации сайта.
      * Производит следующие шаги:
-     * - удаление старых данных (если сайт уже индексировался раньше),
-     * - сохранение сайта в репозиторий,
+     * - создание нового поколения индекса сайта (действующее поколение остаётся доступным для поиска),
      * - индексация страниц сайта,
      * - сбор лемм и сохранение их в репозиторий,
-     * - построение и сохранение индекса.
+     * - построение и сохранение индекса,
+     * - переключение поиска на новое поколение и фоновое удаление прежнего.
      */
     @Override
     public void run() {
 
-        if (siteRepository.findByUrl(site.getUrl()) != null) {
-            deleteData(site);
+        if (indexingMode == IndexingMode.INCREMENTAL) {
+            SiteEntity liveSite = siteRepository.findByUrlAndLiveTrue(site.getUrl());
+            if (liveSite != null) {
+                runIncremental(liveSite);
+                return;
+            }
+        }
+        if (indexingMode == IndexingMode.RESUME) {
+            SiteEntity latestSite = siteRepository.findFirstByUrlOrderByGenerationDescIdDesc(site.getUrl());
+            if (crawlCheckpointStore.exists(site.getUrl())) {
+                if (latestSite != null && !latestSite.isLive()) {
+                    runResume(latestSite);
+                    return;
+                }
+                log.info(MessageLogs.LOG_STALE_CHECKPOINT_DELETED, site.getUrl());
+                crawlCheckpointStore.delete(site.getUrl());
+            }
+            if (latestSite != null && latestSite.isLive() && latestSite.getStatus() == SiteStatus.INDEXED) {
+                log.info(MessageLogs.LOG_NOTHING_TO_RESUME, site.getUrl());
+                return;
+            }
         }
 
         try {
-            saveSiteToRepository();
+            long startNanos = System.nanoTime();
+            GcActivity gcAtStart = GcActivity.snapshot();
+            checkForInterruption();
+            SiteEntity siteEntity = indexGenerations.createGeneration(site);
 
-            savePagesToTheRepository();
+            SiteLemmas siteLemmas = savePagesToTheRepository(siteEntity);
 
-            saveLemmasToRepository();
+            crawlGovernor.runLemmatization(() -> {
+                saveLemmasToRepository(siteEntity, siteLemmas);
+                saveIndexesToRepository(siteEntity, siteLemmas);
+            });
+            indexGenerations.activate(siteEntity);
 
-            saveIndexesToRepository();
+            crawlCheckpointStore.delete(site.getUrl());
+            logGcActivity(startNanos, gcAtStart);
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -76,114 +140,345 @@ public class WebsiteIndexer implements Runnable {
     }
 
     /**
-     * Сохраняет сущность сайта в репозиторий.
-     * Устанавливает статус индексации и фиксирует текущее время.
+     * Инкрементальная переиндексация ранее проиндексированного сайта.
+     * Обходит сайт условными запросами, заменяет изменившиеся страницы,
+     * добавляет новые и удаляет страницы, которые больше не встречаются на сайте.
+     *
+     * @param siteEntity Ранее проиндексированный сайт.
      */
-    private void saveSiteToRepository() throws InterruptedException {
-        checkForInterruption();
-        SiteEntity siteEntity = new SiteEntity();
-        siteEntity.setStatus(SiteStatus.INDEXING);
-        siteEntity.setStatusTime(LocalDateTime.now());
-        siteEntity.setUrl(site.getUrl());
-        siteEntity.setName(site.getName());
-        siteRepository.save(siteEntity);
+    private void runIncremental(SiteEntity siteEntity) {
+        try {
+            siteEntity.setStatus(SiteStatus.INDEXING);
+            siteEntity.setStatusTime(LocalDateTime.now());
+            siteEntity.setLastError(null);
+            siteRepository.save(siteEntity);
+
+            IncrementalCrawlState crawlState =
+                    IncrementalCrawlState.load(pageRepository, siteEntity.getId());
+            UrlFrontier frontier = createFrontier();
+            String startUrl = getStartUrl();
+            frontier.markVisited(startUrl);
+            crawlPages(siteEntity, crawlState, frontier, List.of(startUrl), null, createDuplicateDetector());
+
+            checkForInterruption();
+            for (PageValidators unseenPage : crawlState.findUnseenPages()) {
+                incrementalIndexUpdater.removePage(siteEntity, unseenPage.getId());
+            }
+
+            siteEntity.setStatus(SiteStatus.INDEXED);
+            siteEntity.setStatusTime(LocalDateTime.now());
+            siteRepository.save(siteEntity);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error(MessageLogs.THE_FLOW_WAS_INTERRUPTED);
+        }
     }
 
     /**
-     * Индексация страниц сайта.
-     * Собирает все страницы сайта, сохраняет их в репозиторий.
+     * Продолжение прерванной полной индексации сайта с контрольной точки.
+     * Страницы ожидающих ссылок, успевшие сохраниться после записи контрольной точки,
+     * удаляются и загружаются заново; леммы и индекс сайта строятся с нуля.
+     *
+     * @param siteEntity Недостроенное поколение сайта, индексация которого была прервана.
      */
-    private void savePagesToTheRepository() throws InterruptedException {
-        checkForInterruption();
-
-        List<PageEntity> pageEntities = new ArrayList<>();
-        Set<String> visitedLinks = new HashSet<>();
-        List<DtoPage> pages = new ArrayList<>();
+    private void runResume(SiteEntity siteEntity) {
+        UrlFrontier frontier = createFrontier();
+        if (!crawlCheckpointStore.restore(site.getUrl(), frontier)) {
+            crawlCheckpointStore.delete(site.getUrl());
+            run();
+            return;
+        }
+        try {
+            siteEntity.setStatus(SiteStatus.INDEXING);
+            siteEntity.setStatusTime(LocalDateTime.now());
+            siteEntity.setLastError(null);
+            siteRepository.save(siteEntity);
 
-        String startUrl = site.getUrl();
-        SiteEntity siteEntity = siteRepository.findByUrl(startUrl);
+            sitePurger.purgeLemmasAndIndex(siteEntity.getId());
 
-        ForkJoinPool forkJoinPool = new ForkJoinPool();
-        WebCrawlerTask task = new WebCrawlerTask(visitedLinks, pages, urlHelper, startUrl);
-        forkJoinPool.invoke(task);
+            List<String> pendingUrls = frontier.getPendingUrls();
+            deleteStoredPages(siteEntity, pendingUrls);
+            log.info(MessageLogs.LOG_CRAWL_RESUMED, site.getUrl(), pendingUrls.size());
+            List<PageText> storedPages = pageRepository.findTextsBySiteId(siteEntity.getId());
+            SiteLemmas siteLemmas = new SiteLemmas();
+            lemmasCollector.collectPages(siteLemmas, storedPages.stream().map(StoredPageText::of).toList());
+            NearDuplicateDetector duplicateDetector = createDuplicateDetector();
+            storedPages.stream()
+                    .filter(storedPage -> storedPage.getCode() < 400)
+                    .forEach(storedPage -> duplicateDetector.register(
+                            site.getUrl() + storedPage.getPath(), storedPage.getText()));
+            crawlWithCheckpoints(siteEntity, frontier, pendingUrls, siteLemmas, duplicateDetector);
 
-        for (DtoPage dtoPage : pages) {
-            String pageUrl = dtoPage.getPath();
-            String path = urlHelper.getPathToPage(pageUrl);
+            crawlGovernor.runLemmatization(() -> {
+                saveLemmasToRepository(siteEntity, siteLemmas);
+                saveIndexesToRepository(siteEntity, siteLemmas);
+            });
+            indexGenerations.activate(siteEntity);
 
-            PageEntity pageEntity = new PageEntity();
-            pageEntity.setSiteId(siteEntity);
-            pageEntity.setPath(path);
-            pageEntity.setCode(dtoPage.getCode());
-            pageEntity.setContent(dtoPage.getContent());
-            pageEntities.add(pageEntity);
+            crawlCheckpointStore.delete(site.getUrl());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error(MessageLogs.THE_FLOW_WAS_INTERRUPTED);
+        }
+    }
 
+    /**
+     * Удаляет сохранённые страницы, ссылки на которые будут загружены повторно.
+     *
+     * @param siteEntity  Сайт.
+     * @param pendingUrls Ожидающие ссылки из контрольной точки.
+     */
+    private void deleteStoredPages(SiteEntity siteEntity, List<String> pendingUrls) {
+        Map<String, PageValidators> storedPages = pageRepository.findValidatorsBySiteId(siteEntity.getId())
+                .stream()
+                .collect(Collectors.toMap(PageValidators::getPath, Function.identity(),
+                        (first, second) -> first));
+        List<Long> pageIds = new ArrayList<>();
+        for (String pendingUrl : pendingUrls) {
+            PageValidators storedPage = storedPages.get(urlHelper.getPathToPage(pendingUrl));
+            if (storedPage != null) {
+                pageIds.add(storedPage.getId());
+            }
         }
-        pageRepository.saveAll(pageEntities);
-        forkJoinPool.shutdown();
+        sitePurger.purgePages(pageIds);
     }
 
     /**
-     * Сбор и сохранение лемм для текущего сайта.
-     * Проходит по каждой странице сайта, собирает леммы и сохраняет их в репозиторий.
+     * Индексация страниц сайта.
+     * Обходит страницы сайта и по мере обхода сохраняет их в репозиторий пачками,
+     * лемматизируя каждую сохранённую страницу.
+     *
+     * @param siteEntity Строящееся поколение сайта.
+     * @return Леммы сохранённых страниц сайта.
      */
-    private void saveLemmasToRepository() throws InterruptedException {
+    private SiteLemmas savePagesToTheRepository(SiteEntity siteEntity) throws InterruptedException {
         checkForInterruption();
 
-        SiteEntity siteEntity = siteRepository.findByUrl(site.getUrl());
-        List<DtoLemma> dtoLemmas = lemmasCollector.extractLemmasForSite(siteEntity);
+        UrlFrontier frontier = createFrontier();
+        String startUrl = getStartUrl();
+        frontier.markVisited(startUrl);
+        SiteLemmas siteLemmas = new SiteLemmas();
+        crawlWithCheckpoints(siteEntity, frontier, List.of(startUrl), siteLemmas, createDuplicateDetector());
+        return siteLemmas;
+    }
+
+    /**
+     * Полный обход сайта с периодической записью контрольной точки.
+     * Контрольная точка записывается и при любом завершении обхода, в том числе при прерывании.
+     *
+     * @param siteEntity        Сайт, страницы которого обходятся.
+     * @param frontier          Учёт ссылок сайта.
+     * @param seedUrls          Ссылки, с которых начинается обход.
+     * @param siteLemmas        Леммы сайта, к которым добавляются леммы сохранённых страниц.
+     * @param duplicateDetector Поиск почти одинаковых страниц сайта.
+     * @throws InterruptedException если поток был прерван.
+     */
+    private void crawlWithCheckpoints(SiteEntity siteEntity, UrlFrontier frontier, List<String> seedUrls,
+                                      SiteLemmas siteLemmas, NearDuplicateDetector duplicateDetector)
+            throws InterruptedException {
+        ScheduledFuture<?> checkpoints = crawlCheckpointStore.schedule(site.getUrl(), frontier);
+        try {
+            crawlPages(siteEntity, IncrementalCrawlState.none(), frontier, seedUrls, siteLemmas, duplicateDetector);
+        } finally {
+            if (checkpoints != null) {
+                checkpoints.cancel(false);
+            }
+            crawlCheckpointStore.save(site.getUrl(), frontier);
+        }
+    }
 
-        List<LemmaEntity> lemmaEntities = new ArrayList<>();
-        for (DtoLemma dtoLemma : dtoLemmas) {
-            LemmaEntity lemmaEntity = new LemmaEntity();
-            lemmaEntity.setSiteId(siteEntity);
-            lemmaEntity.setLemma(dtoLemma.getLemma());
-            lemmaEntity.setFrequency(dtoLemma.getFrequency());
-            lemmaEntities.add(lemmaEntity);
+    /**
+     * Обходит страницы сайта и сохраняет их в репозиторий пачками по мере обхода.
+     *
+     * @param siteEntity        Сайт, страницы которого обходятся.
+     * @param crawlState        Сведения о ранее сохранённых страницах сайта.
+     * @param frontier          Учёт ссылок сайта, в котором ссылки обхода уже отмечены посещёнными.
+     * @param seedUrls          Ссылки, с которых начинается обход.
+     * @param siteLemmas        Леммы сайта, к которым добавляются леммы сохранённых страниц
+     *                          (null при инкрементальном обходе).
+     * @param duplicateDetector Поиск почти одинаковых страниц сайта, в котором уже могут быть
+     *                          запомнены страницы, сохранённые до возобновления обхода.
+     * @throws InterruptedException если поток был прерван.
+     */
+    private void crawlPages(SiteEntity siteEntity, IncrementalCrawlState crawlState, UrlFrontier frontier,
+                            List<String> seedUrls, SiteLemmas siteLemmas,
+                            NearDuplicateDetector duplicateDetector) throws InterruptedException {
+        String startUrl = getStartUrl();
+        RobotsRules robotsRules = siteSeeder.loadRobotsRules(startUrl, getHostLimit(RobotsRules.allowAll()));
+        SiteSeeder.HostLimit hostLimit = getHostLimit(robotsRules);
+        UrlCanonicalizer urlCanonicalizer = UrlCanonicalizer.fromSettings(crawlerSettings);
+        UrlClassifier urlClassifier = UrlClassifier.fromSettings(crawlerSettings, robotsRules);
+        List<String> crawlSeeds = new ArrayList<>(seedUrls);
+        crawlSeeds.addAll(collectSitemapSeeds(startUrl, robotsRules, hostLimit, urlCanonicalizer,
+                urlClassifier, frontier));
+        if (crawlSeeds.isEmpty()) {
+            return;
         }
-        lemmaRepository.saveAll(lemmaEntities);
+        BlockingQueue<DtoPage> pageQueue =
+                new ArrayBlockingQueue<>(crawlerSettings.getPageQueueCapacity());
+
+        CrawlEngine crawlEngine = crawlGovernor.register(site.getUrl());
+        crawlerMetrics.registerFrontier(site.getUrl(), frontier::getPendingCount);
+        try {
+            CrawlContext crawlContext = new CrawlContext(frontier, pageQueue, urlHelper, crawlState,
+                    duplicateDetector, urlCanonicalizer, urlClassifier, crawlerMetrics,
+                    politenessScheduler, crawlEngine, hostLimit.requestsPerSecond(), hostLimit.burst());
+            crawlSeeds.forEach(crawlContext::submit);
 
+            PageBatchWriter pageBatchWriter = new PageBatchWriter(pageRepository, urlHelper,
+                    siteEntity, pageQueue, crawlerSettings.getPageBatchSize(),
+                    crawlState, incrementalIndexUpdater, frontier, lemmasCollector, siteLemmas);
+            pageBatchWriter.writeUntilDone(crawlContext.getCompletion());
+            if (duplicateDetector.isEnabled()) {
+                log.info(MessageLogs.LOG_NEAR_DUPLICATES_SKIPPED, site.getUrl(),
+                        duplicateDetector.getDuplicatePages(), duplicateDetector.getCheckedPages());
+            }
+        } finally {
+            crawlerMetrics.removeFrontier(site.getUrl());
+            crawlEngine.shutdownNow();
+        }
     }
 
     /**
-     * Построение и сохранение индекса.
-     * Строит индекс по каждой странице сайта и сохраняет его в репозиторий.
+     * Отбирает ссылки из карт сайта, которые ещё не обходились, и отмечает их посещёнными.
+     *
+     * @param startUrl         Каноническая ссылка на главную страницу сайта.
+     * @param robotsRules      Правила robots.txt сайта.
+     * @param hostLimit        Лимит частоты запросов к сайту.
+     * @param urlCanonicalizer Канонизация ссылок.
+     * @param urlClassifier    Отбор ссылок для обхода.
+     * @param frontier         Учёт ссылок сайта.
+     * @return Ссылки, с которых дополнительно начинается обход.
+     * @throws InterruptedException если поток был прерван.
      */
-    private void saveIndexesToRepository() throws InterruptedException {
-        checkForInterruption();
+    private List<String> collectSitemapSeeds(String startUrl, RobotsRules robotsRules,
+                                             SiteSeeder.HostLimit hostLimit,
+                                             UrlCanonicalizer urlCanonicalizer, UrlClassifier urlClassifier,
+                                             UrlFrontier frontier) throws InterruptedException {
+        List<String> sitemapSeeds = new ArrayList<>();
+        for (String sitemapUrl : siteSeeder.collectSitemapUrls(startUrl, robotsRules, hostLimit)) {
+            String url = urlCanonicalizer.canonicalize(sitemapUrl);
+            if (url.startsWith(startUrl) && urlClassifier.isCrawlable(url) && frontier.markVisited(url)) {
+                sitemapSeeds.add(url);
+            }
+        }
+        if (!sitemapSeeds.isEmpty()) {
+            log.info(MessageLogs.LOG_SITEMAP_SEEDS, site.getUrl(), sitemapSeeds.size());
+        }
+        return sitemapSeeds;
+    }
 
-        SiteEntity siteEntity = siteRepository.findByUrl(site.getUrl());
+    /**
+     * Создаёт пустой учёт ссылок сайта по настройкам обходчика.
+     *
+     * @return Учёт ссылок.
+     */
+    private UrlFrontier createFrontier() {
+        return new UrlFrontier(crawlerSettings.getVisitedExactLimit(),
+                crawlerSettings.getVisitedFilterCapacity(),
+                crawlerSettings.getVisitedFilterFalsePositiveRate());
+    }
 
-        List<DtoIndex> dtoIndices = indexBuilder.buildIndexesForSite(siteEntity);
+    /**
+     * Создаёт поиск почти одинаковых страниц с настроенным расстоянием.
+     *
+     * @return Пустой поиск почти одинаковых страниц сайта.
+     */
+    private NearDuplicateDetector createDuplicateDetector() {
+        return new NearDuplicateDetector(crawlerSettings.getNearDuplicateDistance());
+    }
 
-        List<IndexEntity> indexEntities = new ArrayList<>();
-        for (DtoIndex dtoIndex : dtoIndices) {
-            PageEntity pageEntity = pageRepository.getReferenceById(dtoIndex.getPageId());
-            LemmaEntity lemmaEntity = lemmaRepository.getReferenceById(dtoIndex.getLemmaId());
+    /**
+     * Возвращает каноническую ссылку на главную страницу сайта.
+     *
+     * @return Ссылка, с которой начинается полный обход.
+     */
+    private String getStartUrl() {
+        return UrlCanonicalizer.fromSettings(crawlerSettings).canonicalize(site.getUrl());
+    }
 
-            IndexEntity indexEntity = new IndexEntity();
-            indexEntity.setPageId(pageEntity);
-            indexEntity.setLemmaId(lemmaEntity);
-            indexEntity.setRank(dtoIndex.getRank());
-            indexEntities.add(indexEntity);
-        }
-        indexRepository.saveAll(indexEntities);
+    /**
+     * Возвращает лимит частоты запросов к сайту.
+     *
+     * @param robotsRules Правила robots.txt сайта.
+     * @return Допустимое количество запросов в секунду и количество запросов подряд без паузы.
+     */
+    private SiteSeeder.HostLimit getHostLimit(RobotsRules robotsRules) {
+        return new SiteSeeder.HostLimit(getRequestsPerSecond(robotsRules), getBurst(robotsRules));
+    }
 
-        siteEntity.setStatus(SiteStatus.INDEXED);
-        siteEntity.setStatusTime(LocalDateTime.now());
-        siteRepository.save(siteEntity);
+    /**
+     * Возвращает допустимое количество запросов в секунду к сайту.
+     *
+     * @param robotsRules Правила robots.txt сайта.
+     * @return Значение из настроек сайта или, если оно не задано, из настроек обходчика;
+     * не больше, чем допускает Crawl-delay.
+     */
+    private double getRequestsPerSecond(RobotsRules robotsRules) {
+        double requestsPerSecond = site.getRequestsPerSecond() != null
+                ? site.getRequestsPerSecond() : crawlerSettings.getRequestsPerSecond();
+        double crawlDelay = robotsRules.getCrawlDelaySeconds();
+        if (crawlDelay > 0 && 1 / crawlDelay < requestsPerSecond) {
+            log.info(MessageLogs.LOG_CRAWL_DELAY, site.getUrl(), crawlDelay, 1 / crawlDelay);
+            return 1 / crawlDelay;
+        }
+        return requestsPerSecond;
     }
 
     /**
-     * Удаляет старые данные о сайте, если он уже индексировался ранее.
+     * Возвращает количество запросов к сайту, допустимых подряд без паузы.
      *
-     * @param site сайт, данные которого подлежат удалению.
+     * @param robotsRules Правила robots.txt сайта.
+     * @return Значение из настроек сайта или, если оно не задано, из настроек обходчика;
+     * 1, если сайт задал Crawl-delay.
      */
-    private void deleteData(Site site) {
-        SiteEntity siteEntity = siteRepository.findByUrl(site.getUrl());
-        if (siteEntity != null) {
-            siteRepository.delete(siteEntity);
+    private int getBurst(RobotsRules robotsRules) {
+        if (robotsRules.getCrawlDelaySeconds() > 0) {
+            return 1;
         }
+        return site.getBurst() != null ? site.getBurst() : crawlerSettings.getBurst();
+    }
+
+    /**
+     * Сохранение лемм текущего сайта.
+     * Сохраняет леммы, собранные со страниц сайта при их сохранении, многострочными INSERT ({@link BulkIndexWriter}).
+     *
+     * @param siteEntity Строящееся поколение сайта.
+     * @param siteLemmas Леммы страниц сайта.
+     */
+    private void saveLemmasToRepository(SiteEntity siteEntity, SiteLemmas siteLemmas) throws InterruptedException {
+        checkForInterruption();
+
+        List<DtoLemma> dtoLemmas = lemmasCollector.extractLemmasForSite(siteLemmas);
+        bulkIndexWriter.insertLemmas(siteEntity, dtoLemmas);
+    }
+
+    /**
+     * Построение и сохранение индекса.
+     * Строит индекс по леммам каждой страницы сайта и сохраняет его многострочными INSERT ({@link BulkIndexWriter}).
+     *
+     * @param siteEntity Строящееся поколение сайта.
+     * @param siteLemmas Леммы страниц сайта.
+     */
+    private void saveIndexesToRepository(SiteEntity siteEntity, SiteLemmas siteLemmas) throws InterruptedException {
+        checkForInterruption();
+
+        IndexPostings postings = indexBuilder.buildIndexesForSite(siteEntity, siteLemmas);
+        bulkIndexWriter.insertIndexes(postings);
+    }
+
+    /**
+     * Записывает в журнал длительность полной индексации сайта, работу сборщика мусора
+     * и объём выделенной за это время памяти.
+     *
+     * @param startNanos Время начала индексации ({@link System#nanoTime()}).
+     * @param gcAtStart  Показатели JVM в начале индексации.
+     */
+    private void logGcActivity(long startNanos, GcActivity gcAtStart) {
+        GcActivity gcActivity = GcActivity.snapshot().since(gcAtStart);
+        log.info(MessageLogs.LOG_INDEX_GC_ACTIVITY, site.getUrl(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), gcActivity.getCollections(),
+                gcActivity.getCollectionTimeMs(), gcActivity.getAllocatedBytes() / (1024 * 1024));
     }
 
     /**
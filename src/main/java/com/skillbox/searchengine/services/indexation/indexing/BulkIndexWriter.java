@@ -0,0 +1,112 @@
+package com.skillbox.searchengine.services.indexation.indexing;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.dto.indexing.DtoLemma;
+import com.skillbox.searchengine.model.SiteEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Массовая запись лемм и индекса сайта многострочными INSERT.
+ * <p>
+ * Сущности лемм и индекса используют {@code GenerationType.IDENTITY}, из-за чего Hibernate
+ * не объединяет вставки в пакеты и выполняет отдельный запрос на каждую строку.
+ * Этот компонент вставляет строки напрямую через JDBC по {@code batchSize} строк в одном запросе,
+ * не создавая сущностей и не обращаясь к контексту постоянства. Значения передаются
+ * в подготовленный запрос без упаковки чисел.
+ */
+@Component
+public class BulkIndexWriter {
+
+    private static final String INSERT_LEMMAS = "INSERT INTO lemma (site_id, lemma, frequency) VALUES ";
+    private static final String INSERT_INDEXES = "INSERT INTO `index` (page_id, lemma_id, `rank`) VALUES ";
+    private static final String ROW = "(?, ?, ?)";
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final String insertLemmasBatch;
+    private final String insertIndexesBatch;
+
+    @Autowired
+    public BulkIndexWriter(JdbcTemplate jdbcTemplate, CrawlerSettings crawlerSettings) {
+        this(jdbcTemplate, crawlerSettings.getBulkInsertBatchSize());
+    }
+
+    /**
+     * Создаёт запись лемм и индекса.
+     *
+     * @param jdbcTemplate Доступ к базе данных.
+     * @param batchSize    Количество строк в одном запросе.
+     */
+    public BulkIndexWriter(JdbcTemplate jdbcTemplate, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.insertLemmasBatch = insertSql(INSERT_LEMMAS, this.batchSize);
+        this.insertIndexesBatch = insertSql(INSERT_INDEXES, this.batchSize);
+    }
+
+    /**
+     * Вставляет леммы сайта.
+     *
+     * @param siteEntity Сайт.
+     * @param lemmas     Леммы сайта с частотами.
+     * @return Количество вставленных строк.
+     */
+    public int insertLemmas(SiteEntity siteEntity, List<DtoLemma> lemmas) {
+        long siteId = siteEntity.getId();
+        int inserted = 0;
+        for (int from = 0; from < lemmas.size(); from += batchSize) {
+            int rows = Math.min(batchSize, lemmas.size() - from);
+            int offset = from;
+            inserted += jdbcTemplate.update(rows == batchSize ? insertLemmasBatch : insertSql(INSERT_LEMMAS, rows),
+                    statement -> {
+                        int parameter = 1;
+                        for (int i = offset; i < offset + rows; i++) {
+                            DtoLemma lemma = lemmas.get(i);
+                            statement.setLong(parameter++, siteId);
+                            statement.setString(parameter++, lemma.getLemma());
+                            statement.setInt(parameter++, lemma.getFrequency());
+                        }
+                    });
+        }
+        return inserted;
+    }
+
+    /**
+     * Вставляет записи индекса.
+     *
+     * @param postings Записи индекса.
+     * @return Количество вставленных строк.
+     */
+    public int insertIndexes(IndexPostings postings) {
+        int inserted = 0;
+        for (int from = 0; from < postings.size(); from += batchSize) {
+            int rows = Math.min(batchSize, postings.size() - from);
+            int offset = from;
+            inserted += jdbcTemplate.update(rows == batchSize ? insertIndexesBatch : insertSql(INSERT_INDEXES, rows),
+                    statement -> {
+                        int parameter = 1;
+                        for (int i = offset; i < offset + rows; i++) {
+                            statement.setLong(parameter++, postings.getPageId(i));
+                            statement.setLong(parameter++, postings.getLemmaId(i));
+                            statement.setFloat(parameter++, postings.getRank(i));
+                        }
+                    });
+        }
+        return inserted;
+    }
+
+    private static String insertSql(String insert, int rows) {
+        StringBuilder sql = new StringBuilder(insert.length() + rows * (ROW.length() + 2));
+        sql.append(insert);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW);
+        }
+        return sql.toString();
+    }
+}
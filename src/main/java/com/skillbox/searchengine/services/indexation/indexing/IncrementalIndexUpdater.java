@@ -0,0 +1,96 @@
+package com.skillbox.searchengine.services.indexation.indexing;
+
+import com.skillbox.searchengine.model.IndexEntity;
+import com.skillbox.searchengine.model.LemmaEntity;
+import com.skillbox.searchengine.model.PageEntity;
+import com.skillbox.searchengine.model.SiteEntity;
+import com.skillbox.searchengine.repository.IndexRepository;
+import com.skillbox.searchengine.repository.LemmaRepository;
+import com.skillbox.searchengine.repository.PageRepository;
+import com.skillbox.searchengine.utils.LemmaExtractor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Компонент, обновляющий леммы и индекс сайта постранично.
+ * <p>
+ * Используется при инкрементальной переиндексации: для удаляемой страницы
+ * уменьшает частоты её лемм и удаляет её записи индекса, для новой страницы
+ * увеличивает частоты лемм (создавая недостающие) и добавляет записи индекса.
+ * Остальные страницы сайта, их леммы и индекс не затрагиваются.
+ */
+@Component
+@RequiredArgsConstructor
+public class IncrementalIndexUpdater {
+
+    private final PageRepository pageRepository;
+    private final LemmaRepository lemmaRepository;
+    private final IndexRepository indexRepository;
+    private final LemmaExtractor lemmaExtractor;
+
+    /**
+     * Удаляет страницу вместе с её записями индекса и вкладом в частоты лемм.
+     *
+     * @param siteEntity Сайт, которому принадлежит страница.
+     * @param pageId     Идентификатор страницы.
+     */
+    @Transactional
+    public void removePage(SiteEntity siteEntity, Long pageId) {
+        lemmaRepository.decrementFrequencyByPageId(pageId);
+        indexRepository.deleteByPageId(pageId);
+        pageRepository.deletePageById(pageId);
+        lemmaRepository.deleteUnusedBySiteId(siteEntity.getId());
+    }
+
+    /**
+     * Добавляет леммы и записи индекса сохранённой страницы.
+     *
+     * @param pageEntity Сохранённая страница.
+     */
+    @Transactional
+    public void addPage(PageEntity pageEntity) {
+        if (pageEntity.getCode() >= IndexBuilder.STATUS_CODE) {
+            return;
+        }
+        SiteEntity siteEntity = pageEntity.getSiteId();
+        String cleanContent = pageEntity.getText() == null ? "" : pageEntity.getText();
+        Map<String, Integer> lemmasOnPage = lemmaExtractor.collectLemmas(cleanContent);
+        if (lemmasOnPage.isEmpty()) {
+            return;
+        }
+
+        Map<String, LemmaEntity> existingLemmas = lemmaRepository
+                .findByLemmasAndSiteIds(new ArrayList<>(lemmasOnPage.keySet()), siteEntity.getId())
+                .stream()
+                .collect(Collectors.toMap(LemmaEntity::getLemma, Function.identity(),
+                        (first, second) -> first));
+
+        List<LemmaEntity> lemmaEntities = new ArrayList<>();
+        List<IndexEntity> indexEntities = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : lemmasOnPage.entrySet()) {
+            LemmaEntity lemmaEntity = existingLemmas.get(entry.getKey());
+            if (lemmaEntity == null) {
+                lemmaEntity = new LemmaEntity();
+                lemmaEntity.setSiteId(siteEntity);
+                lemmaEntity.setLemma(entry.getKey());
+            }
+            lemmaEntity.setFrequency(lemmaEntity.getFrequency() + 1);
+            lemmaEntities.add(lemmaEntity);
+
+            IndexEntity indexEntity = new IndexEntity();
+            indexEntity.setPageId(pageEntity);
+            indexEntity.setLemmaId(lemmaEntity);
+            indexEntity.setRank(entry.getValue());
+            indexEntities.add(indexEntity);
+        }
+        lemmaRepository.saveAll(lemmaEntities);
+        indexRepository.saveAll(indexEntities);
+    }
+}
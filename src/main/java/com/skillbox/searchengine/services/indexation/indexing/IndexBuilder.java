@@ -1,24 +1,28 @@
 package com.skillbox.searchengine.services.indexation.indexing;
 
-import com.skillbox.searchengine.dto.indexing.DtoIndex;
 import com.skillbox.searchengine.model.LemmaEntity;
-import com.skillbox.searchengine.model.PageEntity;
 import com.skillbox.searchengine.model.SiteEntity;
 import com.skillbox.searchengine.repository.LemmaRepository;
-import com.skillbox.searchengine.repository.PageRepository;
-import com.skillbox.searchengine.utils.LemmaExtractor;
+import com.skillbox.searchengine.services.indexation.lemmatization.LemmaDictionary;
+import com.skillbox.searchengine.services.indexation.lemmatization.PageLemmas;
+import com.skillbox.searchengine.services.indexation.lemmatization.SiteLemmas;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Компонент, ответственный за построение индекса сайта.
  * <p>
- * Строит список индексов (частот лемм) для каждой страницы сайта,
- * основываясь на содержании страниц и собранных леммах.
+ * Строит список индексов (частот лемм) для каждой страницы сайта
+ * по леммам, собранным со страниц при лемматизации ({@link SiteLemmas}),
+ * и сохранённым леммам сайта. Страницы повторно не загружаются и не лемматизируются.
+ * <p>
+ * Сохранённые леммы сопоставляются с идентификаторами {@link LemmaDictionary} один раз,
+ * а записи индекса накапливаются в массивах примитивов ({@link IndexPostings}).
+ * Записи строятся по собственным леммам каждой страницы, поэтому время построения
+ * пропорционально количеству записей индекса, а не произведению числа страниц на число лемм сайта.
  */
 @Component
 @RequiredArgsConstructor
@@ -29,41 +33,64 @@ public class IndexBuilder {
      * пропускаются при построении индекса.
      */
     public static final int STATUS_CODE = 400;
-    private final PageRepository pageRepository;
+    /**
+     * Отметка леммы словаря, для которой нет сохранённой леммы сайта.
+     */
+    private static final long UNKNOWN_LEMMA = -1;
     private final LemmaRepository lemmaRepository;
-    private final LemmaExtractor lemmaExtractor;
 
     /**
-     * Генерирует список индексов для заданного сайта.
+     * Генерирует записи индекса для заданного сайта.
      *
      * @param siteEntity Сайт, для которого строится индекс.
-     * @return Список индексов (DTOIndex), содержащих информацию о
-     * частотах лемм на страницах сайта.
+     * @param siteLemmas Леммы страниц сайта.
+     * @return Записи индекса, содержащие частоты лемм на страницах сайта.
      */
-    public List<DtoIndex> buildIndexesForSite(SiteEntity siteEntity) {
+    public IndexPostings buildIndexesForSite(SiteEntity siteEntity, SiteLemmas siteLemmas) {
 
-        List<DtoIndex> dtoIndexList = new ArrayList<>();
         Long siteId = siteEntity.getId();
-        List<PageEntity> pages = pageRepository.findBySiteId(siteId);
         List<LemmaEntity> lemmas = lemmaRepository.findBySiteId(siteId);
 
-        for (PageEntity page : pages) {
-            if (page.getCode() >= STATUS_CODE) {
-                continue;
-            }
-            String cleanContent = lemmaExtractor.cleanHtml(page.getContent());
-            Map<String, Integer> indexMap = lemmaExtractor.collectLemmas(cleanContent);
+        long[] storedLemmaIds = resolveStoredLemmaIds(siteLemmas.getDictionary(), lemmas);
+
+        int expectedPostings = 0;
+        for (PageLemmas page : siteLemmas.getPages()) {
+            expectedPostings += page.getLemmaIds().length;
+        }
+        IndexPostings postings = new IndexPostings(expectedPostings);
+
+        for (PageLemmas page : siteLemmas.getPages()) {
+            int[] pageLemmaIds = page.getLemmaIds();
+            int[] counts = page.getCounts();
 
-            for (LemmaEntity lemmaEntity : lemmas) {
-                long lemmaId = lemmaEntity.getId();
-                String lemmaWord = lemmaEntity.getLemma();
-                if (!indexMap.containsKey(lemmaWord)) {
+            for (int i = 0; i < pageLemmaIds.length; i++) {
+                long lemmaId = storedLemmaIds[pageLemmaIds[i]];
+                if (lemmaId == UNKNOWN_LEMMA) {
                     continue;
                 }
-                float rank = indexMap.get(lemmaWord);
-                dtoIndexList.add(new DtoIndex(page.getId(), lemmaId, rank));
+                postings.add(page.getPageId(), lemmaId, counts[i]);
+            }
+        }
+        return postings;
+    }
+
+    /**
+     * Сопоставляет идентификаторам словаря лемм идентификаторы сохранённых лемм сайта.
+     *
+     * @param dictionary Словарь лемм сайта.
+     * @param lemmas     Сохранённые леммы сайта.
+     * @return Идентификатор сохранённой леммы по идентификатору словаря
+     * или {@link #UNKNOWN_LEMMA}, если лемма не сохранена.
+     */
+    private static long[] resolveStoredLemmaIds(LemmaDictionary dictionary, List<LemmaEntity> lemmas) {
+        long[] storedLemmaIds = new long[dictionary.size()];
+        Arrays.fill(storedLemmaIds, UNKNOWN_LEMMA);
+        for (LemmaEntity lemmaEntity : lemmas) {
+            int dictionaryId = dictionary.find(lemmaEntity.getLemma());
+            if (dictionaryId >= 0 && dictionaryId < storedLemmaIds.length) {
+                storedLemmaIds[dictionaryId] = lemmaEntity.getId();
             }
         }
-        return dtoIndexList;
+        return storedLemmaIds;
     }
 }
@@ -0,0 +1,151 @@
+package com.skillbox.searchengine.services.indexation.indexing;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.config.Site;
+import com.skillbox.searchengine.model.SiteEntity;
+import com.skillbox.searchengine.model.SiteStatus;
+import com.skillbox.searchengine.repository.SiteRepository;
+import com.skillbox.searchengine.utils.MessageLogs;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поколения индекса сайта.
+ * <p>
+ * Каждое поколение — отдельная запись сайта со своими страницами, леммами и индексом.
+ * Полная индексация строит новое поколение рядом с действующим, по которому продолжается поиск.
+ * Когда поколение построено, поиск переключается на него одним запросом {@code UPDATE},
+ * поэтому в любой момент у сайта ровно одно действующее поколение. Прежние поколения удаляются
+ * в фоне ({@link SitePurger}) после задержки, за которую завершаются начатые по ним поисковые запросы.
+ * Недостроенные поколения (новее действующего, например после остановки индексации) удаляются
+ * перед следующей полной индексацией сайта сразу, а прежние, не удалённые в фоне, — снова с задержкой.
+ */
+@Component
+@Slf4j
+public class IndexGenerations {
+
+    private static final String SWITCH_LIVE_GENERATION = "UPDATE site SET live = (id = ?) WHERE url = ?";
+    private final SiteRepository siteRepository;
+    private final SitePurger sitePurger;
+    private final JdbcTemplate jdbcTemplate;
+    private final long purgeDelaySeconds;
+    private final Set<Long> pendingPurges = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService purgeExecutor = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "generation-purge");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    @Autowired
+    public IndexGenerations(SiteRepository siteRepository, SitePurger sitePurger, JdbcTemplate jdbcTemplate,
+                            CrawlerSettings crawlerSettings) {
+        this(siteRepository, sitePurger, jdbcTemplate, crawlerSettings.getGenerationPurgeDelaySeconds());
+    }
+
+    /**
+     * Создаёт учёт поколений индекса.
+     *
+     * @param siteRepository    Репозиторий сайтов.
+     * @param sitePurger        Удаление данных поколения.
+     * @param jdbcTemplate      Доступ к базе данных.
+     * @param purgeDelaySeconds Задержка перед удалением прежнего поколения (в секундах).
+     */
+    public IndexGenerations(SiteRepository siteRepository, SitePurger sitePurger, JdbcTemplate jdbcTemplate,
+                            long purgeDelaySeconds) {
+        this.siteRepository = siteRepository;
+        this.sitePurger = sitePurger;
+        this.jdbcTemplate = jdbcTemplate;
+        this.purgeDelaySeconds = Math.max(0, purgeDelaySeconds);
+    }
+
+    /**
+     * Создаёт новое поколение сайта для полной индексации.
+     * Недостроенные поколения сайта (новее действующего) предварительно удаляются; прежние поколения,
+     * по которым ещё могут выполняться поисковые запросы, удаляются в фоне после задержки.
+     *
+     * @param site Сайт из настроек.
+     * @return Сохранённое поколение со статусом индексации, по которому поиск пока не выполняется.
+     */
+    public SiteEntity createGeneration(Site site) {
+        List<SiteEntity> generations = siteRepository.findAllByUrl(site.getUrl());
+        SiteEntity liveGeneration = generations.stream()
+                .filter(SiteEntity::isLive)
+                .findFirst()
+                .orElse(null);
+        for (SiteEntity generation : generations) {
+            if (generation.isLive()) {
+                continue;
+            }
+            if (liveGeneration == null || generation.getGeneration() > liveGeneration.getGeneration()) {
+                sitePurger.purgeSite(generation.getId(), site.getUrl());
+            } else {
+                schedulePurge(generation);
+            }
+        }
+        SiteEntity siteEntity = new SiteEntity();
+        siteEntity.setStatus(SiteStatus.INDEXING);
+        siteEntity.setStatusTime(LocalDateTime.now());
+        siteEntity.setUrl(site.getUrl());
+        siteEntity.setName(site.getName());
+        siteEntity.setGeneration(liveGeneration == null ? 1 : liveGeneration.getGeneration() + 1);
+        siteEntity.setLive(false);
+        return siteRepository.save(siteEntity);
+    }
+
+    /**
+     * Переключает поиск на построенное поколение и планирует удаление прежних поколений сайта.
+     *
+     * @param generation Построенное поколение.
+     */
+    public void activate(SiteEntity generation) {
+        generation.setStatus(SiteStatus.INDEXED);
+        generation.setStatusTime(LocalDateTime.now());
+        siteRepository.save(generation);
+
+        List<SiteEntity> previous = siteRepository.findAllByUrl(generation.getUrl()).stream()
+                .filter(siteEntity -> !siteEntity.getId().equals(generation.getId()))
+                .toList();
+        jdbcTemplate.update(SWITCH_LIVE_GENERATION, generation.getId(), generation.getUrl());
+        generation.setLive(true);
+        log.info(MessageLogs.LOG_GENERATION_ACTIVATED, generation.getUrl(), generation.getGeneration(),
+                previous.size());
+
+        previous.forEach(this::schedulePurge);
+    }
+
+    private void schedulePurge(SiteEntity generation) {
+        if (pendingPurges.add(generation.getId())) {
+            purgeExecutor.schedule(() -> purge(generation), purgeDelaySeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private void purge(SiteEntity generation) {
+        try {
+            sitePurger.purgeSite(generation.getId(), generation.getUrl());
+        } catch (RuntimeException e) {
+            log.error(MessageLogs.LOG_GENERATION_PURGE_FAILED, generation.getUrl(), generation.getGeneration(), e);
+        } finally {
+            pendingPurges.remove(generation.getId());
+        }
+    }
+
+    /**
+     * Останавливает фоновое удаление; неудалённые поколения удалятся при следующей полной индексации.
+     */
+    @PreDestroy
+    public void shutdown() {
+        purgeExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,65 @@
+package com.skillbox.searchengine.services.indexation.indexing;
+
+import java.util.Arrays;
+
+/**
+ * Записи индекса сайта в массивах примитивов: страница, лемма и ранг каждой записи.
+ * <p>
+ * Заменяет список объектов на каждую запись: сущности индекса создаются из этих массивов
+ * только при сохранении, небольшими частями.
+ */
+public class IndexPostings {
+
+    private long[] pageIds;
+    private long[] lemmaIds;
+    private float[] ranks;
+    private int size;
+
+    /**
+     * Создаёт записи индекса под заданное количество записей.
+     *
+     * @param expectedSize Ожидаемое количество записей.
+     */
+    public IndexPostings(int expectedSize) {
+        int capacity = Math.max(1, expectedSize);
+        pageIds = new long[capacity];
+        lemmaIds = new long[capacity];
+        ranks = new float[capacity];
+    }
+
+    /**
+     * Добавляет запись индекса.
+     *
+     * @param pageId  Идентификатор страницы.
+     * @param lemmaId Идентификатор сохранённой леммы.
+     * @param rank    Ранг леммы на странице.
+     */
+    public void add(long pageId, long lemmaId, float rank) {
+        if (size == pageIds.length) {
+            int capacity = size * 2;
+            pageIds = Arrays.copyOf(pageIds, capacity);
+            lemmaIds = Arrays.copyOf(lemmaIds, capacity);
+            ranks = Arrays.copyOf(ranks, capacity);
+        }
+        pageIds[size] = pageId;
+        lemmaIds[size] = lemmaId;
+        ranks[size] = rank;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getPageId(int index) {
+        return pageIds[index];
+    }
+
+    public long getLemmaId(int index) {
+        return lemmaIds[index];
+    }
+
+    public float getRank(int index) {
+        return ranks[index];
+    }
+}
@@ -0,0 +1,108 @@
+package com.skillbox.searchengine.services.indexation.indexing;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.utils.MessageLogs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Удаление данных сайта запросами над множествами строк.
+ * <p>
+ * Удаление сущности сайта через JPA с {@code CascadeType.ALL} загружает все страницы, леммы
+ * и записи индекса сайта и удаляет их по одной. Здесь строки удаляются напрямую в порядке
+ * внешних ключей — записи индекса, леммы, страницы, сайт — запросами {@code DELETE ... LIMIT},
+ * каждый из которых удаляет не больше {@code batchSize} строк и фиксируется отдельно,
+ * поэтому блокировки удерживаются недолго, а сущности в память не загружаются.
+ */
+@Component
+@Slf4j
+public class SitePurger {
+
+    private static final String DELETE_SITE_INDEX = """
+            DELETE FROM `index`
+            WHERE page_id IN (SELECT id FROM page WHERE site_id = ?)
+            LIMIT ?""";
+    private static final String DELETE_SITE_LEMMAS = "DELETE FROM lemma WHERE site_id = ? LIMIT ?";
+    private static final String DELETE_SITE_PAGES = "DELETE FROM page WHERE site_id = ? LIMIT ?";
+    private static final String DELETE_SITE = "DELETE FROM site WHERE id = ?";
+    private static final String DELETE_PAGE_INDEX = "DELETE FROM `index` WHERE page_id = ? LIMIT ?";
+    private static final String DELETE_PAGE = "DELETE FROM page WHERE id = ?";
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public SitePurger(JdbcTemplate jdbcTemplate, CrawlerSettings crawlerSettings) {
+        this(jdbcTemplate, crawlerSettings.getPurgeBatchSize());
+    }
+
+    /**
+     * Создаёт удаление данных сайта.
+     *
+     * @param jdbcTemplate Доступ к базе данных.
+     * @param batchSize    Наибольшее количество строк, удаляемых одним запросом.
+     */
+    public SitePurger(JdbcTemplate jdbcTemplate, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Удаляет сайт вместе с его страницами, леммами и записями индекса.
+     *
+     * @param siteId Идентификатор сайта.
+     * @param url    Адрес сайта для журнала.
+     */
+    public void purgeSite(long siteId, String url) {
+        long startNanos = System.nanoTime();
+        long indexRows = deleteInChunks(DELETE_SITE_INDEX, siteId);
+        long lemmaRows = deleteInChunks(DELETE_SITE_LEMMAS, siteId);
+        long pageRows = deleteInChunks(DELETE_SITE_PAGES, siteId);
+        jdbcTemplate.update(DELETE_SITE, siteId);
+        log.info(MessageLogs.LOG_SITE_PURGED, url, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                indexRows, lemmaRows, pageRows);
+    }
+
+    /**
+     * Удаляет леммы и записи индекса сайта, сохраняя его страницы.
+     *
+     * @param siteId Идентификатор сайта.
+     */
+    public void purgeLemmasAndIndex(long siteId) {
+        deleteInChunks(DELETE_SITE_INDEX, siteId);
+        deleteInChunks(DELETE_SITE_LEMMAS, siteId);
+    }
+
+    /**
+     * Удаляет страницы вместе с их записями индекса. Частоты лемм не меняются.
+     *
+     * @param pageIds Идентификаторы страниц.
+     */
+    public void purgePages(List<Long> pageIds) {
+        for (Long pageId : pageIds) {
+            deleteInChunks(DELETE_PAGE_INDEX, pageId);
+            jdbcTemplate.update(DELETE_PAGE, pageId);
+        }
+    }
+
+    /**
+     * Повторяет удаление ограниченными порциями, пока запрос удаляет полную порцию.
+     *
+     * @param sql Запрос удаления с параметрами идентификатора и наибольшего количества строк.
+     * @param id  Идентификатор сайта или страницы.
+     * @return Количество удалённых строк.
+     */
+    private long deleteInChunks(String sql, long id) {
+        long deleted = 0;
+        int rows;
+        do {
+            rows = jdbcTemplate.update(sql, id, batchSize);
+            deleted += rows;
+        } while (rows == batchSize);
+        return deleted;
+    }
+}
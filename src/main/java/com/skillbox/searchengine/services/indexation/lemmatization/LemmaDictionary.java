@@ -0,0 +1,71 @@
+package com.skillbox.searchengine.services.indexation.lemmatization;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Словарь лемм сайта: каждой лемме присваивается целочисленный идентификатор.
+ * <p>
+ * Строка леммы хранится один раз, а счётчики страниц и сайта работают с идентификаторами
+ * в массивах примитивов. Идентификаторы выдаются подряд начиная с нуля, поэтому частоты
+ * лемм сайта хранятся в массиве, индексированном идентификатором.
+ * <p>
+ * Потокобезопасен: уже известные леммы находятся без блокировок,
+ * новая лемма добавляется под блокировкой словаря.
+ */
+public class LemmaDictionary {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private String[] lemmas = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Возвращает идентификатор леммы, при необходимости добавляя её в словарь.
+     *
+     * @param lemma Лемма.
+     * @return Идентификатор леммы.
+     */
+    public int intern(String lemma) {
+        Integer id = ids.get(lemma);
+        return id != null ? id : ids.computeIfAbsent(lemma, this::append);
+    }
+
+    /**
+     * Возвращает идентификатор леммы без добавления в словарь.
+     *
+     * @param lemma Лемма.
+     * @return Идентификатор леммы или -1, если лемма неизвестна.
+     */
+    public int find(String lemma) {
+        Integer id = ids.get(lemma);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Возвращает лемму по идентификатору.
+     *
+     * @param id Идентификатор леммы.
+     * @return Лемма.
+     */
+    public synchronized String getLemma(int id) {
+        return lemmas[id];
+    }
+
+    /**
+     * Возвращает количество лемм в словаре.
+     *
+     * @return Количество лемм.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized int append(String lemma) {
+        if (size == lemmas.length) {
+            lemmas = Arrays.copyOf(lemmas, size * 2);
+        }
+        lemmas[size] = lemma;
+        return size++;
+    }
+}
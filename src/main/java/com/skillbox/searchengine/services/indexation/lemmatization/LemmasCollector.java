@@ -1,56 +1,150 @@
 package com.skillbox.searchengine.services.indexation.lemmatization;
 
+import com.skillbox.searchengine.config.CrawlerSettings;
 import com.skillbox.searchengine.dto.indexing.DtoLemma;
-import com.skillbox.searchengine.model.PageEntity;
-import com.skillbox.searchengine.model.SiteEntity;
-import com.skillbox.searchengine.repository.PageRepository;
+import com.skillbox.searchengine.services.indexation.indexing.IndexBuilder;
 import com.skillbox.searchengine.utils.LemmaExtractor;
-import lombok.RequiredArgsConstructor;
+import com.skillbox.searchengine.utils.collections.IntIntHashMap;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Коллектор лемм, ответственный за сбор и агрегирование лемм с
  * нескольких страниц сайта.
  * <p>
- * Получает список страниц, нормализует их содержимое и
- * суммирует частоту повторения каждой леммы.
+ * Лемматизирует каждую страницу один раз — по мере сохранения страниц обходчиком
+ * или, при продолжении обхода, по текстам уже сохранённых страниц — и накапливает
+ * результат в {@link SiteLemmas}. Из накопленных данных строятся и частоты лемм сайта,
+ * и записи индекса ({@link IndexBuilder}).
+ * <p>
+ * Страницы лемматизируются параллельно в общем для всех сайтов {@link ForkJoinPool}:
+ * список страниц делится пополам, пока части не станут маленькими, каждая часть собирает
+ * свои леммы отдельно, а частичные результаты объединяются при возврате.
+ * {@link LemmaExtractor} не хранит состояния, кэш морфологии потокобезопасен,
+ * а словарь морфологии после загрузки только читается, поэтому общий экземпляр
+ * используется всеми потоками без блокировок.
+ * <p>
+ * Леммы подсчитываются без упаковки чисел: лемма заменяется идентификатором из общего
+ * для сайта {@link LemmaDictionary}, а количество лемм страницы считается в
+ * {@link IntIntHashMap}, который переиспользуется для всех страниц одной задачи.
  */
 @Component
-@RequiredArgsConstructor
 public class LemmasCollector {
 
-    private final PageRepository pageRepository;
+    /**
+     * Количество страниц, которые лемматизируются одной задачей без дальнейшего деления.
+     */
+    private static final int PAGES_PER_TASK = 4;
+    /**
+     * Ожидаемое количество разных лемм на странице.
+     */
+    private static final int LEMMAS_PER_PAGE = 512;
     private final LemmaExtractor lemmaExtractor;
+    private final ForkJoinPool lemmatizationPool;
+
+    @Autowired
+    public LemmasCollector(LemmaExtractor lemmaExtractor, CrawlerSettings crawlerSettings) {
+        this(lemmaExtractor, crawlerSettings.getLemmatizationThreads());
+    }
+
+    /**
+     * Создаёт коллектор лемм.
+     *
+     * @param lemmaExtractor Извлечение лемм из текста.
+     * @param threads        Количество потоков лемматизации; ноль или меньше — по числу процессоров.
+     */
+    public LemmasCollector(LemmaExtractor lemmaExtractor, int threads) {
+        this.lemmaExtractor = lemmaExtractor;
+        this.lemmatizationPool = new ForkJoinPool(threads > 0 ? threads
+                : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Лемматизирует сохранённые страницы и добавляет их леммы к леммам сайта.
+     * Страницы с ошибочным кодом ответа не учитываются.
+     *
+     * @param siteLemmas Леммы сайта.
+     * @param pages      Сохранённые страницы.
+     */
+    public void collectPages(SiteLemmas siteLemmas, List<StoredPageText> pages) {
+        if (pages.isEmpty()) {
+            return;
+        }
+        siteLemmas.addAll(lemmatizationPool.invoke(
+                new LemmatizationTask(siteLemmas.getDictionary(), pages, 0, pages.size())));
+    }
 
     /**
-     * Собирает и агрегирует леммы для заданного сайта.
+     * Возвращает леммы сайта с частотами.
      *
-     * @param siteEntity Сайт, для которого собирают леммы.
+     * @param siteLemmas Леммы, собранные со страниц сайта.
      * @return Список объектов DtoLemma, содержащих информацию о леммах и их частотах.
      */
-    public List<DtoLemma> extractLemmasForSite(SiteEntity siteEntity) {
+    public List<DtoLemma> extractLemmasForSite(SiteLemmas siteLemmas) {
+        LemmaDictionary dictionary = siteLemmas.getDictionary();
+        int lemmaCount = dictionary.size();
+        List<DtoLemma> dtoLemmas = new ArrayList<>(lemmaCount);
+        for (int lemmaId = 0; lemmaId < lemmaCount; lemmaId++) {
+            int frequency = siteLemmas.getFrequency(lemmaId);
+            if (frequency > 0) {
+                dtoLemmas.add(new DtoLemma(dictionary.getLemma(lemmaId), frequency));
+            }
+        }
+        return dtoLemmas;
+    }
 
-        Long siteId = siteEntity.getId();
-        List<PageEntity> pageEntities = pageRepository.findBySiteId(siteId);
-        HashMap<String, Integer> lemmasPerSite = new HashMap<>();
+    /**
+     * Останавливает потоки лемматизации.
+     */
+    @PreDestroy
+    public void shutdown() {
+        lemmatizationPool.shutdownNow();
+    }
 
-        for (PageEntity page : pageEntities) {
+    /**
+     * Лемматизация части списка страниц с собственным частичным результатом.
+     */
+    private class LemmatizationTask extends RecursiveTask<SiteLemmas> {
+        private final LemmaDictionary dictionary;
+        private final List<StoredPageText> pages;
+        private final int from;
+        private final int to;
 
-            String clearContent = lemmaExtractor.cleanHtml(page.getContent());
-            Map<String, Integer> lemmasOnPage = lemmaExtractor.collectLemmas(clearContent);
+        private LemmatizationTask(LemmaDictionary dictionary, List<StoredPageText> pages, int from, int to) {
+            this.dictionary = dictionary;
+            this.pages = pages;
+            this.from = from;
+            this.to = to;
+        }
 
-            for (Map.Entry<String, Integer> entry : lemmasOnPage.entrySet()) {
-                String lemma = entry.getKey();
-                lemmasPerSite.merge(lemma, 1, Integer::sum);
+        @Override
+        protected SiteLemmas compute() {
+            if (to - from <= PAGES_PER_TASK) {
+                SiteLemmas partial = new SiteLemmas(dictionary);
+                IntIntHashMap counts = new IntIntHashMap(LEMMAS_PER_PAGE);
+                for (int i = from; i < to; i++) {
+                    StoredPageText page = pages.get(i);
+                    if (page.getCode() < IndexBuilder.STATUS_CODE) {
+                        counts.clear();
+                        String text = page.getText() == null ? "" : page.getText();
+                        lemmaExtractor.forEachLemma(text, lemma -> counts.increment(dictionary.intern(lemma)));
+                        partial.addPage(PageLemmas.of(page.getId(), counts));
+                    }
+                }
+                return partial;
             }
+            int middle = (from + to) >>> 1;
+            LemmatizationTask right = new LemmatizationTask(dictionary, pages, middle, to);
+            right.fork();
+            SiteLemmas left = new LemmatizationTask(dictionary, pages, from, middle).compute();
+            left.addAll(right.join());
+            return left;
         }
-        return lemmasPerSite.entrySet().stream()
-                .map(entry -> new DtoLemma(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,32 @@
+package com.skillbox.searchengine.services.indexation.lemmatization;
+
+import com.skillbox.searchengine.utils.collections.IntIntHashMap;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Леммы одной страницы в компактном виде: идентификаторы лемм из {@link LemmaDictionary},
+ * упорядоченные по возрастанию, и количество каждой леммы на странице.
+ */
+@Getter
+@AllArgsConstructor
+public class PageLemmas {
+
+    private final long pageId;
+    private final int[] lemmaIds;
+    private final int[] counts;
+
+    /**
+     * Создаёт леммы страницы по подсчитанным количествам.
+     *
+     * @param pageId Идентификатор страницы.
+     * @param counts Количество каждой леммы на странице по её идентификатору.
+     * @return Леммы страницы.
+     */
+    public static PageLemmas of(long pageId, IntIntHashMap counts) {
+        int[] lemmaIds = new int[counts.size()];
+        int[] lemmaCounts = new int[counts.size()];
+        counts.toSortedArrays(lemmaIds, lemmaCounts);
+        return new PageLemmas(pageId, lemmaIds, lemmaCounts);
+    }
+}
@@ -0,0 +1,87 @@
+package com.skillbox.searchengine.services.indexation.lemmatization;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Леммы страниц сайта, собранные за один проход лемматизации.
+ * <p>
+ * Для каждой страницы хранится количество каждой её леммы, а для сайта — количество страниц,
+ * на которых встречается лемма. По этим данным сохраняются и леммы сайта, и записи индекса,
+ * поэтому каждая страница лемматизируется ровно один раз.
+ * <p>
+ * Леммы представлены идентификаторами общего для сайта {@link LemmaDictionary}:
+ * леммы страниц хранятся массивами ({@link PageLemmas}), а частоты лемм сайта — массивом,
+ * индексированным идентификатором леммы.
+ */
+@Getter
+public class SiteLemmas {
+
+    private final LemmaDictionary dictionary;
+    /**
+     * Леммы страниц в порядке добавления.
+     */
+    private final List<PageLemmas> pages = new ArrayList<>();
+    /**
+     * Количество страниц сайта, на которых встречается лемма, по её идентификатору.
+     */
+    private int[] siteFrequencies = new int[0];
+
+    public SiteLemmas() {
+        this(new LemmaDictionary());
+    }
+
+    /**
+     * Создаёт леммы страниц с заданным словарём лемм.
+     *
+     * @param dictionary Словарь лемм сайта.
+     */
+    public SiteLemmas(LemmaDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Добавляет леммы страницы.
+     *
+     * @param page Леммы страницы.
+     */
+    public void addPage(PageLemmas page) {
+        pages.add(page);
+        for (int lemmaId : page.getLemmaIds()) {
+            ensureCapacity(lemmaId + 1);
+            siteFrequencies[lemmaId]++;
+        }
+    }
+
+    /**
+     * Добавляет леммы страниц, собранные отдельно (например, другим потоком) с тем же словарём.
+     *
+     * @param other Леммы других страниц сайта.
+     */
+    public void addAll(SiteLemmas other) {
+        pages.addAll(other.pages);
+        ensureCapacity(other.siteFrequencies.length);
+        for (int i = 0; i < other.siteFrequencies.length; i++) {
+            siteFrequencies[i] += other.siteFrequencies[i];
+        }
+    }
+
+    /**
+     * Возвращает количество страниц сайта, на которых встречается лемма.
+     *
+     * @param lemmaId Идентификатор леммы.
+     * @return Частота леммы.
+     */
+    public int getFrequency(int lemmaId) {
+        return lemmaId < siteFrequencies.length ? siteFrequencies[lemmaId] : 0;
+    }
+
+    private void ensureCapacity(int length) {
+        if (length > siteFrequencies.length) {
+            siteFrequencies = Arrays.copyOf(siteFrequencies, Math.max(length, siteFrequencies.length * 2));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.skillbox.searchengine.services.indexation.lemmatization;
+
+import com.skillbox.searchengine.dto.indexing.PageText;
+import com.skillbox.searchengine.model.PageEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Сохранённая страница в объёме, необходимом для лемматизации: идентификатор, код ответа и текст.
+ */
+@Getter
+@AllArgsConstructor
+public class StoredPageText {
+
+    private final long id;
+    private final int code;
+    private final String text;
+
+    /**
+     * Берёт из сохранённой страницы данные для лемматизации.
+     *
+     * @param page Сохранённая страница.
+     * @return Данные страницы для лемматизации.
+     */
+    public static StoredPageText of(PageEntity page) {
+        return new StoredPageText(page.getId(), page.getCode(), page.getText());
+    }
+
+    /**
+     * Берёт из разобранного содержимого страницы данные для лемматизации.
+     *
+     * @param page Разобранное содержимое сохранённой страницы.
+     * @return Данные страницы для лемматизации.
+     */
+    public static StoredPageText of(PageText page) {
+        return new StoredPageText(page.getId(), page.getCode(), page.getText());
+    }
+}
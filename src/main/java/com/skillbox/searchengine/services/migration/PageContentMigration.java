@@ -0,0 +1,116 @@
+package com.skillbox.searchengine.services.migration;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.utils.MessageLogs;
+import com.skillbox.searchengine.utils.PageContentCodec;
+import com.skillbox.searchengine.utils.parsing.HtmlPageParser;
+import com.skillbox.searchengine.utils.parsing.ParsedPage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Перевод страниц, сохранённых в прежнем формате, на сжатое хранение HTML.
+ * <p>
+ * Раньше HTML страницы хранился несжатым в столбце {@code page.content}. При запуске приложения,
+ * если этот столбец ещё существует, страницы переносятся пачками: HTML сжимается в {@code content_gz},
+ * а текст, заголовок и ссылки извлекаются в отдельные столбцы, если их ещё нет.
+ * После переноса всех страниц прежний столбец удаляется, поэтому повторный запуск ничего не делает.
+ * Перенос можно прервать: при следующем запуске он продолжится с необработанных страниц.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PageContentMigration implements ApplicationRunner {
+
+    private static final String LEGACY_COLUMN_EXISTS = """
+            SELECT COUNT(*) FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'page' AND column_name = 'content'""";
+    private static final String SELECT_LEGACY_PAGES = """
+            SELECT p.id, p.content, p.text, p.path, s.url AS site_url
+            FROM page p JOIN site s ON s.id = p.site_id
+            WHERE p.content IS NOT NULL
+            LIMIT ?""";
+    private static final String UPDATE_PAGE = """
+            UPDATE page
+            SET content_gz = ?, title = COALESCE(title, ?), text = COALESCE(text, ?),
+                links = COALESCE(links, ?), content = NULL
+            WHERE id = ?""";
+    private final JdbcTemplate jdbcTemplate;
+    private final CrawlerSettings crawlerSettings;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer legacyColumns = jdbcTemplate.queryForObject(LEGACY_COLUMN_EXISTS, Integer.class);
+        if (legacyColumns == null || legacyColumns == 0) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE page MODIFY content MEDIUMTEXT NULL");
+
+        long startTime = System.nanoTime();
+        long pages = 0;
+        long htmlBytes = 0;
+        long compressedBytes = 0;
+        int batchSize = Math.max(1, crawlerSettings.getPageBatchSize());
+        List<LegacyPage> batch;
+        do {
+            batch = jdbcTemplate.query(SELECT_LEGACY_PAGES, (resultSet, rowNum) -> new LegacyPage(
+                    resultSet.getLong("id"), resultSet.getString("content"),
+                    resultSet.getString("text"),
+                    getPageUrl(resultSet.getString("site_url"), resultSet.getString("path"))), batchSize);
+            List<Object[]> updates = new ArrayList<>(batch.size());
+            for (LegacyPage page : batch) {
+                byte[] compressed = PageContentCodec.compress(page.getHtml());
+                ParsedPage parsedPage = page.getText() == null ? HtmlPageParser.parse(page.getHtml(), page.getUrl()) : null;
+                updates.add(new Object[]{compressed,
+                        parsedPage == null ? null : parsedPage.getTitle(),
+                        parsedPage == null ? null : parsedPage.getText(),
+                        parsedPage == null ? null : parsedPage.joinLinks(),
+                        page.getId()});
+                htmlBytes += page.getHtml().getBytes(StandardCharsets.UTF_8).length;
+                compressedBytes += compressed.length;
+            }
+            jdbcTemplate.batchUpdate(UPDATE_PAGE, updates);
+            pages += batch.size();
+        } while (batch.size() == batchSize);
+
+        jdbcTemplate.execute("ALTER TABLE page DROP COLUMN content");
+        log.info(MessageLogs.LOG_PAGE_CONTENT_MIGRATED, pages, htmlBytes / Math.max(1, pages),
+                compressedBytes / Math.max(1, pages), (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    /**
+     * Восстанавливает адрес страницы, относительно которого разрешаются её ссылки.
+     *
+     * @param siteUrl Адрес сайта.
+     * @param path    Путь страницы.
+     * @return Полный адрес страницы.
+     */
+    static String getPageUrl(String siteUrl, String path) {
+        if (siteUrl.endsWith("/") && path.startsWith("/")) {
+            return siteUrl + path.substring(1);
+        }
+        return siteUrl + path;
+    }
+
+    /**
+     * Страница в прежнем формате хранения.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class LegacyPage {
+        private final long id;
+        private final String html;
+        private final String text;
+        private final String url;
+    }
+}
@@ -13,9 +13,7 @@ import com.skillbox.searchengine.services.search.searchhelpers.PageFinder;
 import com.skillbox.searchengine.services.search.searchhelpers.RelevanceCalculator;
 import com.skillbox.searchengine.services.search.searchhelpers.SnippetGeneration;
 import com.skillbox.searchengine.services.search.searchhelpers.SortingLemmas;
-import com.skillbox.searchengine.utils.LemmaExtractor;
 import com.skillbox.searchengine.utils.MessageLogs;
-import com.skillbox.searchengine.utils.UrlHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -43,8 +41,6 @@ public class SearchServiceImpl implements SearchService {
     private final PageFinder pageFinder;
 
     private final SiteRepository siteRepository;
-    private final LemmaExtractor lemmaExtractor;
-    private final UrlHelper urlHelper;
     private final SortingLemmas sortingLemmas;
 
 
@@ -56,7 +52,7 @@ public class SearchServiceImpl implements SearchService {
         } else {
             List<SearchData> searchData;
             if (siteUrl != null) {
-                if (siteRepository.findByUrl(siteUrl) == null) {
+                if (siteRepository.findByUrlAndLiveTrue(siteUrl) == null) {
                     throw new PageOutsideConfigured();
 
                 } else {
@@ -127,7 +123,7 @@ public class SearchServiceImpl implements SearchService {
     public List<SearchData> oneSiteSearch(String query, String url) {
         log.info(MessageLogs.LOG_START_OneSITE_SEARCH, url, query);
 
-        SiteEntity siteEntity = siteRepository.findByUrl(url);
+        SiteEntity siteEntity = siteRepository.findByUrlAndLiveTrue(url);
 
         long siteId = siteEntity.getId();
 
@@ -164,14 +160,13 @@ public class SearchServiceImpl implements SearchService {
 
         for (PageEntity pageEntity : sortedPages.keySet()) {
             String uri = pageEntity.getPath();
-            String content = pageEntity.getContent();
-            String title = urlHelper.getTitleFromHtml(content);
+            String title = pageEntity.getTitle() == null ? "" : pageEntity.getTitle();
             SiteEntity siteEntity = pageEntity.getSiteId();
             String site = siteEntity.getUrl();
             String siteName = siteEntity.getName();
             Float absRelevance = sortedPages.get(pageEntity);
 
-            String clearContent = lemmaExtractor.cleanHtml(content);
+            String clearContent = pageEntity.getText() == null ? "" : pageEntity.getText();
             String snippet = snippetGeneration.getSnippet(clearContent, lemmasFromQuery);
 
             searchData.add(new SearchData(site, siteName, uri, title, snippet, absRelevance));
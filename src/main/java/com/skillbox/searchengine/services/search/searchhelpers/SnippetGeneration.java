@@ -6,8 +6,8 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Компонент, генерирующий отрывок текста (сниппет) с подчеркиванием релевантных слов.
@@ -31,13 +31,8 @@ public class SnippetGeneration {
      */
     public String getSnippet(String content, List<String> lemmasFromQuery) {
 
-        List<Integer> uniqueSortedIndices = lemmasFromQuery.stream()
-                .flatMap(lemma -> lemmaExtractor.findLemmaIndexInText(content, lemma).stream())
-                .distinct()
-                .sorted()
-                .filter(pos -> pos < content.length()
-                        && Character.isLetter(content.charAt(pos)))
-                .collect(Collectors.toList());
+        List<Integer> uniqueSortedIndices =
+                lemmaExtractor.findLemmaIndexesInText(content, new HashSet<>(lemmasFromQuery));
         List<String> wordsList = extractAndHighlightWordsByLemmaIndex(content, uniqueSortedIndices);
         StringBuilder result = new StringBuilder();
         wordsList.stream()
@@ -12,7 +12,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,8 +32,8 @@ public class StatisticsServiceImpl implements StatisticsService {
     @Override
     public StatisticsResponse getStatistics() {
 
-        TotalStatistics overallStatistics = getTotal();
         List<DetailedStatisticsItem> detailedStatistics = getStatisticData();
+        TotalStatistics overallStatistics = getTotal(detailedStatistics);
         StatisticsData statisticsData =
                 new StatisticsData(overallStatistics, detailedStatistics);
         boolean result = true;
@@ -36,10 +41,10 @@ public class StatisticsServiceImpl implements StatisticsService {
     }
 
 
-    private TotalStatistics getTotal() {
-        int sites = (int) siteRepository.count();
-        int pages = (int) pageRepository.count();
-        int lemmas = (int) lemmaRepository.count();
+    private TotalStatistics getTotal(List<DetailedStatisticsItem> detailedStatistics) {
+        int sites = detailedStatistics.size();
+        int pages = detailedStatistics.stream().mapToInt(DetailedStatisticsItem::getPages).sum();
+        int lemmas = detailedStatistics.stream().mapToInt(DetailedStatisticsItem::getLemmas).sum();
         boolean indexing = true;
         return new TotalStatistics(sites, pages, lemmas, indexing);
     }
@@ -56,9 +61,17 @@ public class StatisticsServiceImpl implements StatisticsService {
                 error, pages, lemmas);
     }
 
+    /**
+     * Статистика по сайтам: для каждого сайта берётся самое новое поколение индекса,
+     * чтобы во время переиндексации был виден ход построения, а не прежнее поколение.
+     */
     private List<DetailedStatisticsItem> getStatisticData() {
-        List<SiteEntity> siteEntities = siteRepository.findAll();
-        return siteEntities.stream()
+        Comparator<SiteEntity> byGeneration = Comparator.comparingInt(SiteEntity::getGeneration)
+                .thenComparingLong(SiteEntity::getId);
+        Map<String, SiteEntity> latestGenerations = siteRepository.findAll().stream()
+                .collect(Collectors.toMap(SiteEntity::getUrl, Function.identity(),
+                        BinaryOperator.maxBy(byGeneration), LinkedHashMap::new));
+        return latestGenerations.values().stream()
                 .map(this::getDetailed)
                 .collect(Collectors.toList());
     }
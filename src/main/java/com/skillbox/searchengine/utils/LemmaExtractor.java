@@ -1,17 +1,26 @@
 package com.skillbox.searchengine.utils;
 
+import com.skillbox.searchengine.utils.parsing.WordTokenizer;
 import lombok.RequiredArgsConstructor;
 import org.apache.lucene.morphology.russian.RussianLuceneMorphology;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
 
 /**
  * Компонент, ответственный за извлечение лемм из текста.
  * <p>
  * Включает методы для очистки текста от HTML-разметки,
  * морфологический анализ русских слов, сбор лемм и формирование статистики по словам.
+ * <p>
+ * Текст разбивается на слова за один проход ({@link WordTokenizer}); этот же проход
+ * используется и для подсчёта лемм, и для поиска положения лемм в тексте.
+ * <p>
+ * Служебные части речи отсеиваются по битовой маске {@link PartOfSpeech}.
+ * <p>
+ * Результат разбора каждой словоформы (лемма или отметка, что слово не учитывается)
+ * запоминается в общем {@link MorphologyCache}, поэтому частые слова не разбираются повторно.
  */
 @Component
 @RequiredArgsConstructor
@@ -19,26 +28,9 @@ public class LemmaExtractor {
 
 
     private final RussianLuceneMorphology russianLuceneMorphology;
+    private final MorphologyCache morphologyCache;
 
     public static final int MIN_LENGTH_WORD = 3;
-    public static final Pattern ONLY_RUSSIAN_LETTERS = Pattern.compile("[^а-яА-Я]");
-    /**
-     * Шаблон регулярного выражения для удаления HTML-тегов.
-     */
-    public static final Pattern TAG_PATTERN = Pattern.compile("<[^>]*>");
-    /**
-     * Шаблон для распознавания нежелательных символов в словах.
-     */
-    private static final Pattern WORD_TYPE_REGEX = Pattern.compile("\\W\\w&&[^а-яА-Я\\s]");
-    /**
-     * Шаблон для разделения текста на отдельные слова.
-     */
-    public static final String WORD_SPLIT_REGEX = "\\P{L}+";
-    /**
-     * Массив частиц русского языка, которые игнорируются при анализе.
-     */
-    private static final String[] PARTICLES_NAMES = new String[]{
-            "МЕЖД", "ПРЕДЛ", "СОЮЗ", "МС", "ЧАСТ", "ПРОЧЕЕ", "ВВОДН", "НАРЕЧ"};
 
 
     /**
@@ -48,135 +40,88 @@ public class LemmaExtractor {
      * @return Словарь, где ключ — лемма, а значение — частота её встречаемости.
      */
     public Map<String, Integer> collectLemmas(String text) {
-        String[] words = splitIntoWords(text);
         Map<String, Integer> lemmasCount = new HashMap<>();
-
-        for (String word : words) {
-            if (!isValidWord(word)) {
-                continue;
-            }
-
-            List<String> normalForms = russianLuceneMorphology.getNormalForms(word);
-            if (normalForms.isEmpty()) {
-                continue;
-            }
-
-            String lemma = normalForms.get(0);
-            lemmasCount.put(lemma, lemmasCount.getOrDefault(lemma, 0) + 1);
-        }
+        forEachLemma(text, lemma -> lemmasCount.merge(lemma, 1, Integer::sum));
         return lemmasCount;
     }
 
     /**
-     * Проверяет, является ли слово валидным для дальнейшего анализа.
+     * Передаёт потребителю лемму каждого учитываемого слова текста в порядке следования слов.
+     * В отличие от {@link #collectLemmas(String)} не создаёт словаря, поэтому подсчёт
+     * остаётся на стороне вызывающего кода.
      *
-     * @param word Анализируемое слово.
-     * @return true, если слово валидно, false — если нет.
+     * @param text     Исходный текст.
+     * @param consumer Потребитель лемм.
      */
-    private boolean isValidWord(String word) {
-
-        if (word.length() <= MIN_LENGTH_WORD) {
-            return false;
-        }
-
-        if (ONLY_RUSSIAN_LETTERS.matcher(word).find()) {
-            return false;
-        }
-
-        List<String> morphInfo = russianLuceneMorphology.getMorphInfo(word);
-        if (morphInfo.isEmpty()) {
-            return false;
-        }
-
-        if (anyWordBaseBelongToParticle(morphInfo)) {
-            return false;
-        }
-
-        for (String info : morphInfo) {
-            if (WORD_TYPE_REGEX.matcher(info).matches()) {
-                return false;
+    public void forEachLemma(String text, Consumer<String> consumer) {
+        WordTokenizer.tokenize(text, MIN_LENGTH_WORD, (word, start, end) -> {
+            String lemma = getLemma(word);
+            if (lemma != null) {
+                consumer.accept(lemma);
             }
-        }
-        return true;
+        });
     }
 
     /**
-     * Возвращает набор уникальных лемм из текста.
+     * Возвращает лемму слова.
      *
-     * @param text Исходный текст.
-     * @return Набор уникальных лемм.
+     * @param word Слово в нижнем регистре из русских букв.
+     * @return Лемма или null, если слово не учитывается.
      */
-    public Set<String> getLemmaSet(String text) {
-        Map<String, Integer> lemmasCount = collectLemmas(text);
-        return lemmasCount.keySet();
+    private String getLemma(String word) {
+        return morphologyCache.getLemma(word, this::analyzeWord);
     }
 
     /**
-     * Проверяет, принадлежат ли формы слова к частицам русского языка.
+     * Выполняет морфологический разбор слова.
      *
-     * @param wordBaseForms Список базовых форм слова.
-     * @return true, если одна из форм является частицей, false — если нет.
+     * @param word Слово в нижнем регистре из русских букв.
+     * @return Первая нормальная форма или null, если слово не учитывается.
      */
-    private boolean anyWordBaseBelongToParticle(List<String> wordBaseForms) {
-        return wordBaseForms.stream().anyMatch(this::hasParticleProperty);
-    }
-
-    /**
-     * Проверяет, содержит ли форма слова признаки частицы.
-     *
-     * @param wordBase Форма слова.
-     * @return true, если форма содержит признак частицы, false — если нет.
-     */
-    private boolean hasParticleProperty(String wordBase) {
-        for (String property : PARTICLES_NAMES) {
-            if (wordBase.toUpperCase().contains(property)) {
-                return true;
-            }
+    private String analyzeWord(String word) {
+        if (!isValidWord(word)) {
+            return null;
         }
-        return false;
+        List<String> normalForms = russianLuceneMorphology.getNormalForms(word);
+        return normalForms.isEmpty() ? null : normalForms.get(0);
     }
 
     /**
-     * Разбивает текст на отдельные слова.
+     * Проверяет, является ли слово валидным для дальнейшего анализа.
      *
-     * @param text Исходный текст.
-     * @return Массив слов.
+     * @param word Анализируемое слово.
+     * @return true, если слово валидно, false — если нет.
      */
-    private String[] splitIntoWords(String text) {
-        return text.toLowerCase(Locale.ROOT).split(WORD_SPLIT_REGEX);
+    private boolean isValidWord(String word) {
+        List<String> morphInfo = russianLuceneMorphology.getMorphInfo(word);
+        return !morphInfo.isEmpty() && (PartOfSpeech.maskOf(morphInfo) & PartOfSpeech.STOP_MASK) == 0;
     }
 
     /**
-     * Очищает текст от HTML-разметки.
+     * Возвращает набор уникальных лемм из текста.
      *
-     * @param html HTML-текст.
-     * @return Очищенный текст.
+     * @param text Исходный текст.
+     * @return Набор уникальных лемм.
      */
-    public String cleanHtml(String html) {
-        return TAG_PATTERN.matcher(html).replaceAll(" ").trim();
+    public Set<String> getLemmaSet(String text) {
+        Map<String, Integer> lemmasCount = collectLemmas(text);
+        return lemmasCount.keySet();
     }
 
     /**
-     * Находит все индексы, где встречается заданная лемма в тексте.
+     * Находит положения слов текста, леммы которых входят в заданный набор.
      *
-     * @param text  Исходный текст.
-     * @param lemma Лемма, позицию которой нужно найти.
-     * @return Список индексов, где встречается лемма.
+     * @param text   Исходный текст.
+     * @param lemmas Искомые леммы.
+     * @return Индексы первых символов найденных слов в порядке их следования в тексте.
      */
-    public List<Integer> findLemmaIndexInText(String text, String lemma) {
+    public List<Integer> findLemmaIndexesInText(String text, Collection<String> lemmas) {
         List<Integer> lemmaIndexList = new ArrayList<>();
-        String[] elements = text.toLowerCase(Locale.ROOT).split("\\p{Punct}|\\s");
-        int index = 0;
-        for (String element : elements) {
-            Set<String> lemmas = getLemmaSet(element);
-            for (String lem : lemmas) {
-                if (lem.equals(lemma)) {
-                    lemmaIndexList.add(index);
-                }
+        WordTokenizer.tokenize(text, MIN_LENGTH_WORD, (word, start, end) -> {
+            if (lemmas.contains(getLemma(word))) {
+                lemmaIndexList.add(start);
             }
-            index += element.length() + 1;
-        }
+        });
         return lemmaIndexList;
     }
 }
-
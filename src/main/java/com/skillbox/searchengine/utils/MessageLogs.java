@@ -4,12 +4,38 @@ public class MessageLogs {
 
     public static final String LOG_MALFORMED_URL_EXCEPTION = "Неверный URL: {}";
     public static final String LOG_CONNECTION_ERROR = "Ошибка подключения к URL: {}";
+    public static final String LOG_UNSUPPORTED_CONTENT_TYPE = "Страница {} не является HTML-документом: {}";
+    public static final String LOG_BODY_TRUNCATED = "Тело страницы {} больше {} байт и загружено не полностью";
+    public static final String LOG_RESOURCE_TOO_LARGE = "Ресурс {} больше {} байт и не загружается";
     public static final String LOG_INTERRUPT_EXCEPTION = "Процесс был прерван: {}";
     public static final String THE_FLOW_WAS_INTERRUPTED = "Поток был прерван.";
     public static final String LOG_HTML_PAGE_ERROR = "Ошибка при обработке страницы: {}";
+    public static final String LOG_PAGES_SAVED = "Сохранено страниц сайта {}: {}";
+    public static final String LOG_NEAR_DUPLICATE_PAGE = "Страница {} почти совпадает с {} и не сохраняется";
+    public static final String LOG_CHECKPOINT_SAVE_ERROR = "Не удалось сохранить контрольную точку обхода сайта {}";
+    public static final String LOG_CHECKPOINT_LOAD_ERROR = "Не удалось прочитать контрольную точку обхода сайта {}";
+    public static final String LOG_CRAWL_RESUMED = "Обход сайта {} продолжен с контрольной точки: ожидающих ссылок {}";
+    public static final String LOG_STALE_CHECKPOINT_DELETED = "Контрольная точка обхода сайта {} относится к действующему поколению индекса и удалена";
+    public static final String LOG_NOTHING_TO_RESUME = "Для сайта {} нет контрольной точки обхода, индексация не требуется";
+    public static final String LOG_SITEMAP_URLS_FOUND = "В картах сайта {} найдено ссылок: {}";
+    public static final String LOG_SITEMAP_ERROR = "Ошибка при разборе карты сайта {}";
+    public static final String LOG_SITEMAP_SEEDS = "Обход сайта {} начат с {} ссылок из карт сайта";
+    public static final String LOG_CRAWL_DELAY = "Сайт {} просит паузу между запросами {} с, частота запросов снижена до {} в секунду";
+    public static final String LOG_PAGE_CONTENT_MIGRATED = "HTML страниц переведён в сжатый формат: страниц {}, в среднем {} байт → {} байт, {} мс";
+    public static final String LOG_PAGE_STORAGE = "Страницы сайта {}: HTML в среднем {} байт, в сжатом виде {} байт, текст {} байт";
+    public static final String RESPONSE_DEADLINE_EXCEEDED = "Ответ сервера не получен целиком за отведённое время.";
+    public static final String UNSUPPORTED_CHECKPOINT_VERSION = "Неподдерживаемая версия контрольной точки обхода.";
+    public static final String LOG_NEAR_DUPLICATES_SKIPPED = "Пропущено почти одинаковых страниц сайта {}: {} из {}";
+    public static final String LOG_CRAWL_GOVERNOR_STATS = "Обход: сайтов {}, в очередях {}, загружается {} из {} ({}%), лемматизация {} из {}";
+    public static final String LOG_INDEX_GC_ACTIVITY = "Индексация сайта {} заняла {} мс: сборок мусора {} ({} мс), выделено памяти {} МБ";
+    public static final String LOG_SITE_PURGED = "Данные сайта {} удалены за {} мс: записей индекса {}, лемм {}, страниц {}";
+    public static final String LOG_GENERATION_ACTIVATED = "Сайт {}: поиск переключён на поколение индекса {}, прежних поколений к удалению: {}";
+    public static final String LOG_GENERATION_PURGE_FAILED = "Сайт {}: не удалось удалить прежнее поколение индекса {}, оно будет удалено при следующей полной индексации";
+    public static final String LOG_VIRTUAL_THREADS_UNAVAILABLE = "Виртуальные потоки недоступны, используется пул потоков.";
     public static final String INTERNAL_SERVER_ERROR = "INTERNAL SERVER ERROR.";
     public static final String INDEXING_IS_ALREADY_RUNNING = "Индексация уже запущена.";
     public static final String INDEXING_IS_NOT_RUNNING = "Индексация не запущена.";
+    public static final String UNKNOWN_INDEXING_MODE = "Неизвестный режим индексации.";
     public static final String INDEXATION_STOPPED_BY_USER = "Индексация остановлена пользователем.";
     public static final String ENTER_THE_ADDRESS = "Введите адрес.";
     public static final String NOT_FOUND_ON_REQUEST = "По вашему запросу ничего не найдено. Попробуйте изменить запрос.";
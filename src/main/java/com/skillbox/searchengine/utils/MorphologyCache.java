@@ -0,0 +1,119 @@
+package com.skillbox.searchengine.utils;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.dto.metrics.MorphologyCacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Ограниченный потокобезопасный кэш результатов морфологического разбора словоформ.
+ * <p>
+ * Для каждой словоформы хранится её лемма либо отметка, что слово не учитывается
+ * (служебная часть речи или неизвестное слово), поэтому частые слова разбираются
+ * один раз для всех страниц и всех потоков лемматизации.
+ * <p>
+ * Кэш разделён на сегменты по хешу словоформы; каждый сегмент вытесняет давно не использованные
+ * словоформы (LRU) и блокируется отдельно. Разбор при промахе выполняется вне блокировки.
+ */
+@Component
+public class MorphologyCache {
+
+    private static final int SEGMENT_COUNT = 16;
+    /**
+     * Отметка словоформы, для которой лемма не учитывается.
+     */
+    private static final String NO_LEMMA = "";
+    private final Segment[] segments;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public MorphologyCache(CrawlerSettings crawlerSettings) {
+        this(crawlerSettings.getMorphologyCacheCapacity());
+    }
+
+    /**
+     * Создаёт кэш заданной ёмкости.
+     *
+     * @param capacity Наибольшее количество словоформ; ноль отключает кэш.
+     */
+    public MorphologyCache(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.segments = new Segment[SEGMENT_COUNT];
+        int segmentCapacity = (this.capacity + SEGMENT_COUNT - 1) / SEGMENT_COUNT;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Возвращает лемму словоформы, разбирая её только при отсутствии в кэше.
+     *
+     * @param word     Словоформа в нижнем регистре.
+     * @param analyzer Разбор словоформы: возвращает лемму или null, если слово не учитывается.
+     * @return Лемма или null, если слово не учитывается.
+     */
+    public String getLemma(String word, Function<String, String> analyzer) {
+        if (capacity == 0) {
+            misses.increment();
+            return analyzer.apply(word);
+        }
+        Segment segment = segments[(word.hashCode() & Integer.MAX_VALUE) % SEGMENT_COUNT];
+        String cached = segment.get(word);
+        if (cached != null) {
+            hits.increment();
+            return cached == NO_LEMMA ? null : cached;
+        }
+        misses.increment();
+        String lemma = analyzer.apply(word);
+        segment.put(word, lemma == null ? NO_LEMMA : lemma);
+        return lemma;
+    }
+
+    /**
+     * Возвращает показатели кэша.
+     *
+     * @return Попадания, промахи, размер и ёмкость кэша.
+     */
+    public MorphologyCacheStats getStats() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return new MorphologyCacheStats(hits.sum(), misses.sum(), size, capacity);
+    }
+
+    /**
+     * Сегмент кэша, вытесняющий давно не использованные словоформы.
+     */
+    private static class Segment {
+        private final Map<String, String> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        private synchronized String get(String word) {
+            return entries.get(word);
+        }
+
+        private synchronized void put(String word, String lemma) {
+            entries.put(word, lemma);
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.skillbox.searchengine.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сжатие HTML-содержимого страниц для хранения в базе данных.
+ * <p>
+ * HTML хранится в формате gzip: размер страницы уменьшается в несколько раз,
+ * а содержимое при необходимости можно распаковать и вне приложения.
+ */
+public final class PageContentCodec {
+
+    private PageContentCodec() {
+    }
+
+    /**
+     * Сжимает HTML-содержимое страницы.
+     *
+     * @param html HTML-содержимое или null.
+     * @return Сжатое содержимое или null.
+     */
+    public static byte[] compress(String html) {
+        if (html == null) {
+            return null;
+        }
+        return compress(html.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Сжимает HTML-содержимое страницы, уже переведённое в UTF-8.
+     *
+     * @param bytes HTML-содержимое в кодировке UTF-8.
+     * @return Сжатое содержимое.
+     */
+    public static byte[] compress(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Распаковывает HTML-содержимое страницы.
+     *
+     * @param compressed Сжатое содержимое или null.
+     * @return HTML-содержимое или null.
+     */
+    public static String decompress(byte[] compressed) {
+        if (compressed == null) {
+            return null;
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.skillbox.searchengine.utils;
+
+import java.util.List;
+
+/**
+ * Части речи морфологического словаря (обозначения АОТ) и их классификация.
+ * <p>
+ * Каждой части речи соответствует один бит, поэтому набор частей речи всех форм слова
+ * собирается в одно число, а проверка на служебную часть речи сводится к одной проверке маски.
+ * Служебными считаются части речи, обозначение которых содержит один из признаков
+ * {@link #STOP_TAGS}; классификация вычисляется один раз при загрузке класса.
+ */
+public enum PartOfSpeech {
+    NOUN("С"),
+    ADJECTIVE("П"),
+    SHORT_ADJECTIVE("КР_ПРИЛ"),
+    VERB("Г"),
+    INFINITIVE("ИНФИНИТИВ"),
+    PARTICIPLE("ПРИЧАСТИЕ"),
+    SHORT_PARTICIPLE("КР_ПРИЧАСТИЕ"),
+    ADVERBIAL_PARTICIPLE("ДЕЕПРИЧАСТИЕ"),
+    NUMERAL("ЧИСЛ"),
+    ORDINAL_NUMERAL("ЧИСЛ-П"),
+    ADVERB("Н"),
+    PREDICATIVE("ПРЕДК"),
+    PRONOUN("МС"),
+    PRONOUN_ADJECTIVE("МС-П"),
+    PRONOUN_PREDICATIVE("МС-ПРЕДК"),
+    PREPOSITION("ПРЕДЛ"),
+    CONJUNCTION("СОЮЗ"),
+    INTERJECTION("МЕЖД"),
+    PARTICLE("ЧАСТ"),
+    PARENTHESIS("ВВОДН"),
+    PHRASE("ФРАЗ"),
+    OTHER("ПРОЧЕЕ"),
+    /**
+     * Обозначение, отсутствующее в словаре АОТ.
+     */
+    UNKNOWN("");
+
+    /**
+     * Признаки служебных частей речи, слова которых не учитываются при индексации.
+     */
+    public static final List<String> STOP_TAGS = List.of(
+            "МЕЖД", "ПРЕДЛ", "СОЮЗ", "МС", "ЧАСТ", "ПРОЧЕЕ", "ВВОДН", "НАРЕЧ");
+    /**
+     * Маска служебных частей речи.
+     */
+    public static final long STOP_MASK = computeStopMask();
+    private static final PartOfSpeech[] VALUES = values();
+    private final String tag;
+
+    PartOfSpeech(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * Возвращает бит части речи.
+     *
+     * @return Маска из одного бита.
+     */
+    public long mask() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Определяет часть речи по строке морфологической информации вида {@code слово|Аб С мр,ед,им}
+     * без создания промежуточных строк.
+     *
+     * @param morphInfo Строка морфологической информации.
+     * @return Часть речи или {@link #UNKNOWN}, если обозначение не распознано.
+     */
+    public static PartOfSpeech fromMorphInfo(String morphInfo) {
+        int bar = morphInfo.indexOf('|');
+        int start = morphInfo.indexOf(' ', bar + 1) + 1;
+        if (bar < 0 || start == 0) {
+            return UNKNOWN;
+        }
+        int end = morphInfo.indexOf(' ', start);
+        int length = (end < 0 ? morphInfo.length() : end) - start;
+        for (PartOfSpeech partOfSpeech : VALUES) {
+            String tag = partOfSpeech.tag;
+            if (tag.length() == length && morphInfo.regionMatches(start, tag, 0, length)) {
+                return partOfSpeech;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Собирает маску частей речи всех форм слова.
+     *
+     * @param morphInfo Морфологическая информация форм слова.
+     * @return Объединение битов частей речи.
+     */
+    public static long maskOf(List<String> morphInfo) {
+        long mask = 0;
+        for (String info : morphInfo) {
+            mask |= fromMorphInfo(info).mask();
+        }
+        return mask;
+    }
+
+    private static long computeStopMask() {
+        long mask = 0;
+        for (PartOfSpeech partOfSpeech : values()) {
+            if (STOP_TAGS.stream().anyMatch(stopTag -> !partOfSpeech.tag.isEmpty()
+                    && partOfSpeech.tag.contains(stopTag))) {
+                mask |= partOfSpeech.mask();
+            }
+        }
+        return mask;
+    }
+}
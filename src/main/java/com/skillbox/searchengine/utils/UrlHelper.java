@@ -1,13 +1,11 @@
 package com.skillbox.searchengine.utils;
 
-import com.skillbox.searchengine.config.ConnectionToSite;
+import com.skillbox.searchengine.utils.fetching.FetchedPage;
+import com.skillbox.searchengine.utils.fetching.PageFetcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Optional;
@@ -22,29 +20,45 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UrlHelper {
 
-    private final ConnectionToSite connectionToSite;
+    private final PageFetcher pageFetcher;
 
     /**
-     * Открывает соединение к указанному URL и возвращает HTML-документ.
+     * Загружает страницу по указанному URL через настроенный {@link PageFetcher}.
      *
-     * @param url URL сайта.
-     * @return Опциональный объект Document, содержащий HTML-документ,
-     * или empty, если произошел IO-ошибка.
+     * @param url URL страницы.
+     * @return Загруженная страница с кодом ответа и HTML-документом
+     * или empty, если страницу не удалось получить.
      */
-    public Optional<Document> getConnection(String url) {
-        try {
-            return Optional.of(Jsoup.connect(url)
-                    .userAgent(connectionToSite.getUserAgent())
-                    .referrer(connectionToSite.getReferrer())
-                    .get());
-        } catch (IOException e) {
-            log.error(MessageLogs.LOG_CONNECTION_ERROR, url, e);
-            return Optional.empty();
-        }
+    public Optional<FetchedPage> fetchPage(String url) {
+        return pageFetcher.fetch(url);
     }
 
     /**
-     * Извлекает путь (часть URL после хоста) из заданного URL.
+     * Загружает страницу условным запросом с валидаторами предыдущей загрузки.
+     *
+     * @param url          URL страницы.
+     * @param etag         ETag предыдущей загрузки или null.
+     * @param lastModified Last-Modified предыдущей загрузки или null.
+     * @return Загруженная страница (с кодом 304, если она не изменилась)
+     * или empty, если страницу не удалось получить.
+     */
+    public Optional<FetchedPage> fetchPage(String url, String etag, String lastModified) {
+        return pageFetcher.fetch(url, etag, lastModified);
+    }
+
+    /**
+     * Загружает тело ответа без разбора (robots.txt, sitemap.xml).
+     *
+     * @param url URL ресурса.
+     * @return Тело ответа или empty, если ресурс не удалось получить.
+     */
+    public Optional<byte[]> fetchResource(String url) {
+        return pageFetcher.fetchResource(url);
+    }
+
+    /**
+     * Извлекает путь (часть URL после хоста) вместе со строкой запроса из заданного URL.
+     * Страницы, различающиеся только параметрами запроса, получают разные пути.
      *
      * @param page URL страницы.
      * @return Путь страницы или пустая строка, если URL неверный.
@@ -52,7 +66,7 @@ public class UrlHelper {
     public String getPathToPage(String page) {
         try {
             URL url = new URL(page);
-            return url.getPath();
+            return url.getFile();
         } catch (MalformedURLException e) {
             log.error(MessageLogs.LOG_MALFORMED_URL_EXCEPTION, page);
             return "";
@@ -75,15 +89,4 @@ public class UrlHelper {
         }
     }
 
-    /**
-     * Извлекает заголовок (title) из HTML-контента.
-     *
-     * @param content HTML-контент страницы.
-     * @return Заголовок страницы.
-     */
-    public String getTitleFromHtml(String content) {
-        Document doc = Jsoup.parse(content);
-        return doc.title();
-    }
-
 }
@@ -0,0 +1,137 @@
+package com.skillbox.searchengine.utils.collections;
+
+import java.util.Arrays;
+
+/**
+ * Словарь {@code int -> int} с открытой адресацией и линейным пробированием.
+ * <p>
+ * Ключи и значения хранятся в двух массивах примитивов, поэтому подсчёт не создаёт объектов
+ * на каждое обращение, а после {@link #clear()} словарь переиспользуется без новых выделений памяти.
+ * Ключи должны быть неотрицательными. Не потокобезопасен.
+ */
+public class IntIntHashMap {
+
+    private static final int EMPTY = -1;
+    private static final int MIN_CAPACITY = 16;
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Создаёт словарь под заданное количество ключей.
+     *
+     * @param expectedSize Ожидаемое количество ключей.
+     */
+    public IntIntHashMap(int expectedSize) {
+        allocate(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1));
+    }
+
+    /**
+     * Увеличивает значение ключа на единицу; отсутствующий ключ добавляется со значением 1.
+     *
+     * @param key Неотрицательный ключ.
+     */
+    public void increment(int key) {
+        addTo(key, 1);
+    }
+
+    /**
+     * Прибавляет величину к значению ключа; отсутствующий ключ добавляется со значением {@code delta}.
+     *
+     * @param key   Неотрицательный ключ.
+     * @param delta Прибавляемая величина.
+     */
+    public void addTo(int key, int delta) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    /**
+     * Возвращает значение ключа.
+     *
+     * @param key Неотрицательный ключ.
+     * @return Значение или 0, если ключа нет.
+     */
+    public int get(int key) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет все ключи, сохраняя выделенные массивы.
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+    }
+
+    /**
+     * Возвращает ключи, упорядоченные по возрастанию, и их значения.
+     *
+     * @param sortedKeys Массив длиной {@link #size()} для ключей.
+     * @param keyValues  Массив длиной {@link #size()} для значений в порядке ключей.
+     */
+    public void toSortedArrays(int[] sortedKeys, int[] keyValues) {
+        int index = 0;
+        for (int key : keys) {
+            if (key != EMPTY) {
+                sortedKeys[index++] = key;
+            }
+        }
+        Arrays.sort(sortedKeys, 0, size);
+        for (int i = 0; i < size; i++) {
+            keyValues[i] = get(sortedKeys[i]);
+        }
+    }
+
+    private int slot(int key) {
+        return (key * 0x9E3779B9 >>> 16 ^ key) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.skillbox.searchengine.utils.fetching;
+
+/**
+ * Тело ответа, загруженное с ограничением размера ({@link BoundedBodySubscriber}).
+ *
+ * @param bytes     Загруженные байты тела.
+ * @param truncated true, если тело больше ограничения и загружено не полностью.
+ */
+record BoundedBody(byte[] bytes, boolean truncated) {
+}
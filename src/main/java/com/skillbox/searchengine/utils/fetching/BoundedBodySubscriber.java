@@ -0,0 +1,79 @@
+package com.skillbox.searchengine.utils.fetching;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Приёмник тела ответа {@link java.net.http.HttpClient} с ограничением размера.
+ * <p>
+ * Принимает не больше {@code limit} байт. Как только тело превышает ограничение,
+ * подписка отменяется и остаток тела не загружается, а результат помечается усечённым.
+ * С нулевым ограничением тело не загружается совсем.
+ */
+class BoundedBodySubscriber implements HttpResponse.BodySubscriber<BoundedBody> {
+
+    private static final int INITIAL_CAPACITY = 8192;
+    private final int limit;
+    private final ByteArrayOutputStream out;
+    private final CompletableFuture<BoundedBody> result = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+
+    /**
+     * Создаёт приёмник тела.
+     *
+     * @param limit Наибольшее количество загружаемых байт.
+     */
+    BoundedBodySubscriber(int limit) {
+        this.limit = Math.max(0, limit);
+        this.out = new ByteArrayOutputStream(Math.min(this.limit, INITIAL_CAPACITY));
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (limit == 0) {
+            subscription.cancel();
+            result.complete(new BoundedBody(new byte[0], false));
+            return;
+        }
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        if (result.isDone()) {
+            return;
+        }
+        for (ByteBuffer buffer : buffers) {
+            int length = Math.min(buffer.remaining(), limit - out.size());
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            out.write(bytes, 0, length);
+            if (buffer.hasRemaining()) {
+                subscription.cancel();
+                result.complete(new BoundedBody(out.toByteArray(), true));
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        result.complete(new BoundedBody(out.toByteArray(), false));
+    }
+
+    @Override
+    public CompletionStage<BoundedBody> getBody() {
+        return result;
+    }
+}
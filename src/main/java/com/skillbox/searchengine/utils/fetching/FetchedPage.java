@@ -0,0 +1,46 @@
+package com.skillbox.searchengine.utils.fetching;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.jsoup.nodes.Document;
+
+/**
+ * Результат загрузки страницы: код ответа сервера, разобранный HTML-документ
+ * и валидаторы (ETag, Last-Modified) для последующих условных запросов.
+ * Для ответа 304 (страница не изменилась) документ отсутствует.
+ */
+@Getter
+@AllArgsConstructor
+public class FetchedPage {
+
+    /**
+     * Код ответа, начиная с которого страница считается ошибочной.
+     */
+    public static final int ERROR_STATUS_CODE = 400;
+    /**
+     * Код ответа на условный запрос, если страница не изменилась.
+     */
+    public static final int NOT_MODIFIED_STATUS_CODE = 304;
+    private int statusCode;
+    private Document document;
+    private String etag;
+    private String lastModified;
+
+    /**
+     * Проверяет, что сервер вернул страницу без ошибки.
+     *
+     * @return true, если код ответа меньше 400.
+     */
+    public boolean isSuccessful() {
+        return statusCode < ERROR_STATUS_CODE;
+    }
+
+    /**
+     * Проверяет, что страница не изменилась с момента предыдущей загрузки.
+     *
+     * @return true, если сервер ответил 304.
+     */
+    public boolean isNotModified() {
+        return statusCode == NOT_MODIFIED_STATUS_CODE;
+    }
+}
@@ -0,0 +1,215 @@
+package com.skillbox.searchengine.utils.fetching;
+
+import com.skillbox.searchengine.config.ConnectionToSite;
+import com.skillbox.searchengine.utils.MessageLogs;
+import com.skillbox.searchengine.utils.metrics.CrawlerMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Загрузчик страниц на основе одного общего {@link HttpClient}.
+ * <p>
+ * Клиент переиспользует соединения (keep-alive), мультиплексирует запросы по HTTP/2,
+ * если сервер его поддерживает, и работает на неблокирующем вводе-выводе,
+ * поэтому число соединений не зависит от числа потоков обходчика.
+ * Тело ответа передаётся в Jsoup только для разбора.
+ * <p>
+ * Тип содержимого проверяется по заголовкам: тело не-HTML ответа не загружается.
+ * Тело страницы загружается не больше {@code maxBodySizeBytes} байт, а ответ целиком,
+ * вместе с телом, должен быть получен за {@code readTimeoutMillis}, иначе запрос отменяется.
+ * <p>
+ * Время до получения заголовков, время загрузки тела и время разбора замеряются отдельно
+ * и учитываются в {@link CrawlerMetrics}.
+ */
+@Slf4j
+public class HttpClientPageFetcher implements PageFetcher {
+
+    private final ConnectionToSite connectionToSite;
+    private final HttpClient httpClient;
+    private final CrawlerMetrics crawlerMetrics;
+
+    public HttpClientPageFetcher(ConnectionToSite connectionToSite) {
+        this(connectionToSite, new CrawlerMetrics());
+    }
+
+    public HttpClientPageFetcher(ConnectionToSite connectionToSite, CrawlerMetrics crawlerMetrics) {
+        this.connectionToSite = connectionToSite;
+        this.crawlerMetrics = crawlerMetrics;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(connectionToSite.getConnectTimeoutMillis()))
+                .build();
+    }
+
+    @Override
+    public Optional<FetchedPage> fetch(String url, String etag, String lastModified) {
+        try {
+            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofMillis(connectionToSite.getReadTimeoutMillis()))
+                    .header(HttpHeaders.USER_AGENT, connectionToSite.getUserAgent())
+                    .header(HttpHeaders.REFERER, connectionToSite.getReferrer())
+                    .GET();
+            if (etag != null) {
+                requestBuilder.header(HttpHeaders.IF_NONE_MATCH, etag);
+            }
+            if (lastModified != null) {
+                requestBuilder.header(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+            long startNanos = System.nanoTime();
+            AtomicLong ttfbNanos = new AtomicLong();
+            HttpResponse<BoundedBody> response = send(requestBuilder.build(), responseInfo -> {
+                ttfbNanos.set(System.nanoTime() - startNanos);
+                boolean html = responseInfo.statusCode() != FetchedPage.NOT_MODIFIED_STATUS_CODE
+                        && isHtml(getContentType(responseInfo.headers()));
+                return new BoundedBodySubscriber(html ? connectionToSite.getMaxBodySizeBytes() : 0);
+            });
+            BoundedBody body = response.body();
+            crawlerMetrics.recordResponse(url, response.statusCode(), ttfbNanos.get(),
+                    System.nanoTime() - startNanos, body.bytes().length);
+
+            String newEtag = response.headers().firstValue(HttpHeaders.ETAG).orElse(null);
+            String newLastModified = response.headers()
+                    .firstValue(HttpHeaders.LAST_MODIFIED).orElse(null);
+            if (response.statusCode() == FetchedPage.NOT_MODIFIED_STATUS_CODE) {
+                return Optional.of(new FetchedPage(response.statusCode(), null,
+                        newEtag != null ? newEtag : etag,
+                        newLastModified != null ? newLastModified : lastModified));
+            }
+
+            String contentType = getContentType(response.headers());
+            if (!isHtml(contentType)) {
+                log.debug(MessageLogs.LOG_UNSUPPORTED_CONTENT_TYPE, url, contentType);
+                return Optional.empty();
+            }
+            if (body.truncated()) {
+                log.debug(MessageLogs.LOG_BODY_TRUNCATED, url, connectionToSite.getMaxBodySizeBytes());
+            }
+            long parseStartNanos = System.nanoTime();
+            Document document = Jsoup.parse(new ByteArrayInputStream(body.bytes()),
+                    getCharset(contentType), response.uri().toString());
+            crawlerMetrics.recordParse(url, System.nanoTime() - parseStartNanos);
+            return Optional.of(new FetchedPage(response.statusCode(), document,
+                    newEtag, newLastModified));
+        } catch (IOException | IllegalArgumentException e) {
+            crawlerMetrics.recordFetchError(url, e);
+            log.error(MessageLogs.LOG_CONNECTION_ERROR, url, e);
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error(MessageLogs.LOG_INTERRUPT_EXCEPTION, url, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<byte[]> fetchResource(String url) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofMillis(connectionToSite.getReadTimeoutMillis()))
+                    .header(HttpHeaders.USER_AGENT, connectionToSite.getUserAgent())
+                    .header(HttpHeaders.REFERER, connectionToSite.getReferrer())
+                    .GET()
+                    .build();
+            HttpResponse<BoundedBody> response = send(request, responseInfo ->
+                    new BoundedBodySubscriber(responseInfo.statusCode() >= FetchedPage.ERROR_STATUS_CODE
+                            ? 0 : connectionToSite.getMaxResourceSizeBytes()));
+            if (response.statusCode() >= FetchedPage.ERROR_STATUS_CODE) {
+                return Optional.empty();
+            }
+            if (response.body().truncated()) {
+                log.warn(MessageLogs.LOG_RESOURCE_TOO_LARGE, url, connectionToSite.getMaxResourceSizeBytes());
+                return Optional.empty();
+            }
+            return Optional.of(response.body().bytes());
+        } catch (IOException | IllegalArgumentException e) {
+            log.error(MessageLogs.LOG_CONNECTION_ERROR, url, e);
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error(MessageLogs.LOG_INTERRUPT_EXCEPTION, url, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Отправляет запрос и ждёт ответ целиком не дольше {@code readTimeoutMillis}.
+     * Если ответ не получен вовремя или поток прерван, запрос отменяется.
+     *
+     * @param request     Запрос.
+     * @param bodyHandler Обработчик тела ответа.
+     * @return Ответ сервера.
+     * @throws IOException          если запрос не удался или не уложился в отведённое время.
+     * @throws InterruptedException если поток был прерван.
+     */
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        CompletableFuture<HttpResponse<T>> future = httpClient.sendAsync(request, bodyHandler);
+        try {
+            return future.get(connectionToSite.getReadTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HttpTimeoutException(MessageLogs.RESPONSE_DEADLINE_EXCEEDED);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof IllegalArgumentException illegalArgumentException) {
+                throw illegalArgumentException;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static String getContentType(java.net.http.HttpHeaders headers) {
+        return headers.firstValue(HttpHeaders.CONTENT_TYPE).orElse("");
+    }
+
+    /**
+     * Проверяет, что ответ является HTML- или XML-документом (как это делает Jsoup).
+     *
+     * @param contentType Значение заголовка Content-Type.
+     * @return true, если ответ можно разобрать как HTML.
+     */
+    private static boolean isHtml(String contentType) {
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.isEmpty() || type.startsWith("text/") || type.contains("xml");
+    }
+
+    /**
+     * Извлекает кодировку из заголовка Content-Type.
+     *
+     * @param contentType Значение заголовка Content-Type.
+     * @return Название кодировки или null, чтобы Jsoup определил её по документу.
+     */
+    private static String getCharset(String contentType) {
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index < 0) {
+            return null;
+        }
+        String charset = contentType.substring(index + "charset=".length()).trim();
+        int end = charset.indexOf(';');
+        return (end >= 0 ? charset.substring(0, end) : charset).replace("\"", "").trim();
+    }
+}
@@ -0,0 +1,99 @@
+package com.skillbox.searchengine.utils.fetching;
+
+import com.skillbox.searchengine.config.ConnectionToSite;
+import com.skillbox.searchengine.utils.MessageLogs;
+import com.skillbox.searchengine.utils.metrics.CrawlerMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Загрузчик страниц, открывающий новое соединение Jsoup для каждой страницы.
+ * <p>
+ * Время до получения заголовков, время загрузки тела и время разбора замеряются отдельно
+ * и учитываются в {@link CrawlerMetrics}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JsoupPageFetcher implements PageFetcher {
+
+    private final ConnectionToSite connectionToSite;
+    private final CrawlerMetrics crawlerMetrics;
+
+    public JsoupPageFetcher(ConnectionToSite connectionToSite) {
+        this(connectionToSite, new CrawlerMetrics());
+    }
+
+    @Override
+    public Optional<FetchedPage> fetch(String url, String etag, String lastModified) {
+        try {
+            Connection connection = Jsoup.connect(url)
+                    .userAgent(connectionToSite.getUserAgent())
+                    .referrer(connectionToSite.getReferrer())
+                    .timeout(connectionToSite.getReadTimeoutMillis())
+                    .maxBodySize(connectionToSite.getMaxBodySizeBytes())
+                    .ignoreHttpErrors(true);
+            if (etag != null) {
+                connection.header(HttpHeaders.IF_NONE_MATCH, etag);
+            }
+            if (lastModified != null) {
+                connection.header(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+            long startNanos = System.nanoTime();
+            Connection.Response response = connection.execute();
+            long ttfbNanos = System.nanoTime() - startNanos;
+            response.bufferUp();
+            crawlerMetrics.recordResponse(url, response.statusCode(), ttfbNanos,
+                    System.nanoTime() - startNanos, response.bodyAsBytes().length);
+            String newEtag = response.header(HttpHeaders.ETAG);
+            String newLastModified = response.header(HttpHeaders.LAST_MODIFIED);
+            if (response.statusCode() == FetchedPage.NOT_MODIFIED_STATUS_CODE) {
+                return Optional.of(new FetchedPage(response.statusCode(), null,
+                        newEtag != null ? newEtag : etag,
+                        newLastModified != null ? newLastModified : lastModified));
+            }
+            long parseStartNanos = System.nanoTime();
+            Document document = response.parse();
+            crawlerMetrics.recordParse(url, System.nanoTime() - parseStartNanos);
+            return Optional.of(new FetchedPage(response.statusCode(), document,
+                    newEtag, newLastModified));
+        } catch (IOException e) {
+            crawlerMetrics.recordFetchError(url, e);
+            log.error(MessageLogs.LOG_CONNECTION_ERROR, url, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<byte[]> fetchResource(String url) {
+        int maxResourceSize = connectionToSite.getMaxResourceSizeBytes();
+        try {
+            Connection.Response response = Jsoup.connect(url)
+                    .userAgent(connectionToSite.getUserAgent())
+                    .referrer(connectionToSite.getReferrer())
+                    .timeout(connectionToSite.getReadTimeoutMillis())
+                    .ignoreHttpErrors(true)
+                    .ignoreContentType(true)
+                    .maxBodySize((int) Math.min((long) maxResourceSize + 1, Integer.MAX_VALUE))
+                    .execute();
+            if (response.statusCode() >= FetchedPage.ERROR_STATUS_CODE) {
+                return Optional.empty();
+            }
+            byte[] body = response.bodyAsBytes();
+            if (body.length > maxResourceSize) {
+                log.warn(MessageLogs.LOG_RESOURCE_TOO_LARGE, url, maxResourceSize);
+                return Optional.empty();
+            }
+            return Optional.of(body);
+        } catch (IOException e) {
+            log.error(MessageLogs.LOG_CONNECTION_ERROR, url, e);
+            return Optional.empty();
+        }
+    }
+}
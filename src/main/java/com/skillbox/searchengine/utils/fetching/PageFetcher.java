@@ -0,0 +1,42 @@
+package com.skillbox.searchengine.utils.fetching;
+
+import java.util.Optional;
+
+/**
+ * Загрузчик HTML-страниц по адресу.
+ */
+public interface PageFetcher {
+
+    /**
+     * Загружает и разбирает страницу.
+     *
+     * @param url Адрес страницы.
+     * @return Загруженная страница или empty, если страницу не удалось получить
+     * либо она не является HTML-документом.
+     */
+    default Optional<FetchedPage> fetch(String url) {
+        return fetch(url, null, null);
+    }
+
+    /**
+     * Загружает страницу условным запросом (If-None-Match / If-Modified-Since).
+     *
+     * @param url          Адрес страницы.
+     * @param etag         ETag предыдущей загрузки или null.
+     * @param lastModified Last-Modified предыдущей загрузки или null.
+     * @return Загруженная страница (с кодом 304 и без документа, если она не изменилась)
+     * или empty, если страницу не удалось получить либо она не является HTML-документом.
+     */
+    Optional<FetchedPage> fetch(String url, String etag, String lastModified);
+
+    /**
+     * Загружает тело ответа без разбора, независимо от типа содержимого
+     * (robots.txt, sitemap.xml). Ресурс больше {@code maxResourceSizeBytes} не загружается:
+     * разбор обрезанной карты сайта дал бы неполный список ссылок.
+     *
+     * @param url Адрес ресурса.
+     * @return Тело ответа или empty, если ресурс не удалось получить, сервер вернул ошибку
+     * или ресурс слишком велик.
+     */
+    Optional<byte[]> fetchResource(String url);
+}
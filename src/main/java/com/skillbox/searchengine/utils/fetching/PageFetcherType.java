@@ -0,0 +1,15 @@
+package com.skillbox.searchengine.utils.fetching;
+
+/**
+ * Реализация загрузчика страниц.
+ */
+public enum PageFetcherType {
+    /**
+     * Новое соединение Jsoup на каждую страницу.
+     */
+    JSOUP,
+    /**
+     * Общий {@link java.net.http.HttpClient} с пулом соединений и HTTP/2.
+     */
+    HTTP_CLIENT
+}
@@ -0,0 +1,190 @@
+package com.skillbox.searchengine.utils.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Показатели загрузки страниц обходчиком в {@link MeterRegistry} (доступны через Actuator,
+ * {@code /actuator/metrics}).
+ * <p>
+ * Для каждого хоста (тег {@code host}) учитываются таймеры полного времени загрузки
+ * ({@code crawler.fetch.latency}), времени до первого байта ({@code crawler.fetch.ttfb})
+ * и времени разбора ({@code crawler.fetch.parse}) с перцентилями, объём тел ответов
+ * ({@code crawler.fetch.bytes}), ответы по кодам статуса ({@code crawler.fetch.responses}, тег {@code status})
+ * и ошибки по типам исключений ({@code crawler.fetch.errors}, тег {@code exception}).
+ * Для каждого обходимого сайта на время обхода регистрируется размер учёта ссылок
+ * ({@code crawler.frontier.size}, тег {@code site}), для всего обходчика — количество обработанных
+ * страниц ({@code crawler.pages.processed}) и ошибки обработки ({@code crawler.processing.errors}).
+ */
+@Component
+public class CrawlerMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+    private static final String UNKNOWN_HOST = "unknown";
+    private final MeterRegistry registry;
+    private final Map<String, HostMeters> hosts = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> frontierGauges = new ConcurrentHashMap<>();
+    private final Counter processedPages;
+
+    /**
+     * Создаёт показатели в собственном реестре (для загрузчиков, созданных вне контекста Spring).
+     */
+    public CrawlerMetrics() {
+        this(new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public CrawlerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.processedPages = Counter.builder("crawler.pages.processed")
+                .description("Обработанные страницы")
+                .register(registry);
+    }
+
+    /**
+     * Учитывает полученный ответ.
+     *
+     * @param url        Адрес страницы.
+     * @param statusCode Код статуса ответа.
+     * @param ttfbNanos  Время от отправки запроса до получения заголовков ответа.
+     * @param totalNanos Время от отправки запроса до получения всего тела ответа.
+     * @param bytes      Размер тела ответа.
+     */
+    public void recordResponse(String url, int statusCode, long ttfbNanos, long totalNanos, long bytes) {
+        String host = getHost(url);
+        HostMeters meters = meters(host);
+        meters.timeToFirstByte.record(ttfbNanos, TimeUnit.NANOSECONDS);
+        meters.latency.record(totalNanos, TimeUnit.NANOSECONDS);
+        meters.responseBytes.record(bytes);
+        Counter.builder("crawler.fetch.responses")
+                .tag("host", host)
+                .tag("status", String.valueOf(statusCode))
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Учитывает время разбора загруженной страницы.
+     *
+     * @param url   Адрес страницы.
+     * @param nanos Время разбора.
+     */
+    public void recordParse(String url, long nanos) {
+        meters(getHost(url)).parseTime.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Учитывает неудачную загрузку страницы.
+     *
+     * @param url       Адрес страницы.
+     * @param exception Исключение, которым завершилась загрузка.
+     */
+    public void recordFetchError(String url, Throwable exception) {
+        Counter.builder("crawler.fetch.errors")
+                .tag("host", getHost(url))
+                .tag("exception", exception.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Учитывает ошибку обработки уже загруженной страницы.
+     *
+     * @param exception Исключение, которым завершилась обработка.
+     */
+    public void recordProcessingError(Throwable exception) {
+        Counter.builder("crawler.processing.errors")
+                .tag("exception", exception.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Отмечает завершение обработки одной страницы.
+     */
+    public void recordPageProcessed() {
+        processedPages.increment();
+    }
+
+    /**
+     * Регистрирует источник размера учёта ссылок сайта на время его обхода.
+     *
+     * @param site         Адрес сайта.
+     * @param frontierSize Источник количества ссылок, ожидающих обработки.
+     */
+    public void registerFrontier(String site, IntSupplier frontierSize) {
+        Gauge gauge = Gauge.builder("crawler.frontier.size", frontierSize::getAsInt)
+                .description("Ссылки, ожидающие обработки")
+                .tag("site", site)
+                .strongReference(true)
+                .register(registry);
+        frontierGauges.put(site, gauge);
+    }
+
+    /**
+     * Снимает с учёта размер учёта ссылок сайта после завершения обхода.
+     *
+     * @param site Адрес сайта.
+     */
+    public void removeFrontier(String site) {
+        Gauge gauge = frontierGauges.remove(site);
+        if (gauge != null) {
+            registry.remove(gauge);
+        }
+    }
+
+    private HostMeters meters(String host) {
+        return hosts.computeIfAbsent(host, key -> new HostMeters(registry, key));
+    }
+
+    private static String getHost(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : UNKNOWN_HOST;
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN_HOST;
+        }
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description, String host) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("host", host)
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+    }
+
+    /**
+     * Показатели загрузок одного хоста.
+     */
+    private static class HostMeters {
+        private final Timer latency;
+        private final Timer timeToFirstByte;
+        private final Timer parseTime;
+        private final DistributionSummary responseBytes;
+
+        private HostMeters(MeterRegistry registry, String host) {
+            this.latency = timer(registry, "crawler.fetch.latency", "Полное время загрузки страницы", host);
+            this.timeToFirstByte = timer(registry, "crawler.fetch.ttfb", "Время до получения заголовков", host);
+            this.parseTime = timer(registry, "crawler.fetch.parse", "Время разбора страницы", host);
+            this.responseBytes = DistributionSummary.builder("crawler.fetch.bytes")
+                    .description("Размер тела ответа")
+                    .baseUnit("bytes")
+                    .tag("host", host)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.skillbox.searchengine.utils.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Снимок работы сборщика мусора и выделения памяти в JVM.
+ * <p>
+ * Количество и суммарное время сборок берутся из {@link GarbageCollectorMXBean},
+ * объём выделенной памяти — как сумма по живым потокам (если JVM это поддерживает).
+ * Разность двух снимков показывает нагрузку на память за отрезок работы; значения
+ * относятся ко всей JVM, поэтому при параллельной индексации нескольких сайтов
+ * они включают работу и других сайтов.
+ */
+@Getter
+@AllArgsConstructor
+public class GcActivity {
+
+    private final long collections;
+    private final long collectionTimeMs;
+    private final long allocatedBytes;
+
+    /**
+     * Снимает текущие показатели JVM.
+     *
+     * @return Снимок показателей.
+     */
+    public static GcActivity snapshot() {
+        long collections = 0;
+        long collectionTimeMs = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(0, collector.getCollectionCount());
+            collectionTimeMs += Math.max(0, collector.getCollectionTime());
+        }
+        return new GcActivity(collections, collectionTimeMs, allocatedBytes());
+    }
+
+    /**
+     * Возвращает показатели, накопленные после более раннего снимка.
+     *
+     * @param start Более ранний снимок.
+     * @return Разность показателей.
+     */
+    public GcActivity since(GcActivity start) {
+        return new GcActivity(collections - start.collections, collectionTimeMs - start.collectionTimeMs,
+                Math.max(0, allocatedBytes - start.allocatedBytes));
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean allocation)
+                || !allocation.isThreadAllocatedMemorySupported()
+                || !allocation.isThreadAllocatedMemoryEnabled()) {
+            return 0;
+        }
+        long total = 0;
+        for (long bytes : allocation.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(0, bytes);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,116 @@
+package com.skillbox.searchengine.utils.parsing;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Разбор HTML-страницы за один проход по документу.
+ * <p>
+ * Страница разбирается один раз при загрузке: видимый текст, заголовок и ссылки
+ * сохраняются отдельными полями, поэтому лемматизация, индексация и поиск
+ * не разбирают HTML повторно. Содержимое скриптов, стилей и других невидимых элементов
+ * в текст не попадает.
+ */
+public final class HtmlPageParser {
+
+    private static final Set<String> INVISIBLE_TAGS = Set.of("script", "style", "noscript", "template",
+            "svg", "head");
+
+    private HtmlPageParser() {
+    }
+
+    /**
+     * Разбирает загруженный документ.
+     *
+     * @param document HTML-документ.
+     * @return Заголовок, видимый текст и ссылки страницы.
+     */
+    public static ParsedPage parse(Document document) {
+        StringBuilder text = new StringBuilder();
+        List<String> links = new ArrayList<>();
+        Element body = document.body();
+        NodeTraversor.filter(new NodeFilter() {
+            @Override
+            public FilterResult head(Node node, int depth) {
+                if (node instanceof TextNode textNode) {
+                    appendText(text, textNode.text());
+                } else if (node instanceof Element element) {
+                    if (INVISIBLE_TAGS.contains(element.normalName())) {
+                        return FilterResult.SKIP_ENTIRELY;
+                    }
+                    if (element.isBlock() || element.nameIs("br")) {
+                        appendSpace(text);
+                    }
+                    if (element.nameIs("a") && element.hasAttr("href")) {
+                        String href = element.absUrl("href");
+                        if (!href.isEmpty()) {
+                            links.add(href);
+                        }
+                    }
+                }
+                return FilterResult.CONTINUE;
+            }
+
+            @Override
+            public FilterResult tail(Node node, int depth) {
+                if (node instanceof Element element && element.isBlock()) {
+                    appendSpace(text);
+                }
+                return FilterResult.CONTINUE;
+            }
+        }, body);
+        int length = text.length();
+        if (length > 0 && text.charAt(length - 1) == ' ') {
+            text.setLength(length - 1);
+        }
+        return new ParsedPage(document.title(), text.toString(), links);
+    }
+
+    /**
+     * Разбирает сохранённый HTML.
+     *
+     * @param html    HTML-содержимое страницы.
+     * @param baseUri Адрес страницы для получения абсолютных ссылок.
+     * @return Заголовок, видимый текст и ссылки страницы.
+     */
+    public static ParsedPage parse(String html, String baseUri) {
+        return parse(Jsoup.parse(html, baseUri));
+    }
+
+    private static void appendText(StringBuilder text, String fragment) {
+        if (fragment.isBlank()) {
+            appendSpace(text);
+            return;
+        }
+        int start = 0;
+        int end = fragment.length();
+        if (fragment.charAt(0) == ' ') {
+            appendSpace(text);
+            start = 1;
+        }
+        boolean trailingSpace = fragment.charAt(end - 1) == ' ';
+        if (trailingSpace) {
+            end--;
+        }
+        text.append(fragment, start, end);
+        if (trailingSpace) {
+            text.append(' ');
+        }
+    }
+
+    private static void appendSpace(StringBuilder text) {
+        int length = text.length();
+        if (length > 0 && text.charAt(length - 1) != ' ') {
+            text.append(' ');
+        }
+    }
+}
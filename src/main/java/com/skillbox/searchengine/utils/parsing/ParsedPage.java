@@ -0,0 +1,42 @@
+package com.skillbox.searchengine.utils.parsing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Результат однократного разбора HTML-страницы: заголовок, видимый текст
+ * и абсолютные адреса исходящих ссылок.
+ */
+@Getter
+@AllArgsConstructor
+public class ParsedPage {
+
+    private static final String LINK_SEPARATOR = "\n";
+    private String title;
+    private String text;
+    private List<String> links;
+
+    /**
+     * Объединяет ссылки страницы в строку для хранения в одном поле.
+     *
+     * @return Ссылки, разделённые переводом строки.
+     */
+    public String joinLinks() {
+        return String.join(LINK_SEPARATOR, links);
+    }
+
+    /**
+     * Разбирает ссылки, сохранённые {@link #joinLinks()}.
+     *
+     * @param links Ссылки, разделённые переводом строки, или null.
+     * @return Список ссылок.
+     */
+    public static List<String> splitLinks(String links) {
+        if (links == null || links.isEmpty()) {
+            return List.of();
+        }
+        return List.of(links.split(LINK_SEPARATOR));
+    }
+}
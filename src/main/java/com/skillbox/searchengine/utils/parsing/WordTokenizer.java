@@ -0,0 +1,93 @@
+package com.skillbox.searchengine.utils.parsing;
+
+import java.util.Arrays;
+
+/**
+ * Разбиение текста на русские слова за один проход по символам.
+ * <p>
+ * Словом считается непрерывная последовательность букв. Принадлежность слова к русскому алфавиту
+ * и его длина проверяются во время прохода, поэтому строка в нижнем регистре создаётся только
+ * для слов, прошедших оба фильтра; остальные слова и разделители не создают объектов.
+ * Вместе со словом передаются его границы в исходном тексте, что позволяет
+ * и подсчитывать леммы, и находить положение слов для сниппетов.
+ */
+public final class WordTokenizer {
+
+    private WordTokenizer() {
+    }
+
+    /**
+     * Получатель слов текста.
+     */
+    @FunctionalInterface
+    public interface TokenConsumer {
+        /**
+         * Принимает слово.
+         *
+         * @param word  Слово в нижнем регистре.
+         * @param start Индекс первого символа слова в тексте.
+         * @param end   Индекс символа, следующего за словом.
+         */
+        void accept(String word, int start, int end);
+    }
+
+    /**
+     * Передаёт получателю русские слова текста длиннее заданной.
+     *
+     * @param text      Исходный текст.
+     * @param minLength Слова такой длины и короче пропускаются.
+     * @param consumer  Получатель слов.
+     */
+    public static void tokenize(String text, int minLength, TokenConsumer consumer) {
+        int length = text.length();
+        char[] buffer = new char[32];
+        int index = 0;
+        while (index < length) {
+            int codePoint = text.codePointAt(index);
+            if (!Character.isLetter(codePoint)) {
+                index += Character.charCount(codePoint);
+                continue;
+            }
+            int start = index;
+            int wordLength = 0;
+            boolean russian = true;
+            while (index < length) {
+                codePoint = text.codePointAt(index);
+                if (!Character.isLetter(codePoint)) {
+                    break;
+                }
+                if (russian) {
+                    char lower = toRussianLowerCase(codePoint);
+                    if (lower == 0) {
+                        russian = false;
+                    } else {
+                        if (wordLength == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, wordLength * 2);
+                        }
+                        buffer[wordLength++] = lower;
+                    }
+                }
+                index += Character.charCount(codePoint);
+            }
+            if (russian && wordLength > minLength) {
+                consumer.accept(new String(buffer, 0, wordLength), start, index);
+            }
+        }
+    }
+
+    /**
+     * Переводит русскую букву в нижний регистр.
+     *
+     * @param codePoint Буква.
+     * @return Строчная русская буква или 0, если буква не из диапазона а-я, А-Я.
+     */
+    private static char toRussianLowerCase(int codePoint) {
+        if (codePoint >= 'а' && codePoint <= 'я') {
+            return (char) codePoint;
+        }
+        if (codePoint >= 'А' && codePoint <= 'Я') {
+            return (char) (codePoint + ('а' - 'А'));
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.skillbox.searchengine.benchmark;
+
+import com.skillbox.searchengine.services.indexation.indexing.BulkIndexWriter;
+import com.skillbox.searchengine.services.indexation.indexing.IndexPostings;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Скорость записи строк индекса в зависимости от количества строк в одном INSERT.
+ * <p>
+ * База данных моделируется ({@link SimulatedDatabase}): каждый запрос занимает время сетевого
+ * обмена ({@code roundTripMicros}) и по {@value #ROW_NANOS} нс на вставку каждой строки.
+ * Пачка из одной строки соответствует прежней записи через {@code saveAll}: при
+ * {@code GenerationType.IDENTITY} Hibernate выполняет отдельный INSERT на каждую сущность
+ * (собственные расходы Hibernate в замер не входят, поэтому это нижняя граница прежнего времени).
+ * <p>
+ * Результат — строк в секунду ({@value #ROWS} записей индекса за операцию).
+ * Запуск: метод {@link #main(String[])} из IDE после {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final long ROW_NANOS = 2_000;
+
+    @Param({"1", "100", "1000", "5000"})
+    public int batchSize;
+
+    @Param({"100", "500"})
+    public int roundTripMicros;
+
+    private IndexPostings postings;
+    private BulkIndexWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postings = new IndexPostings(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            postings.add(i / 100, i % 5_000, i % 7);
+        }
+        writer = new BulkIndexWriter(new SimulatedDatabase(roundTripMicros, ROW_NANOS).jdbcTemplate(), batchSize);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int insertIndexes() {
+        return writer.insertIndexes(postings);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BulkInsertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,74 @@
+package com.skillbox.searchengine.benchmark;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.services.indexation.crawling.CrawlEngineType;
+import com.skillbox.searchengine.services.indexation.crawling.CrawlGovernor;
+import com.skillbox.searchengine.services.indexation.crawling.FixtureSite;
+import com.skillbox.searchengine.utils.fetching.PageFetcherType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение пропускной способности механизмов обхода и загрузчиков страниц
+ * на локальном тестовом сайте.
+ * <p>
+ * Сайт из 511 страниц отдаёт каждую страницу с задержкой 20 мс.
+ * Результат — время полного обхода; страниц в секунду = 511 / время.
+ * Запуск: метод {@link #main(String[])} из IDE после {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CrawlEngineBenchmark {
+
+    @Param({"FORK_JOIN", "VIRTUAL_THREADS"})
+    private CrawlEngineType engine;
+
+    @Param({"JSOUP", "HTTP_CLIENT"})
+    private PageFetcherType fetcher;
+
+    @Param({"64"})
+    private int siteConcurrency;
+
+    private FixtureSite fixtureSite;
+    private CrawlGovernor crawlGovernor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fixtureSite = new FixtureSite(10, 50, 20);
+        CrawlerSettings crawlerSettings = new CrawlerSettings();
+        crawlerSettings.setEngine(engine);
+        crawlerSettings.setGlobalConcurrency(siteConcurrency);
+        crawlerSettings.setSiteConcurrency(siteConcurrency);
+        crawlerSettings.setGovernorReportIntervalSeconds(0);
+        crawlGovernor = new CrawlGovernor(crawlerSettings);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        crawlGovernor.shutdown();
+        fixtureSite.close();
+    }
+
+    @Benchmark
+    public Set<String> crawlFixtureSite() throws Exception {
+        return fixtureSite.crawl(crawlGovernor.register(fixtureSite.getUrl()), fetcher);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CrawlEngineBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
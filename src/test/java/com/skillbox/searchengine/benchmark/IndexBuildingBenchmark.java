@@ -0,0 +1,126 @@
+package com.skillbox.searchengine.benchmark;
+
+import com.skillbox.searchengine.model.LemmaEntity;
+import com.skillbox.searchengine.model.SiteEntity;
+import com.skillbox.searchengine.repository.LemmaRepository;
+import com.skillbox.searchengine.services.indexation.indexing.IndexBuilder;
+import com.skillbox.searchengine.services.indexation.indexing.IndexPostings;
+import com.skillbox.searchengine.services.indexation.lemmatization.LemmaDictionary;
+import com.skillbox.searchengine.services.indexation.lemmatization.PageLemmas;
+import com.skillbox.searchengine.services.indexation.lemmatization.SiteLemmas;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Построение записей индекса на синтетическом большом сайте.
+ * <p>
+ * Сайт из {@code pages} страниц по {@value #LEMMAS_PER_PAGE} разных лемм, выбранных по закону Ципфа
+ * из {@code siteLemmas} лемм сайта, строится без лемматизации сразу в виде {@link SiteLemmas}.
+ * {@code pageDriven} — текущий {@link IndexBuilder}: записи строятся по леммам каждой страницы.
+ * {@code pagesTimesLemmas} — прежний алгоритм, перебиравший все леммы сайта для каждой страницы;
+ * оставлен для сравнения, его время растёт как произведение страниц на леммы сайта, поэтому
+ * его разумно запускать только на малом сайте ({@code -p pages=2000 -p siteLemmas=20000}).
+ * <p>
+ * Результат — миллисекунды на построение индекса всего сайта.
+ * Запуск: метод {@link #main(String[])} из IDE после {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexBuildingBenchmark {
+
+    private static final int LEMMAS_PER_PAGE = 150;
+
+    @Param({"2000", "10000"})
+    public int pages;
+
+    @Param({"20000", "100000"})
+    public int siteLemmas;
+
+    private SiteLemmas site;
+    private List<LemmaEntity> savedLemmas;
+    private IndexBuilder indexBuilder;
+    private SiteEntity siteEntity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LemmaDictionary dictionary = new LemmaDictionary();
+        savedLemmas = new ArrayList<>(siteLemmas);
+        for (int i = 0; i < siteLemmas; i++) {
+            dictionary.intern("лемма" + i);
+            LemmaEntity lemmaEntity = new LemmaEntity();
+            lemmaEntity.setId((long) i + 1);
+            lemmaEntity.setLemma("лемма" + i);
+            savedLemmas.add(lemmaEntity);
+        }
+        double[] cumulative = new double[siteLemmas];
+        double sum = 0;
+        for (int i = 0; i < siteLemmas; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+
+        Random random = new Random(42);
+        site = new SiteLemmas(dictionary);
+        for (int page = 0; page < pages; page++) {
+            int[] lemmaIds = random.ints(LEMMAS_PER_PAGE * 2L)
+                    .map(ignored -> zipf(cumulative, random.nextDouble() * cumulative[siteLemmas - 1]))
+                    .distinct().limit(LEMMAS_PER_PAGE).sorted().toArray();
+            int[] counts = random.ints(lemmaIds.length, 1, 10).toArray();
+            site.addPage(new PageLemmas(page, lemmaIds, counts));
+        }
+
+        siteEntity = new SiteEntity();
+        siteEntity.setId(1L);
+        LemmaRepository lemmaRepository = mock(LemmaRepository.class);
+        when(lemmaRepository.findBySiteId(1L)).thenReturn(savedLemmas);
+        indexBuilder = new IndexBuilder(lemmaRepository);
+    }
+
+    private static int zipf(double[] cumulative, double value) {
+        int position = Arrays.binarySearch(cumulative, value);
+        return position >= 0 ? position : Math.min(-position - 1, cumulative.length - 1);
+    }
+
+    @Benchmark
+    public IndexPostings pageDriven() {
+        return indexBuilder.buildIndexesForSite(siteEntity, site);
+    }
+
+    @Benchmark
+    public IndexPostings pagesTimesLemmas() {
+        LemmaDictionary dictionary = site.getDictionary();
+        IndexPostings postings = new IndexPostings(pages * LEMMAS_PER_PAGE);
+        for (PageLemmas page : site.getPages()) {
+            for (LemmaEntity lemmaEntity : savedLemmas) {
+                int position = Arrays.binarySearch(page.getLemmaIds(), dictionary.find(lemmaEntity.getLemma()));
+                if (position >= 0) {
+                    postings.add(page.getPageId(), lemmaEntity.getId(), page.getCounts()[position]);
+                }
+            }
+        }
+        return postings;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(IndexBuildingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,132 @@
+package com.skillbox.searchengine.benchmark;
+
+import com.skillbox.searchengine.utils.LemmaExtractor;
+import com.skillbox.searchengine.utils.MorphologyCache;
+import org.apache.lucene.morphology.russian.RussianLuceneMorphology;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Лемматизация текста страниц без кэша морфологического разбора и с ним.
+ * <p>
+ * Страницы собираются из предложений русских описаний товаров, новостей и справочных статей
+ * с распределением частот, близким к закону Ципфа: несколько предложений (меню, подвал, условия
+ * доставки) встречаются почти на каждой странице, остальные — редко, как на реальном сайте.
+ * <p>
+ * Результат — время лемматизации одной страницы ({@link LemmaExtractor#collectLemmas(String)}).
+ * Кэш прогревается на страницах сайта до замеров, как при обходе большого сайта.
+ * Запуск: метод {@link #main(String[])} из IDE после {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LemmatizationBenchmark {
+
+    static final int SITE_PAGES = 200;
+    private static final int SENTENCES_PER_PAGE = 60;
+    private static final String[] SENTENCES = {
+            "Доставка по Москве и области осуществляется курьерской службой в течение двух рабочих дней.",
+            "Гарантия на все товары нашего магазина составляет двенадцать месяцев с момента покупки.",
+            "Оплатить заказ можно наличными курьеру, банковской картой на сайте или переводом.",
+            "Смартфон оснащён ярким экраном, ёмким аккумулятором и быстрым восьмиядерным процессором.",
+            "Основная камера снимает чёткие фотографии даже при слабом вечернем освещении.",
+            "Корпус устройства выполнен из прочного алюминия и защищён закалённым стеклом.",
+            "Беспроводные наушники поддерживают активное шумоподавление и быструю зарядку.",
+            "Покупатели отмечают удобство меню, долгую работу батареи и качественную сборку.",
+            "Правительство утвердило новые правила субсидирования малого и среднего бизнеса.",
+            "Специалисты прогнозируют рост цен на строительные материалы в ближайшие месяцы.",
+            "Городские власти объявили о реконструкции набережной и создании пешеходных зон.",
+            "Учёные университета разработали способ переработки пластиковых отходов в топливо.",
+            "Выставка современного искусства откроется в центральном музее в конце октября.",
+            "Сборная страны одержала уверенную победу в отборочном матче чемпионата мира.",
+            "Лемматизация приводит словоформы к начальной форме для построения поискового индекса.",
+            "Поисковая система учитывает частоту встречаемости лемм и их редкость на сайте.",
+            "Чтобы вернуть товар, заполните заявление и приложите кассовый чек к посылке.",
+            "Подпишитесь на рассылку, чтобы первыми узнавать о скидках и специальных предложениях.",
+            "Наши консультанты ответят на любые вопросы по телефону или в онлайн-чате.",
+            "Информация на сайте не является публичной офертой и может изменяться без уведомления.",
+            "Исторический центр города сохранил купеческие особняки девятнадцатого века.",
+            "Туристы могут посетить старинную крепость, монастырь и краеведческий музей.",
+            "Для приготовления пирога понадобятся мука, яйца, сливочное масло и свежие ягоды.",
+            "Тесто следует замесить заранее и оставить в тёплом месте на несколько часов.",
+    };
+
+    private String[] pages;
+    private LemmaExtractor uncached;
+    private LemmaExtractor cached;
+    private int pageIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        pages = buildSite();
+        RussianLuceneMorphology morphology = new RussianLuceneMorphology();
+        uncached = new LemmaExtractor(morphology, new MorphologyCache(0));
+        cached = new LemmaExtractor(morphology, new MorphologyCache(200_000));
+        for (String page : pages) {
+            cached.collectLemmas(page);
+        }
+    }
+
+    @Benchmark
+    public int collectLemmasUncached() {
+        return uncached.collectLemmas(nextPage()).size();
+    }
+
+    @Benchmark
+    public int collectLemmasCached() {
+        return cached.collectLemmas(nextPage()).size();
+    }
+
+    private String nextPage() {
+        pageIndex = (pageIndex + 1) % pages.length;
+        return pages[pageIndex];
+    }
+
+    /**
+     * Собирает текст страниц сайта, выбирая предложения с частотой, убывающей по закону Ципфа.
+     *
+     * @return Текст страниц сайта.
+     */
+    static String[] buildSite() {
+        double[] cumulative = new double[SENTENCES.length];
+        double total = 0;
+        for (int i = 0; i < SENTENCES.length; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+        Random random = new Random(42);
+        String[] site = new String[SITE_PAGES];
+        for (int page = 0; page < SITE_PAGES; page++) {
+            StringBuilder text = new StringBuilder();
+            for (int sentence = 0; sentence < SENTENCES_PER_PAGE; sentence++) {
+                double point = random.nextDouble() * total;
+                int index = 0;
+                while (cumulative[index] < point) {
+                    index++;
+                }
+                text.append(SENTENCES[index]).append(' ');
+            }
+            site[page] = text.toString();
+        }
+        return site;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LemmatizationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.skillbox.searchengine.benchmark;
+
+import com.skillbox.searchengine.services.indexation.lemmatization.LemmasCollector;
+import com.skillbox.searchengine.services.indexation.lemmatization.SiteLemmas;
+import com.skillbox.searchengine.services.indexation.lemmatization.StoredPageText;
+import com.skillbox.searchengine.utils.LemmaExtractor;
+import com.skillbox.searchengine.utils.MorphologyCache;
+import org.apache.lucene.morphology.russian.RussianLuceneMorphology;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Масштабирование лемматизации сайта по числу потоков.
+ * <p>
+ * Страницы сайта ({@link LemmatizationBenchmark#buildSite()}) лемматизируются пачками по 100,
+ * как при записи страниц обходчиком, в {@link LemmasCollector} с заданным числом потоков.
+ * Кэш морфологии общий для всех потоков и прогревается до замеров.
+ * <p>
+ * Результат — страниц в секунду для 1, 2, 4 и 8 потоков; рост ограничен числом ядер машины.
+ * Запуск: метод {@link #main(String[])} из IDE после {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LemmatizationScalingBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private List<List<StoredPageText>> batches;
+    private LemmasCollector lemmasCollector;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] site = LemmatizationBenchmark.buildSite();
+        List<StoredPageText> pages = new ArrayList<>();
+        for (int i = 0; i < site.length; i++) {
+            pages.add(new StoredPageText(i, 200, site[i]));
+        }
+        batches = new ArrayList<>();
+        for (int from = 0; from < pages.size(); from += BATCH_SIZE) {
+            batches.add(pages.subList(from, Math.min(from + BATCH_SIZE, pages.size())));
+        }
+        LemmaExtractor lemmaExtractor = new LemmaExtractor(new RussianLuceneMorphology(),
+                new MorphologyCache(200_000));
+        lemmasCollector = new LemmasCollector(lemmaExtractor, threads);
+        lemmatizeSite();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lemmasCollector.shutdown();
+    }
+
+    /**
+     * Лемматизирует весь сайт; одна операция — одна страница.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LemmatizationBenchmark.SITE_PAGES)
+    public SiteLemmas lemmatizeSite() {
+        SiteLemmas siteLemmas = new SiteLemmas();
+        for (List<StoredPageText> batch : batches) {
+            lemmasCollector.collectPages(siteLemmas, batch);
+        }
+        return siteLemmas;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LemmatizationScalingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
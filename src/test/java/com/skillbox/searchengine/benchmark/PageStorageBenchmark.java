@@ -0,0 +1,128 @@
+package com.skillbox.searchengine.benchmark;
+
+import com.skillbox.searchengine.utils.PageContentCodec;
+import com.skillbox.searchengine.utils.parsing.HtmlPageParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Сравнение прежнего и нового хранения страниц сайта.
+ * <p>
+ * Прежде для лемматизации загружался несжатый HTML всех страниц сайта и очищался от тегов
+ * регулярным выражением. Теперь загружается только текст страниц, а HTML хранится сжатым.
+ * Загрузка из базы данных имитируется декодированием байтов UTF-8, полученных драйвером.
+ * <p>
+ * Результат — время загрузки текста всего сайта (500 страниц каталога). Средние размеры страницы
+ * (HTML, сжатый HTML, текст) выводятся при запуске {@link #main(String[])}.
+ * Запуск: метод {@link #main(String[])} из IDE после {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageStorageBenchmark {
+
+    private static final int SITE_PAGES = 500;
+    private static final Pattern TAG_PATTERN = Pattern.compile("<[^>]*>");
+
+    private byte[][] htmlRows;
+    private byte[][] textRows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] pages = buildSite();
+        htmlRows = new byte[SITE_PAGES][];
+        textRows = new byte[SITE_PAGES][];
+        for (int i = 0; i < SITE_PAGES; i++) {
+            htmlRows[i] = pages[i].getBytes(StandardCharsets.UTF_8);
+            textRows[i] = HtmlPageParser.parse(pages[i], "https://www.playback.ru/")
+                    .getText().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public long loadSiteFromHtml() {
+        long length = 0;
+        for (byte[] row : htmlRows) {
+            String html = new String(row, StandardCharsets.UTF_8);
+            length += TAG_PATTERN.matcher(html).replaceAll(" ").trim().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public long loadSiteFromText() {
+        long length = 0;
+        for (byte[] row : textRows) {
+            length += new String(row, StandardCharsets.UTF_8).length();
+        }
+        return length;
+    }
+
+    /**
+     * Строит страницы каталога: шапка, меню, скрипты и описание товара.
+     *
+     * @return HTML страниц сайта.
+     */
+    static String[] buildSite() {
+        String[] words = {"смартфон", "чехол", "зарядка", "наушники", "экран", "аккумулятор", "доставка",
+                "гарантия", "камера", "память", "процессор", "цвет", "модель", "корпус", "стекло"};
+        Random random = new Random(42);
+        StringBuilder menu = new StringBuilder("<ul class=\"menu\">");
+        for (int i = 0; i < 60; i++) {
+            menu.append("<li><a href=\"/catalog/").append(i).append("/\">Раздел ").append(i).append("</a></li>");
+        }
+        menu.append("</ul>");
+        String[] pages = new String[SITE_PAGES];
+        for (int page = 0; page < SITE_PAGES; page++) {
+            StringBuilder html = new StringBuilder(32_000)
+                    .append("<!doctype html><html><head><title>Товар ").append(page).append("</title>")
+                    .append("<style>.menu{display:flex}.card{margin:0 auto;padding:12px}</style>")
+                    .append("<script>window.dataLayer=window.dataLayer||[];function gtag(){dataLayer.push(arguments)}")
+                    .append("gtag('js',new Date());gtag('config','UA-").append(page).append("');</script>")
+                    .append("</head><body><header>").append(menu).append("</header><main class=\"card\">")
+                    .append("<h1>Товар ").append(page).append("</h1>");
+            for (int paragraph = 0; paragraph < 12; paragraph++) {
+                html.append("<p>");
+                for (int word = 0; word < 40; word++) {
+                    html.append(words[random.nextInt(words.length)]).append(' ');
+                }
+                html.append("</p>");
+            }
+            html.append("</main><footer>").append(menu).append("</footer></body></html>");
+            pages[page] = html.toString();
+        }
+        return pages;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        long html = 0;
+        long compressed = 0;
+        long text = 0;
+        for (String page : buildSite()) {
+            html += page.getBytes(StandardCharsets.UTF_8).length;
+            compressed += PageContentCodec.compress(page).length;
+            text += HtmlPageParser.parse(page, "https://www.playback.ru/").getText()
+                    .getBytes(StandardCharsets.UTF_8).length;
+        }
+        System.out.printf("Байт на страницу: HTML %d, сжатый HTML %d, текст %d%n",
+                html / SITE_PAGES, compressed / SITE_PAGES, text / SITE_PAGES);
+
+        Options options = new OptionsBuilder()
+                .include(PageStorageBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
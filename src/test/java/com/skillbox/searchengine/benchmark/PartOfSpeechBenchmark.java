@@ -0,0 +1,91 @@
+package com.skillbox.searchengine.benchmark;
+
+import com.skillbox.searchengine.utils.PartOfSpeech;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Проверка словоформы на служебную часть речи: прежняя проверка строк и битовая маска.
+ * <p>
+ * Прежде каждая строка морфологической информации переводилась в верхний регистр,
+ * проверялась восемью поисками подстрок и регулярным выражением. Теперь часть речи
+ * определяется по обозначению, а проверка сводится к одной маске.
+ * <p>
+ * Результат — время проверки одной словоформы. Словоформы взяты в формате словаря АОТ,
+ * у части из них несколько морфологических разборов.
+ * Запуск: метод {@link #main(String[])} из IDE после {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartOfSpeechBenchmark {
+
+    private static final Pattern WORD_TYPE_REGEX = Pattern.compile("\\W\\w&&[^а-яА-Я\\s]");
+    private static final String[] PARTICLES_NAMES = new String[]{
+            "МЕЖД", "ПРЕДЛ", "СОЮЗ", "МС", "ЧАСТ", "ПРОЧЕЕ", "ВВОДН", "НАРЕЧ"};
+    private static final List<List<String>> WORD_FORMS = List.of(
+            List.of("доставка|Ба С жр,ед,им"),
+            List.of("смартфоны|Аа С мр,мн,им", "смартфоны|Аа С мр,мн,вн"),
+            List.of("красивый|Ая П мр,ед,им,од,но", "красивый|Ая П мр,ед,вн,но"),
+            List.of("который|Ая МС-П мр,ед,им"),
+            List.of("доставляет|аб Г дст,нст,3л,ед"),
+            List.of("уже|Аб Н", "уже|Ас ЧАСТ"),
+            List.of("через|Гл ПРЕДЛ"),
+            List.of("гарантия|Ба С жр,ед,им"),
+            List.of("конечно|Ав ВВОДН", "конечно|Аб Н"),
+            List.of("двенадцать|Ад ЧИСЛ им", "двенадцать|Ад ЧИСЛ вн"));
+
+    private int index;
+
+    @Benchmark
+    public boolean stringChecks() {
+        List<String> morphInfo = nextWordForm();
+        if (morphInfo.stream().anyMatch(PartOfSpeechBenchmark::hasParticleProperty)) {
+            return false;
+        }
+        for (String info : morphInfo) {
+            if (WORD_TYPE_REGEX.matcher(info).matches()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean maskCheck() {
+        return (PartOfSpeech.maskOf(nextWordForm()) & PartOfSpeech.STOP_MASK) == 0;
+    }
+
+    private List<String> nextWordForm() {
+        index = (index + 1) % WORD_FORMS.size();
+        return WORD_FORMS.get(index);
+    }
+
+    private static boolean hasParticleProperty(String wordBase) {
+        for (String property : PARTICLES_NAMES) {
+            if (wordBase.toUpperCase().contains(property)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PartOfSpeechBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.skillbox.searchengine.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Модель базы данных для замеров записи через JDBC без настоящего сервера.
+ * <p>
+ * Каждый запрос занимает время сетевого обмена и фиксированное время на каждую затронутую строку.
+ * Количество строк в таблицах учитывается: многострочный INSERT добавляет по строке на три
+ * параметра, {@code DELETE ... LIMIT ?} удаляет не больше порции, {@code DELETE ... WHERE id = ?} —
+ * одну строку, остальные DELETE — все строки таблицы.
+ */
+class SimulatedDatabase {
+
+    private static final Pattern TABLE = Pattern.compile("(?:INTO|FROM)\\s+`?(\\w+)`?");
+    private final Map<String, Long> rows = new HashMap<>();
+    private final long roundTripNanos;
+    private final long rowNanos;
+
+    /**
+     * Создаёт модель базы данных.
+     *
+     * @param roundTripMicros Время сетевого обмена на запрос (в микросекундах).
+     * @param rowNanos        Время обработки одной строки (в наносекундах).
+     */
+    SimulatedDatabase(long roundTripMicros, long rowNanos) {
+        this.roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        this.rowNanos = rowNanos;
+    }
+
+    void setRows(String table, long count) {
+        rows.put(table, count);
+    }
+
+    long getRows(String table) {
+        return rows.getOrDefault(table, 0L);
+    }
+
+    /**
+     * Возвращает доступ к модели через {@link JdbcTemplate}.
+     *
+     * @return Шаблон JDBC с единственным моделируемым соединением.
+     */
+    JdbcTemplate jdbcTemplate() {
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "prepareStatement" -> statement((String) args[0]);
+                    case "isClosed", "isReadOnly" -> false;
+                    case "getAutoCommit", "isValid" -> true;
+                    default -> null;
+                });
+        return new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+    }
+
+    private PreparedStatement statement(String sql) {
+        Map<Integer, Object> parameters = new HashMap<>();
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length == 2
+                            && args[0] instanceof Integer index) {
+                        parameters.put(index, args[1]);
+                        return null;
+                    }
+                    return switch (method.getName()) {
+                        case "executeUpdate" -> execute(sql, parameters);
+                        case "isClosed" -> false;
+                        default -> null;
+                    };
+                });
+    }
+
+    private int execute(String sql, Map<Integer, Object> parameters) {
+        Matcher matcher = TABLE.matcher(sql);
+        String table = matcher.find() ? matcher.group(1) : "";
+        long available = getRows(table);
+        long affected;
+        if (sql.startsWith("INSERT")) {
+            affected = sql.chars().filter(c -> c == '?').count() / 3;
+            rows.put(table, available + affected);
+        } else {
+            if (sql.contains("LIMIT")) {
+                affected = Math.min(available, ((Number) parameters.get(parameters.size())).longValue());
+            } else if (sql.contains("WHERE id = ?")) {
+                affected = Math.min(available, 1);
+            } else {
+                affected = available;
+            }
+            rows.put(table, available - affected);
+        }
+        LockSupport.parkNanos(roundTripNanos + affected * rowNanos);
+        return (int) affected;
+    }
+}
@@ -0,0 +1,83 @@
+package com.skillbox.searchengine.benchmark;
+
+import com.skillbox.searchengine.services.indexation.indexing.SitePurger;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время удаления данных сайта: порциями ({@link SitePurger}) против каскадного удаления JPA.
+ * <p>
+ * На сайте {@code indexRows} записей индекса, в 20 раз меньше лемм и в 100 раз меньше страниц.
+ * База данных моделируется ({@link SimulatedDatabase}) с обменом {@value #ROUND_TRIP_MICROS} мкс
+ * на запрос и {@value #ROW_NANOS} нс на строку. {@code cascade} повторяет удаление через
+ * {@code CascadeType.ALL}: отдельный DELETE на каждую строку (загрузка сущностей в замер не входит,
+ * поэтому это нижняя граница прежнего времени). Каскадный вариант на 1 млн строк занимает минуты,
+ * его разумно запускать с {@code -wi 0 -i 1}.
+ * <p>
+ * Результат — миллисекунды на удаление одного сайта.
+ * Запуск: метод {@link #main(String[])} из IDE после {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SitePurgeBenchmark {
+
+    private static final long ROUND_TRIP_MICROS = 100;
+    private static final long ROW_NANOS = 2_000;
+    private static final int PURGE_BATCH_SIZE = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int indexRows;
+
+    private SimulatedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private SitePurger sitePurger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new SimulatedDatabase(ROUND_TRIP_MICROS, ROW_NANOS);
+        jdbcTemplate = database.jdbcTemplate();
+        sitePurger = new SitePurger(jdbcTemplate, PURGE_BATCH_SIZE);
+    }
+
+    @Setup(Level.Invocation)
+    public void fillSite() {
+        database.setRows("index", indexRows);
+        database.setRows("lemma", indexRows / 20);
+        database.setRows("page", indexRows / 100);
+        database.setRows("site", 1);
+    }
+
+    @Benchmark
+    public long chunked() {
+        sitePurger.purgeSite(1L, "https://example.com");
+        return database.getRows("index");
+    }
+
+    @Benchmark
+    public long cascade() {
+        for (String table : new String[]{"`index`", "lemma", "page", "site"}) {
+            long rows = database.getRows(table.replace("`", ""));
+            for (long id = 0; id < rows; id++) {
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE id = ?", id);
+            }
+        }
+        return database.getRows("index");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SitePurgeBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
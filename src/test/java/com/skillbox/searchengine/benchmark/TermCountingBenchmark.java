@@ -0,0 +1,147 @@
+package com.skillbox.searchengine.benchmark;
+
+import com.skillbox.searchengine.dto.indexing.DtoLemma;
+import com.skillbox.searchengine.model.LemmaEntity;
+import com.skillbox.searchengine.model.SiteEntity;
+import com.skillbox.searchengine.repository.LemmaRepository;
+import com.skillbox.searchengine.services.indexation.indexing.IndexBuilder;
+import com.skillbox.searchengine.services.indexation.indexing.IndexPostings;
+import com.skillbox.searchengine.services.indexation.lemmatization.LemmasCollector;
+import com.skillbox.searchengine.services.indexation.lemmatization.SiteLemmas;
+import com.skillbox.searchengine.services.indexation.lemmatization.StoredPageText;
+import com.skillbox.searchengine.utils.LemmaExtractor;
+import com.skillbox.searchengine.utils.MorphologyCache;
+import org.apache.lucene.morphology.russian.RussianLuceneMorphology;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Подсчёт лемм сайта и построение записей индекса: упакованные числа против массивов примитивов.
+ * <p>
+ * Замеры {@code *Boxed} повторяют прежний путь: словарь {@code HashMap<String, Integer>} на каждую
+ * страницу, слияние в словарь частот сайта и объект на каждую запись индекса. Замеры {@code *Primitive}
+ * используют {@link LemmasCollector} со словарём лемм и {@link IndexBuilder} с массивами примитивов.
+ * {@code count*} лемматизирует страницы ({@link LemmatizationBenchmark#buildSite()}) в одном потоке
+ * с прогретым кэшем морфологии, {@code postings*} строит записи индекса по заранее подсчитанным леммам,
+ * перебирая сохранённые леммы одинаково.
+ * <p>
+ * Главный результат — выделение памяти на операцию: запускать с профилировщиком {@code -prof gc}.
+ * Запуск: метод {@link #main(String[])} из IDE после {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TermCountingBenchmark {
+
+    private List<StoredPageText> pages;
+    private LemmaExtractor lemmaExtractor;
+    private LemmasCollector lemmasCollector;
+    private IndexBuilder indexBuilder;
+    private List<LemmaEntity> savedLemmas;
+    private SiteEntity siteEntity;
+    private SiteLemmas siteLemmas;
+    private Map<Long, Map<String, Integer>> boxedPageLemmas;
+
+    /**
+     * Запись индекса в прежнем виде: объект на каждую пару страницы и леммы.
+     */
+    private record Posting(long pageId, long lemmaId, float rank) {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] site = LemmatizationBenchmark.buildSite();
+        pages = new ArrayList<>();
+        for (int i = 0; i < site.length; i++) {
+            pages.add(new StoredPageText(i, 200, site[i]));
+        }
+        lemmaExtractor = new LemmaExtractor(new RussianLuceneMorphology(), new MorphologyCache(200_000));
+        lemmasCollector = new LemmasCollector(lemmaExtractor, 1);
+
+        siteEntity = new SiteEntity();
+        siteEntity.setId(1L);
+        savedLemmas = new ArrayList<>();
+        siteLemmas = countPrimitive();
+        boxedPageLemmas = countBoxed();
+        for (DtoLemma dtoLemma : lemmasCollector.extractLemmasForSite(siteLemmas)) {
+            LemmaEntity lemmaEntity = new LemmaEntity();
+            lemmaEntity.setId((long) savedLemmas.size());
+            lemmaEntity.setLemma(dtoLemma.getLemma());
+            lemmaEntity.setFrequency(dtoLemma.getFrequency());
+            savedLemmas.add(lemmaEntity);
+        }
+        LemmaRepository lemmaRepository = mock(LemmaRepository.class);
+        when(lemmaRepository.findBySiteId(1L)).thenReturn(savedLemmas);
+        indexBuilder = new IndexBuilder(lemmaRepository);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lemmasCollector.shutdown();
+    }
+
+    @Benchmark
+    public Map<Long, Map<String, Integer>> countBoxed() {
+        Map<String, Integer> siteFrequencies = new HashMap<>();
+        Map<Long, Map<String, Integer>> pageLemmas = new HashMap<>();
+        for (StoredPageText page : pages) {
+            Map<String, Integer> lemmas = lemmaExtractor.collectLemmas(page.getText());
+            pageLemmas.put(page.getId(), lemmas);
+            for (String lemma : lemmas.keySet()) {
+                siteFrequencies.merge(lemma, 1, Integer::sum);
+            }
+        }
+        return pageLemmas;
+    }
+
+    @Benchmark
+    public SiteLemmas countPrimitive() {
+        SiteLemmas siteLemmas = new SiteLemmas();
+        lemmasCollector.collectPages(siteLemmas, pages);
+        return siteLemmas;
+    }
+
+    @Benchmark
+    public List<Posting> postingsBoxed() {
+        List<Posting> postings = new ArrayList<>();
+        for (Map.Entry<Long, Map<String, Integer>> page : boxedPageLemmas.entrySet()) {
+            Map<String, Integer> lemmas = page.getValue();
+            for (LemmaEntity lemmaEntity : savedLemmas) {
+                Integer count = lemmas.get(lemmaEntity.getLemma());
+                if (count != null) {
+                    postings.add(new Posting(page.getKey(), lemmaEntity.getId(), count));
+                }
+            }
+        }
+        return postings;
+    }
+
+    @Benchmark
+    public IndexPostings postingsPrimitive() {
+        return indexBuilder.buildIndexesForSite(siteEntity, siteLemmas);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TermCountingBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,123 @@
+package com.skillbox.searchengine.benchmark;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.services.indexation.crawling.LinkValidator;
+import com.skillbox.searchengine.services.indexation.crawling.UrlClassifier;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение {@link UrlClassifier} с {@link LinkValidator} на наборе ссылок,
+ * повторяющем ссылки страниц индексируемых сайтов: разделы и карточки товаров,
+ * изображения и документы, якоря, параметры отслеживания, mailto и javascript.
+ * <p>
+ * Результат — время проверки одной ссылки. Профилировщик GC показывает
+ * объём памяти, выделяемой на одну проверку.
+ * Запуск: метод {@link #main(String[])} из IDE после {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlClassifierBenchmark {
+
+    private static final int CORPUS_SIZE = 10_000;
+
+    private String[] links;
+    private UrlClassifier urlClassifier;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        links = buildCorpus();
+        urlClassifier = UrlClassifier.fromSettings(new CrawlerSettings());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    @SuppressWarnings("deprecation")
+    public int linkValidator() {
+        int crawlable = 0;
+        for (String link : links) {
+            if (LinkValidator.isCorrectLink(link)) {
+                crawlable++;
+            }
+        }
+        return crawlable;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    public int urlClassifier() {
+        int crawlable = 0;
+        for (String link : links) {
+            if (urlClassifier.isCrawlable(link)) {
+                crawlable++;
+            }
+        }
+        return crawlable;
+    }
+
+    /**
+     * Строит набор ссылок в пропорциях, характерных для страниц каталога.
+     *
+     * @return Ссылки в случайном, но воспроизводимом порядке.
+     */
+    static String[] buildCorpus() {
+        String[] hosts = {"https://www.playback.ru", "https://www.svetlovka.ru"};
+        String[] sections = {"catalog", "news", "events", "product", "about", "afisha", "library"};
+        String[] templates = {
+                "%s/%s/%d.html",
+                "%s/%s/%d.html",
+                "%s/%s/item-%d/",
+                "%s/%s/item-%d/",
+                "%s/%s/?page=%d",
+                "%s/%s/list.php?SECTION_ID=%d&sort=price",
+                "%s/upload/iblock/%s/%d.jpg",
+                "%s/upload/resize_cache/%s/%d.webp",
+                "%s/upload/docs/%s-%d.pdf",
+                "%s/upload/docs/%s-%d.docx",
+                "%s/%s/%d.html#comments",
+                "%s/%s/%d.html?_ga=2.1%d.17",
+                "%s/%s/%d.html?utm_source=vk&utm_medium=%d",
+                "%s/%s/search/?q=%d",
+                "mailto:info@%s%s%d.ru",
+                "javascript:void(%s%s%d)",
+                "tel:+7495%s%s%d",
+        };
+        Random random = new Random(42);
+        List<String> corpus = new ArrayList<>(CORPUS_SIZE);
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            String template = templates[random.nextInt(templates.length)];
+            String host = hosts[random.nextInt(hosts.length)];
+            if (template.startsWith("mailto") || template.startsWith("javascript")
+                    || template.startsWith("tel")) {
+                host = "";
+            }
+            int id = random.nextInt(100_000);
+            corpus.add(String.format(template, host,
+                    sections[random.nextInt(sections.length)], id, id % 1000));
+        }
+        Collections.shuffle(corpus, random);
+        return corpus.toArray(String[]::new);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UrlClassifierBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
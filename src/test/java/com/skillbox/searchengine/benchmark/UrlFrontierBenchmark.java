@@ -0,0 +1,78 @@
+package com.skillbox.searchengine.benchmark;
+
+import com.skillbox.searchengine.services.indexation.crawling.UrlFrontier;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочное сравнение учёта посещённых ссылок при конкурентном доступе.
+ * <p>
+ * Сравнивает {@link UrlFrontier} (точный режим и режим фильтра Блума)
+ * с синхронизированным {@link HashSet} на 8, 16, 32 и 64 потоках.
+ * Запуск: метод {@link #main(String[])} из IDE после {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlFrontierBenchmark {
+
+    private static final int URL_POOL_SIZE = 500_000;
+    private static final int[] THREAD_COUNTS = {8, 16, 32, 64};
+
+    private String[] urls;
+    private UrlFrontier exactFrontier;
+    private UrlFrontier filterFrontier;
+    private Set<String> synchronizedSet;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        urls = new String[URL_POOL_SIZE];
+        for (int i = 0; i < URL_POOL_SIZE; i++) {
+            urls[i] = "https://www.example.ru/catalog/section-" + (i % 1000) + "/item-" + i + ".html";
+        }
+        exactFrontier = new UrlFrontier(Integer.MAX_VALUE, URL_POOL_SIZE, 0.001);
+        filterFrontier = new UrlFrontier(0, URL_POOL_SIZE, 0.001);
+        synchronizedSet = Collections.synchronizedSet(new HashSet<>());
+    }
+
+    @Benchmark
+    public boolean exactFrontier() {
+        return exactFrontier.markVisited(nextUrl());
+    }
+
+    @Benchmark
+    public boolean filterFrontier() {
+        return filterFrontier.markVisited(nextUrl());
+    }
+
+    @Benchmark
+    public boolean synchronizedHashSet() {
+        return synchronizedSet.add(nextUrl());
+    }
+
+    private String nextUrl() {
+        return urls[ThreadLocalRandom.current().nextInt(URL_POOL_SIZE)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                    .include(UrlFrontierBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
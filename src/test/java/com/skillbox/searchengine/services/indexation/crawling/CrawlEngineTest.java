@@ -0,0 +1,230 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.dto.indexing.CrawlGovernorStats;
+import com.skillbox.searchengine.dto.indexing.DtoPage;
+import com.skillbox.searchengine.utils.UrlHelper;
+import com.skillbox.searchengine.utils.fetching.PageFetcherType;
+import com.skillbox.searchengine.utils.metrics.CrawlerMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CrawlEngineTest {
+
+    @Test
+    @DisplayName("Оба механизма обхода собирают одинаковый набор страниц")
+    void testEnginesProduceSamePageSet() throws Exception {
+        CrawlGovernor forkJoinGovernor = createGovernor(CrawlEngineType.FORK_JOIN, 16, 8);
+        CrawlGovernor virtualThreadGovernor = createGovernor(CrawlEngineType.VIRTUAL_THREADS, 16, 8);
+        try (FixtureSite fixtureSite = new FixtureSite(5, 8, 0)) {
+            // Act
+            Set<String> forkJoinPages = fixtureSite.crawl(
+                    forkJoinGovernor.register(fixtureSite.getUrl()), PageFetcherType.HTTP_CLIENT);
+            Set<String> virtualThreadPages = fixtureSite.crawl(
+                    virtualThreadGovernor.register(fixtureSite.getUrl()), PageFetcherType.HTTP_CLIENT);
+
+            // Assert
+            assertEquals(fixtureSite.getPageCount(), forkJoinPages.size());
+            assertEquals(forkJoinPages, virtualThreadPages);
+            assertEquals(0, forkJoinGovernor.getStats().getActiveSites());
+        } finally {
+            forkJoinGovernor.shutdown();
+            virtualThreadGovernor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Оба загрузчика страниц собирают одинаковый набор страниц")
+    void testFetchersProduceSamePageSet() throws Exception {
+        CrawlGovernor crawlGovernor = createGovernor(CrawlEngineType.FORK_JOIN, 16, 8);
+        try (FixtureSite fixtureSite = new FixtureSite(5, 8, 0)) {
+            // Act
+            Set<String> jsoupPages = fixtureSite.crawl(
+                    crawlGovernor.register(fixtureSite.getUrl()), PageFetcherType.JSOUP);
+            Set<String> httpClientPages = fixtureSite.crawl(
+                    crawlGovernor.register(fixtureSite.getUrl()), PageFetcherType.HTTP_CLIENT);
+
+            // Assert
+            assertEquals(fixtureSite.getPageCount(), jsoupPages.size());
+            assertEquals(jsoupPages, httpClientPages);
+        } finally {
+            crawlGovernor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Планировщик соблюдает общий лимит и выпускает задачи сайтов по очереди")
+    void testGovernorSharesCapacityFairly() throws Exception {
+        // Arrange
+        CrawlGovernor crawlGovernor = createGovernor(CrawlEngineType.VIRTUAL_THREADS, 2, 2);
+        Semaphore release = new Semaphore(0);
+        List<String> startOrder = Collections.synchronizedList(new ArrayList<>());
+        UrlHelper urlHelper = mock(UrlHelper.class);
+        when(urlHelper.getHostFromPage(anyString()))
+                .thenAnswer(invocation -> URI.create(invocation.getArgument(0, String.class)).getHost());
+        when(urlHelper.fetchPage(anyString())).thenAnswer(invocation -> {
+            startOrder.add(invocation.getArgument(0, String.class));
+            release.acquire();
+            return Optional.empty();
+        });
+        BlockingQueue<DtoPage> pageQueue = new LinkedBlockingQueue<>();
+        try {
+            CrawlEngine busySite = crawlGovernor.register("https://busy.example.com/");
+            CrawlEngine quietSite = crawlGovernor.register("https://quiet.example.com/");
+            CrawlContext busyContext = createContext(urlHelper, pageQueue, busySite);
+            CrawlContext quietContext = createContext(urlHelper, pageQueue, quietSite);
+
+            // Act
+            for (int i = 0; i < 10; i++) {
+                busySite.execute(busyContext, "https://busy.example.com/" + i);
+            }
+            quietSite.execute(quietContext, "https://quiet.example.com/");
+            for (int i = 0; i < 500 && startOrder.size() < 2; i++) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            CrawlGovernorStats stats = crawlGovernor.getStats();
+            release.release();
+            for (int i = 0; i < 500 && startOrder.size() < 3; i++) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            release.release(10);
+            for (int i = 0; i < 11; i++) {
+                assertNotNull(pageQueue.poll(5, TimeUnit.SECONDS));
+            }
+
+            // Assert
+            assertEquals(2, stats.getActiveSites());
+            assertEquals(2, stats.getRunningTasks());
+            assertEquals(9, stats.getQueuedTasks());
+            assertEquals(1.0, stats.getUtilization());
+            assertEquals("https://quiet.example.com/", startOrder.get(2));
+            busySite.shutdownNow();
+            quietSite.shutdownNow();
+            assertEquals(0, crawlGovernor.getStats().getActiveSites());
+        } finally {
+            release.release(10);
+            crawlGovernor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Задачи, ожидавшие свободного места, выпускаются с соблюдением лимита хоста")
+    void testGovernorKeepsHostRateAfterSaturation() throws Exception {
+        // Arrange
+        CrawlGovernor crawlGovernor = createGovernor(CrawlEngineType.VIRTUAL_THREADS, 1, 1);
+        PolitenessScheduler politenessScheduler = new PolitenessScheduler();
+        Semaphore release = new Semaphore(0);
+        List<Long> startNanos = Collections.synchronizedList(new ArrayList<>());
+        UrlHelper urlHelper = mock(UrlHelper.class);
+        when(urlHelper.getHostFromPage(anyString())).thenReturn("slow.example.com");
+        when(urlHelper.fetchPage(anyString())).thenAnswer(invocation -> {
+            startNanos.add(System.nanoTime());
+            if (startNanos.size() == 1) {
+                release.acquire();
+            }
+            return Optional.empty();
+        });
+        BlockingQueue<DtoPage> pageQueue = new LinkedBlockingQueue<>();
+        CrawlEngine crawlEngine = crawlGovernor.register("https://slow.example.com/");
+        try {
+            CrawlContext crawlContext = createContext(urlHelper, pageQueue, crawlEngine,
+                    politenessScheduler, 10, 1);
+
+            // Act
+            for (int i = 0; i < 4; i++) {
+                crawlContext.submit("https://slow.example.com/" + i);
+            }
+            TimeUnit.MILLISECONDS.sleep(500);
+            release.release();
+            for (int i = 0; i < 4; i++) {
+                assertNotNull(pageQueue.poll(5, TimeUnit.SECONDS));
+            }
+
+            // Assert
+            for (int i = 2; i < startNanos.size(); i++) {
+                long gapMillis = TimeUnit.NANOSECONDS.toMillis(startNanos.get(i) - startNanos.get(i - 1));
+                assertTrue(gapMillis >= 90, "Пауза между запросами к хосту: " + gapMillis + " мс");
+            }
+        } finally {
+            release.release();
+            crawlEngine.shutdownNow();
+            crawlGovernor.shutdown();
+            politenessScheduler.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Задачи, снятые при остановке очереди сайта, считаются завершёнными")
+    void testShutdownNowCompletesDroppedTasks() throws Exception {
+        // Arrange
+        CrawlGovernor crawlGovernor = createGovernor(CrawlEngineType.VIRTUAL_THREADS, 1, 1);
+        Semaphore started = new Semaphore(0);
+        UrlHelper urlHelper = mock(UrlHelper.class);
+        when(urlHelper.getHostFromPage(anyString())).thenReturn("stopped.example.com");
+        when(urlHelper.fetchPage(anyString())).thenAnswer(invocation -> {
+            started.release();
+            new Semaphore(0).acquire();
+            return Optional.empty();
+        });
+        CrawlEngine crawlEngine = crawlGovernor.register("https://stopped.example.com/");
+        try {
+            CrawlContext crawlContext = createContext(urlHelper, new LinkedBlockingQueue<>(), crawlEngine);
+            for (int i = 0; i < 3; i++) {
+                crawlContext.submit("https://stopped.example.com/" + i);
+            }
+            assertTrue(started.tryAcquire(5, TimeUnit.SECONDS));
+
+            // Act
+            crawlEngine.shutdownNow();
+
+            // Assert
+            crawlContext.getCompletion().get(5, TimeUnit.SECONDS);
+            assertEquals(0, crawlGovernor.getStats().getQueuedTasks());
+        } finally {
+            crawlGovernor.shutdown();
+        }
+    }
+
+    private static CrawlContext createContext(UrlHelper urlHelper, BlockingQueue<DtoPage> pageQueue,
+                                              CrawlEngine crawlEngine) {
+        return createContext(urlHelper, pageQueue, crawlEngine, new PolitenessScheduler(), 100_000, 100_000);
+    }
+
+    private static CrawlContext createContext(UrlHelper urlHelper, BlockingQueue<DtoPage> pageQueue,
+                                              CrawlEngine crawlEngine, PolitenessScheduler politenessScheduler,
+                                              double requestsPerSecond, int burst) {
+        return new CrawlContext(new UrlFrontier(100, 100, 0.001), pageQueue, urlHelper,
+                IncrementalCrawlState.none(), NearDuplicateDetector.disabled(),
+                UrlCanonicalizer.fromSettings(new CrawlerSettings()),
+                UrlClassifier.fromSettings(new CrawlerSettings()), new CrawlerMetrics(),
+                politenessScheduler, crawlEngine, requestsPerSecond, burst);
+    }
+
+    private static CrawlGovernor createGovernor(CrawlEngineType engineType, int globalConcurrency,
+                                                int siteConcurrency) {
+        CrawlerSettings crawlerSettings = new CrawlerSettings();
+        crawlerSettings.setEngine(engineType);
+        crawlerSettings.setGlobalConcurrency(globalConcurrency);
+        crawlerSettings.setSiteConcurrency(siteConcurrency);
+        crawlerSettings.setGovernorReportIntervalSeconds(0);
+        return new CrawlGovernor(crawlerSettings);
+    }
+}
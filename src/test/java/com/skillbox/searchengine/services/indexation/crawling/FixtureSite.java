@@ -0,0 +1,134 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.config.ConnectionToSite;
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.dto.indexing.DtoPage;
+import com.skillbox.searchengine.utils.UrlHelper;
+import com.skillbox.searchengine.utils.fetching.HttpClientPageFetcher;
+import com.skillbox.searchengine.utils.fetching.JsoupPageFetcher;
+import com.skillbox.searchengine.utils.fetching.PageFetcher;
+import com.skillbox.searchengine.utils.fetching.PageFetcherType;
+import com.skillbox.searchengine.utils.metrics.CrawlerMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Локальный тестовый сайт для проверки и сравнения механизмов обхода.
+ * <p>
+ * Главная страница ссылается на разделы, каждый раздел — на свои страницы.
+ * Каждая страница отдаётся с искусственной задержкой, имитирующей сеть.
+ */
+public class FixtureSite implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private final int sections;
+    private final int pagesPerSection;
+    private final long latencyMillis;
+
+    public FixtureSite(int sections, int pagesPerSection, long latencyMillis) throws IOException {
+        this.sections = sections;
+        this.pagesPerSection = pagesPerSection;
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(serverExecutor);
+        this.server.start();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    public int getPageCount() {
+        return 1 + sections + sections * pagesPerSection;
+    }
+
+    /**
+     * Обходит сайт заданным механизмом и возвращает адреса собранных страниц.
+     *
+     * @param crawlEngine Механизм обхода.
+     * @param fetcherType Реализация загрузчика страниц.
+     * @return Адреса собранных страниц.
+     */
+    public Set<String> crawl(CrawlEngine crawlEngine, PageFetcherType fetcherType) throws Exception {
+        ConnectionToSite connectionToSite = new ConnectionToSite();
+        connectionToSite.setUserAgent("FixtureCrawler");
+        connectionToSite.setReferrer("http://localhost");
+        PageFetcher pageFetcher = fetcherType == PageFetcherType.JSOUP
+                ? new JsoupPageFetcher(connectionToSite)
+                : new HttpClientPageFetcher(connectionToSite);
+        UrlHelper urlHelper = new UrlHelper(pageFetcher);
+        LinkedBlockingQueue<DtoPage> pageQueue = new LinkedBlockingQueue<>();
+        UrlFrontier frontier = new UrlFrontier(Integer.MAX_VALUE, getPageCount(), 0.001);
+        PolitenessScheduler politenessScheduler = new PolitenessScheduler();
+        try {
+            CrawlContext crawlContext = new CrawlContext(frontier, pageQueue, urlHelper,
+                    IncrementalCrawlState.none(), NearDuplicateDetector.disabled(),
+                    UrlCanonicalizer.fromSettings(new CrawlerSettings()),
+                    UrlClassifier.fromSettings(new CrawlerSettings()), new CrawlerMetrics(),
+                    politenessScheduler, crawlEngine, 100_000, 100_000);
+            frontier.markVisited(getUrl());
+            crawlContext.submit(getUrl());
+            crawlContext.getCompletion().get(10, TimeUnit.MINUTES);
+        } finally {
+            crawlEngine.shutdownNow();
+            politenessScheduler.shutdown();
+        }
+        Set<String> paths = new TreeSet<>();
+        for (DtoPage page : pageQueue) {
+            paths.add(page.getPath());
+        }
+        return paths;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String path = exchange.getRequestURI().getPath();
+        StringBuilder body = new StringBuilder("<html><head><title>")
+                .append(path).append("</title></head><body>");
+        if (path.equals("/")) {
+            for (int section = 0; section < sections; section++) {
+                appendLink(body, "/section-" + section + "/");
+            }
+        } else if (path.matches("/section-\\d+/?")) {
+            String sectionPath = path.endsWith("/") ? path : path + "/";
+            for (int page = 0; page < pagesPerSection; page++) {
+                appendLink(body, sectionPath + "page-" + page);
+            }
+        }
+        body.append("<p>Тестовая страница ").append(path).append("</p></body></html>");
+
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    private void appendLink(StringBuilder body, String href) {
+        body.append("<a href=\"").append(href).append("\">").append(href).append("</a>");
+    }
+}
@@ -0,0 +1,53 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HostTokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Запросы сверх ёмкости ведра откладываются на интервал пополнения")
+    void testReserve_DelaysRequestsBeyondBurst() {
+        // Arrange
+        HostTokenBucket bucket = new HostTokenBucket(2, 2);
+        long now = 10 * SECOND;
+
+        // Act & Assert
+        assertEquals(0, bucket.reserve(now));
+        assertEquals(0, bucket.reserve(now));
+        assertEquals(SECOND / 2, bucket.reserve(now));
+        assertEquals(SECOND, bucket.reserve(now));
+    }
+
+    @Test
+    @DisplayName("После паузы ведро снова пропускает запросы без задержки")
+    void testReserve_RefillsAfterIdle() {
+        // Arrange
+        HostTokenBucket bucket = new HostTokenBucket(1, 1);
+        long now = 10 * SECOND;
+        bucket.reserve(now);
+
+        // Act & Assert
+        assertEquals(SECOND, bucket.reserve(now));
+        assertEquals(0, bucket.reserve(now + 5 * SECOND));
+    }
+
+    @Test
+    @DisplayName("Попытка забрать отсутствующий маркер ничего не резервирует")
+    void testTryAcquire_DoesNotReserveWhenEmpty() {
+        // Arrange
+        HostTokenBucket bucket = new HostTokenBucket(2, 1);
+        long now = 10 * SECOND;
+
+        // Act & Assert
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(SECOND / 2, bucket.tryAcquire(now));
+        assertEquals(SECOND / 4, bucket.tryAcquire(now + SECOND / 4));
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 2));
+        assertEquals(SECOND / 2, bucket.tryAcquire(now + SECOND / 2));
+    }
+}
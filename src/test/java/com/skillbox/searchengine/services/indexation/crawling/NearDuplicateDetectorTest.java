@@ -0,0 +1,94 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearDuplicateDetectorTest {
+
+    private static final String ARTICLE = buildCatalogPage();
+
+    @Test
+    @DisplayName("Копия страницы с небольшим отличием признаётся почти одинаковой")
+    void testFindDuplicateOrRegister_DetectsNearDuplicate() {
+        // Arrange
+        NearDuplicateDetector detector = new NearDuplicateDetector(3);
+        detector.findDuplicateOrRegister("https://example.com/item", ARTICLE);
+
+        // Act
+        String original = detector.findDuplicateOrRegister("https://example.com/item?print=1",
+                ARTICLE + " Версия для печати.");
+
+        // Assert
+        assertEquals("https://example.com/item", original);
+        assertEquals(1, detector.getDuplicatePages());
+        assertEquals(2, detector.getCheckedPages());
+    }
+
+    @Test
+    @DisplayName("Страница с другим текстом не считается копией")
+    void testFindDuplicateOrRegister_KeepsDistinctPages() {
+        // Arrange
+        NearDuplicateDetector detector = new NearDuplicateDetector(3);
+        detector.findDuplicateOrRegister("https://example.com/item", ARTICLE);
+
+        // Act
+        String original = detector.findDuplicateOrRegister("https://example.com/contacts",
+                "Наш офис находится в Москве, звоните по будням с девяти до шести часов вечера, "
+                        + "менеджеры ответят на вопросы о заказах, возврате и обмене товаров.");
+
+        // Assert
+        assertNull(original);
+        assertEquals(0, detector.getDuplicatePages());
+    }
+
+    @Test
+    @DisplayName("Копия страницы, сохранённой до возобновления обхода, признаётся почти одинаковой")
+    void testRegister_DetectsCopyOfStoredPage() {
+        // Arrange
+        NearDuplicateDetector detector = new NearDuplicateDetector(3);
+        detector.register("https://example.com/item", ARTICLE);
+
+        // Act
+        String original = detector.findDuplicateOrRegister("https://example.com/item?print=1",
+                ARTICLE + " Версия для печати.");
+
+        // Assert
+        assertEquals("https://example.com/item", original);
+        assertEquals(1, detector.getDuplicatePages());
+        assertEquals(1, detector.getCheckedPages());
+    }
+
+    @Test
+    @DisplayName("Близкие тексты дают отпечатки на малом расстоянии Хэмминга")
+    void testSimHash_SimilarTextsAreClose() {
+        long first = SimHash.fingerprint(ARTICLE);
+        long second = SimHash.fingerprint(ARTICLE.replace("пылесосы", "утюги"));
+
+        assertTrue(SimHash.distance(first, second) < SimHash.distance(first,
+                SimHash.fingerprint("Совершенно другой текст о погоде и путешествиях по горам")));
+    }
+
+    @Test
+    @DisplayName("Отключённый поиск не считает копией даже одинаковые страницы")
+    void testDisabled_NeverReportsDuplicates() {
+        NearDuplicateDetector detector = NearDuplicateDetector.disabled();
+        detector.findDuplicateOrRegister("https://example.com/a", ARTICLE);
+
+        assertNull(detector.findDuplicateOrRegister("https://example.com/b", ARTICLE));
+    }
+
+    private static String buildCatalogPage() {
+        StringBuilder page = new StringBuilder("Каталог бытовой техники. ");
+        String[] products = {"Холодильник", "Стиральная машина", "Пылесос", "Микроволновая печь"};
+        for (int i = 0; i < 10; i++) {
+            page.append(products[i % products.length]).append(" модель ").append(i)
+                    .append(": гарантия производителя, оплата при получении, доставка по всей России, ")
+                    .append("самовывоз из пунктов выдачи. ");
+        }
+        return page.toString();
+    }
+}
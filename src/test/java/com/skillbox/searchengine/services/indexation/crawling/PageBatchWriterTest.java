@@ -0,0 +1,156 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.dto.indexing.DtoPage;
+import com.skillbox.searchengine.dto.indexing.PageValidators;
+import com.skillbox.searchengine.model.PageEntity;
+import com.skillbox.searchengine.model.SiteEntity;
+import com.skillbox.searchengine.repository.PageRepository;
+import com.skillbox.searchengine.services.indexation.indexing.IncrementalIndexUpdater;
+import com.skillbox.searchengine.services.indexation.lemmatization.LemmasCollector;
+import com.skillbox.searchengine.services.indexation.lemmatization.SiteLemmas;
+import com.skillbox.searchengine.services.indexation.lemmatization.StoredPageText;
+import com.skillbox.searchengine.utils.UrlHelper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PageBatchWriterTest {
+
+    @Mock
+    private PageRepository pageRepository;
+    @Mock
+    private UrlHelper urlHelper;
+    @Mock
+    private IncrementalIndexUpdater indexUpdater;
+    @Mock
+    private LemmasCollector lemmasCollector;
+
+    @Test
+    @DisplayName("Страницы из очереди сохраняются пачками заданного размера")
+    void testWriteUntilDone_SavesPagesInBatches() throws InterruptedException {
+        // Arrange
+        BlockingQueue<DtoPage> pageQueue = new ArrayBlockingQueue<>(300);
+        for (int i = 0; i < 250; i++) {
+            pageQueue.add(new DtoPage(200, "https://example.com/" + i, "content", null, null));
+        }
+        when(urlHelper.getPathToPage(anyString())).thenReturn("/");
+        PageBatchWriter writer = new PageBatchWriter(pageRepository, urlHelper,
+                new SiteEntity(), pageQueue, 100);
+
+        // Act
+        int savedPages = writer.writeUntilDone(CompletableFuture.completedFuture(null));
+
+        // Assert
+        assertEquals(250, savedPages);
+        verify(pageRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("При полном обходе каждая сохранённая страница лемматизируется один раз")
+    void testWriteUntilDone_CollectsLemmasOfSavedPages() throws InterruptedException {
+        // Arrange
+        BlockingQueue<DtoPage> pageQueue = new ArrayBlockingQueue<>(10);
+        pageQueue.add(new DtoPage(200, "https://example.com/a", "<p>первая</p>", null, null,
+                "A", "первая", ""));
+        pageQueue.add(new DtoPage(200, "https://example.com/b", "<p>вторая</p>", null, null,
+                "B", "вторая", ""));
+        when(urlHelper.getPathToPage(anyString())).thenReturn("/");
+        AtomicLong pageIds = new AtomicLong();
+        when(pageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PageEntity> pages = invocation.getArgument(0);
+            pages.forEach(page -> page.setId(pageIds.incrementAndGet()));
+            return pages;
+        });
+        SiteLemmas siteLemmas = new SiteLemmas();
+        List<String> lemmatizedTexts = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<StoredPageText> pages = invocation.getArgument(1);
+            pages.forEach(page -> lemmatizedTexts.add(page.getText()));
+            return null;
+        }).when(lemmasCollector).collectPages(eq(siteLemmas), anyList());
+        PageBatchWriter writer = new PageBatchWriter(pageRepository, urlHelper, new SiteEntity(),
+                pageQueue, 100, IncrementalCrawlState.none(), null, null, lemmasCollector, siteLemmas);
+
+        // Act
+        writer.writeUntilDone(CompletableFuture.completedFuture(null));
+
+        // Assert
+        assertEquals(List.of("первая", "вторая"), lemmatizedTexts);
+        verify(pageRepository, never()).findTextsBySiteId(any());
+    }
+
+    @Test
+    @DisplayName("При инкрементальном обходе сохраняются только изменившиеся страницы")
+    void testWriteUntilDone_IncrementalSkipsNotModifiedPages() throws InterruptedException {
+        // Arrange
+        when(pageRepository.findValidatorsBySiteId(1L)).thenReturn(List.of(
+                validators(1L, "/same"), validators(2L, "/changed"), validators(3L, "/removed")));
+        BlockingQueue<DtoPage> pageQueue = new ArrayBlockingQueue<>(10);
+        pageQueue.add(new DtoPage(304, "https://example.com/same", null, "\"a\"", null));
+        pageQueue.add(new DtoPage(200, "https://example.com/changed", "content", "\"b\"", null));
+        pageQueue.add(new DtoPage(200, "https://example.com/new", "content", null, null));
+        when(urlHelper.getPathToPage(anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(0, String.class)
+                        .substring("https://example.com".length()));
+        SiteEntity siteEntity = new SiteEntity();
+        IncrementalCrawlState crawlState = IncrementalCrawlState.load(pageRepository, 1L);
+        PageBatchWriter writer = new PageBatchWriter(pageRepository, urlHelper,
+                siteEntity, pageQueue, 100, crawlState, indexUpdater, null, null, null);
+
+        // Act
+        int savedPages = writer.writeUntilDone(CompletableFuture.completedFuture(null));
+
+        // Assert
+        assertEquals(2, savedPages);
+        verify(indexUpdater).removePage(siteEntity, 2L);
+        verify(indexUpdater, times(2)).addPage(any());
+        verify(indexUpdater, never()).removePage(eq(siteEntity), eq(1L));
+        assertEquals(List.of(3L), crawlState.findUnseenPages().stream()
+                .map(PageValidators::getId).toList());
+    }
+
+    private static PageValidators validators(Long id, String path) {
+        return new PageValidators() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getPath() {
+                return path;
+            }
+
+            @Override
+            public String getEtag() {
+                return null;
+            }
+
+            @Override
+            public String getLastModified() {
+                return null;
+            }
+        };
+    }
+}
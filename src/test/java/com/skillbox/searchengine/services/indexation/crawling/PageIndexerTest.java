@@ -1,23 +1,36 @@
 package com.skillbox.searchengine.services.indexation.crawling;
 
+import com.skillbox.searchengine.config.CrawlerSettings;
 import com.skillbox.searchengine.config.Site;
 import com.skillbox.searchengine.config.SitesList;
+import com.skillbox.searchengine.model.PageEntity;
+import com.skillbox.searchengine.model.SiteEntity;
 import com.skillbox.searchengine.repository.PageRepository;
 import com.skillbox.searchengine.repository.SiteRepository;
 import com.skillbox.searchengine.utils.MessageLogs;
+import com.skillbox.searchengine.services.indexation.indexing.SitePurger;
 import com.skillbox.searchengine.utils.UrlHelper;
+import com.skillbox.searchengine.utils.fetching.FetchedPage;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class PageIndexerTest {
@@ -30,6 +43,10 @@ class PageIndexerTest {
     private SitesList sitesList;
     @Mock
     private UrlHelper urlHelper;
+    @Mock
+    private SitePurger sitePurger;
+    @Spy
+    private CrawlerSettings crawlerSettings = new CrawlerSettings();
     @InjectMocks
     private PageIndexer pageIndexer;
 
@@ -41,7 +58,7 @@ class PageIndexerTest {
         List<Site> mockSites = new ArrayList<>();
         mockSites.add(new Site("example.com", "Пример сайта"));
         Mockito.lenient().when(sitesList.getSites()).thenReturn(mockSites);
-        Mockito.lenient().when(urlHelper.getHostFromPage(invalidPage)).thenReturn("invalid-url.ru");
+        Mockito.lenient().when(urlHelper.getHostFromPage(anyString())).thenReturn("invalid-url.ru");
 
         // Act
         Throwable exception = assertThrows(
@@ -53,5 +70,26 @@ class PageIndexerTest {
         assertEquals(MessageLogs.PAGE_OUTSIDE_CONFIGURED_SITES, exception.getMessage());
     }
 
+    @Test
+    @DisplayName("Ссылка с косой чертой и метками рекламы заменяет каноническую страницу, сохранённую обходчиком")
+    void testStart_CanonicalizesLinkBeforeLookup() {
+        // Arrange
+        String canonicalPage = "https://example.com/page";
+        SiteEntity siteEntity = new SiteEntity();
+        PageEntity storedPage = new PageEntity();
+        storedPage.setId(7L);
+        when(urlHelper.getHostFromPage(canonicalPage)).thenReturn("example.com");
+        when(urlHelper.getPathToPage(canonicalPage)).thenReturn("/page");
+        when(siteRepository.findFirstByUrlLikeAndLiveTrue("%example.com%")).thenReturn(siteEntity);
+        when(pageRepository.findBySiteIdAndPath(siteEntity, "/page")).thenReturn(storedPage);
+        when(urlHelper.fetchPage(canonicalPage)).thenReturn(Optional.of(
+                new FetchedPage(200, Jsoup.parse("<title>Страница</title><p>текст</p>"), null, null)));
 
+        // Act
+        pageIndexer.start("https://example.com/page/?utm_source=x#top");
+
+        // Assert
+        verify(sitePurger).purgePages(List.of(7L));
+        verify(pageRepository).save(any(PageEntity.class));
+    }
 }
\ No newline at end of file
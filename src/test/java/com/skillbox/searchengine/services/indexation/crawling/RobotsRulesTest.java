@@ -0,0 +1,63 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RobotsRulesTest {
+
+    private static final String ROBOTS_TXT = """
+            # Пример robots.txt
+            User-agent: *
+            Disallow: /search
+            Disallow: /cart/
+            Allow: /cart/help
+            Disallow: /*.php$
+            Crawl-delay: 2
+
+            User-agent: HeliontSearchBot
+            Disallow: /private/
+
+            Sitemap: https://www.playback.ru/sitemap.xml
+            """;
+
+    @Test
+    @DisplayName("Для обходчика без своей группы действуют правила группы *")
+    void testIsAllowed_UsesWildcardGroup() {
+        UrlClassifier urlClassifier = UrlClassifier.fromSettings(new CrawlerSettings(),
+                RobotsRules.parse(ROBOTS_TXT, "Mozilla/5.0 (compatible; OtherBot/1.0)"));
+
+        assertTrue(urlClassifier.isCrawlable("https://www.playback.ru/catalog/1652.html"));
+        assertFalse(urlClassifier.isCrawlable("https://www.playback.ru/search?q=phone"));
+        assertFalse(urlClassifier.isCrawlable("https://www.playback.ru/cart/"));
+        assertTrue(urlClassifier.isCrawlable("https://www.playback.ru/cart/help"));
+        assertFalse(urlClassifier.isCrawlable("https://www.playback.ru/list.php"));
+        assertTrue(urlClassifier.isCrawlable("https://www.playback.ru/list.php?SECTION_ID=5"));
+    }
+
+    @Test
+    @DisplayName("Группа с названием обходчика заменяет группу *")
+    void testIsAllowed_UsesMatchingAgentGroup() {
+        RobotsRules robotsRules = RobotsRules.parse(ROBOTS_TXT, "HeliontSearchBot/1.0");
+        UrlClassifier urlClassifier = UrlClassifier.fromSettings(new CrawlerSettings(), robotsRules);
+
+        assertFalse(urlClassifier.isCrawlable("https://www.playback.ru/private/1"));
+        assertTrue(urlClassifier.isCrawlable("https://www.playback.ru/search?q=phone"));
+        assertEquals(0, robotsRules.getCrawlDelaySeconds());
+    }
+
+    @Test
+    @DisplayName("Crawl-delay и карты сайта читаются из файла")
+    void testParse_ReadsCrawlDelayAndSitemaps() {
+        RobotsRules robotsRules = RobotsRules.parse(ROBOTS_TXT, "OtherBot");
+
+        assertEquals(2, robotsRules.getCrawlDelaySeconds());
+        assertEquals(List.of("https://www.playback.ru/sitemap.xml"), robotsRules.getSitemaps());
+    }
+}
@@ -0,0 +1,56 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.config.ConnectionToSite;
+import com.skillbox.searchengine.config.CrawlerSettings;
+import com.skillbox.searchengine.utils.UrlHelper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SiteSeederTest {
+
+    private static final String SITE = "https://example.com/";
+    private static final SiteSeeder.HostLimit HOST_LIMIT = new SiteSeeder.HostLimit(0.5, 1);
+
+    @Test
+    @DisplayName("robots.txt и карты сайта загружаются только после получения маркера хоста")
+    void testFetches_WaitForHostToken() throws InterruptedException {
+        // Arrange
+        UrlHelper urlHelper = mock(UrlHelper.class);
+        PolitenessScheduler politenessScheduler = mock(PolitenessScheduler.class);
+        when(urlHelper.getHostFromPage(anyString())).thenReturn("example.com");
+        when(urlHelper.fetchResource(SITE + "robots.txt")).thenReturn(Optional.of(
+                "User-agent: *\nSitemap: https://example.com/index.xml\n".getBytes(StandardCharsets.UTF_8)));
+        when(urlHelper.fetchResource(SITE + "index.xml")).thenReturn(Optional.of(
+                "<sitemapindex><sitemap><loc>https://example.com/pages.xml</loc></sitemap></sitemapindex>"
+                        .getBytes(StandardCharsets.UTF_8)));
+        when(urlHelper.fetchResource(SITE + "pages.xml")).thenReturn(Optional.of(
+                "<urlset><url><loc>https://example.com/a</loc></url></urlset>".getBytes(StandardCharsets.UTF_8)));
+        ConnectionToSite connectionToSite = new ConnectionToSite();
+        connectionToSite.setUserAgent("SeederTest");
+        SiteSeeder siteSeeder = new SiteSeeder(urlHelper, new CrawlerSettings(), connectionToSite,
+                politenessScheduler);
+
+        // Act
+        RobotsRules robotsRules = siteSeeder.loadRobotsRules(SITE, HOST_LIMIT);
+        List<String> urls = siteSeeder.collectSitemapUrls(SITE, robotsRules, HOST_LIMIT);
+
+        // Assert
+        assertEquals(List.of("https://example.com/a"), urls);
+        InOrder order = inOrder(politenessScheduler, urlHelper);
+        for (String path : List.of("robots.txt", "index.xml", "pages.xml")) {
+            order.verify(politenessScheduler).acquire("example.com", 0.5, 1);
+            order.verify(urlHelper).fetchResource(SITE + path);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UrlCanonicalizerTest {
+
+    private final UrlCanonicalizer urlCanonicalizer = UrlCanonicalizer.fromSettings(new CrawlerSettings());
+
+    @Test
+    @DisplayName("Разные записи одного адреса сводятся к одной ссылке")
+    void testCanonicalize_CollapsesEquivalentUrls() {
+        // Arrange
+        List<String> variants = List.of(
+                "https://www.playback.ru/a",
+                "https://www.playback.ru/a/",
+                "https://www.playback.ru/a?utm_source=x",
+                "HTTPS://WWW.Playback.RU/a",
+                "https://www.playback.ru/a/./",
+                "https://www.playback.ru:443/b/../a#top",
+                "https://www.playback.ru/a?_ga=2.1&utm_medium=email");
+
+        // Act
+        Set<String> canonical = variants.stream()
+                .map(urlCanonicalizer::canonicalize)
+                .collect(Collectors.toSet());
+
+        // Assert
+        assertEquals(Set.of("https://www.playback.ru/a"), canonical);
+    }
+
+    @ParameterizedTest
+    @DisplayName("Ссылка приводится к каноническому виду")
+    @CsvSource(delimiter = '|', value = {
+            "https://www.playback.ru|https://www.playback.ru/",
+            "http://Example.com:80/|http://example.com/",
+            "http://example.com:8080/a/|http://example.com:8080/a",
+            "https://example.com/list.php?sort=price&id=5|https://example.com/list.php?id=5&sort=price",
+            "https://example.com/a/b/c/./../../g|https://example.com/a/g",
+            "https://example.com/%d0%b0|https://example.com/%D0%B0",
+            "https://example.com/?utm_source=x|https://example.com/",
+            "mailto:info@example.com|mailto:info@example.com"
+    })
+    void testCanonicalize_NormalizesUrl(String link, String expected) {
+        assertEquals(expected, urlCanonicalizer.canonicalize(link));
+    }
+
+    @Test
+    @DisplayName("При политике ADD косая черта добавляется только к путям без расширения")
+    void testCanonicalize_AddsTrailingSlash() {
+        UrlCanonicalizer canonicalizer = new UrlCanonicalizer(TrailingSlashPolicy.ADD, List.of());
+
+        assertEquals("https://example.com/catalog/", canonicalizer.canonicalize("https://example.com/catalog"));
+        assertEquals("https://example.com/item.html", canonicalizer.canonicalize("https://example.com/item.html"));
+    }
+}
@@ -0,0 +1,50 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import com.skillbox.searchengine.config.CrawlerSettings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UrlClassifierTest {
+
+    private final UrlClassifier urlClassifier = UrlClassifier.fromSettings(new CrawlerSettings());
+
+    @ParameterizedTest
+    @DisplayName("Обычные страницы сайта обходятся")
+    @ValueSource(strings = {
+            "https://www.playback.ru/catalog/1652.html",
+            "http://www.playback.ru/catalog/",
+            "HTTPS://www.playback.ru/news/item-15/",
+            "https://www.playback.ru/list.php?SECTION_ID=5&sort=price",
+            "https://www.playback.ru/docs/guide.doc.html",
+            "https://www.playback.ru",
+            "https://www.playback.ru/?utm_ga=1"
+    })
+    void testIsCrawlable_AcceptsPages(String link) {
+        assertTrue(urlClassifier.isCrawlable(link));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Файлы, якоря, служебные схемы и параметры отслеживания не обходятся")
+    @ValueSource(strings = {
+            "https://www.playback.ru/upload/iblock/photo.jpg",
+            "https://www.playback.ru/upload/iblock/photo.JPEG",
+            "https://www.playback.ru/upload/price.xlsx?v=2",
+            "https://www.playback.ru/upload/manual.pdf",
+            "https://www.playback.ru/catalog/1652.html#comments",
+            "https://www.playback.ru/catalog/1652.html?_ga=2.17",
+            "https://www.playback.ru/catalog/1652.html?id=1&_gac=3",
+            "mailto:info@playback.ru",
+            "javascript:void(0)",
+            "ftp://www.playback.ru/file",
+            "https://www.playback.ru/каталог/",
+            "https://www.playback.ru/catalog.",
+            "https://"
+    })
+    void testIsCrawlable_RejectsNonPages(String link) {
+        assertFalse(urlClassifier.isCrawlable(link));
+    }
+}
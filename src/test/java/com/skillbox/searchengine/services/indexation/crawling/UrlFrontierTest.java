@@ -0,0 +1,104 @@
+package com.skillbox.searchengine.services.indexation.crawling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UrlFrontierTest {
+
+    @Test
+    @DisplayName("Повторная ссылка не принимается ни в точном режиме, ни в фильтре Блума")
+    void testMarkVisited_RejectsRepeatedUrl() {
+        // Arrange
+        UrlFrontier frontier = new UrlFrontier(1, 1000, 0.001);
+
+        // Act & Assert
+        assertTrue(frontier.markVisited("https://example.com/a"));
+        assertFalse(frontier.markVisited("https://example.com/a"));
+        assertTrue(frontier.markVisited("https://example.com/b"));
+        assertFalse(frontier.markVisited("https://example.com/b"));
+        assertEquals(2, frontier.size());
+    }
+
+    @Test
+    @DisplayName("При конкурентном доступе каждая ссылка принимается ровно один раз")
+    void testMarkVisited_AcceptsEachUrlOnceUnderContention() throws InterruptedException {
+        // Arrange
+        UrlFrontier frontier = new UrlFrontier(Integer.MAX_VALUE, 1000, 0.001);
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // Act
+        for (int thread = 0; thread < 16; thread++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (frontier.markVisited("https://example.com/" + i)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(1000, accepted.get());
+        assertEquals(1000, frontier.size());
+        assertEquals(1000, frontier.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Снимок восстанавливает посещённые и ожидающие ссылки")
+    void testWriteToReadFrom_RestoresVisitedAndPendingUrls() throws IOException {
+        // Arrange
+        UrlFrontier frontier = new UrlFrontier(2, 1000, 0.001);
+        frontier.markVisited("https://example.com/a");
+        frontier.markVisited("https://example.com/b");
+        frontier.markVisited("https://example.com/c");
+        frontier.markProcessed("https://example.com/a");
+        frontier.markProcessed("https://example.com/c");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        frontier.writeTo(new DataOutputStream(bytes));
+
+        // Act
+        UrlFrontier restored = new UrlFrontier(2, 1000, 0.001);
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // Assert
+        assertEquals(List.of("https://example.com/b"), restored.getPendingUrls());
+        assertEquals(3, restored.size());
+        assertFalse(restored.markVisited("https://example.com/a"));
+        assertFalse(restored.markVisited("https://example.com/c"));
+        assertTrue(restored.markVisited("https://example.com/d"));
+    }
+
+    @Test
+    @DisplayName("Повторная ссылка не возвращает обработанную страницу в ожидающие")
+    void testMarkVisited_RepeatedUrlDoesNotBecomePending() {
+        // Arrange
+        UrlFrontier frontier = new UrlFrontier(0, 1000, 0.001);
+        frontier.markVisited("https://example.com/a");
+        frontier.markProcessed("https://example.com/a");
+
+        // Act
+        boolean accepted = frontier.markVisited("https://example.com/a");
+
+        // Assert
+        assertFalse(accepted);
+        assertTrue(frontier.getPendingUrls().isEmpty());
+    }
+}
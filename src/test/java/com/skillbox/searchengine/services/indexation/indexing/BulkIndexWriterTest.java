@@ -0,0 +1,84 @@
+package com.skillbox.searchengine.services.indexation.indexing;
+
+import com.skillbox.searchengine.dto.indexing.DtoLemma;
+import com.skillbox.searchengine.model.SiteEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkIndexWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    @DisplayName("Записи индекса вставляются многострочными запросами по размеру пачки")
+    void testInsertIndexes_SplitsRowsIntoMultiRowInserts() throws SQLException {
+        // Arrange
+        IndexPostings postings = new IndexPostings(5);
+        for (int i = 0; i < 5; i++) {
+            postings.add(10L + i, 100L + i, i + 0.5f);
+        }
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenReturn(2, 2, 1);
+        BulkIndexWriter writer = new BulkIndexWriter(jdbcTemplate, 2);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<PreparedStatementSetter> setters = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+
+        // Act
+        int inserted = writer.insertIndexes(postings);
+
+        // Assert
+        assertEquals(5, inserted);
+        verify(jdbcTemplate, times(3)).update(sql.capture(), setters.capture());
+        assertEquals("INSERT INTO `index` (page_id, lemma_id, `rank`) VALUES (?, ?, ?), (?, ?, ?)",
+                sql.getAllValues().get(0));
+        assertEquals("INSERT INTO `index` (page_id, lemma_id, `rank`) VALUES (?, ?, ?)",
+                sql.getAllValues().get(2));
+        PreparedStatement statement = mock(PreparedStatement.class);
+        setters.getAllValues().get(1).setValues(statement);
+        verify(statement).setLong(1, 12L);
+        verify(statement).setLong(2, 102L);
+        verify(statement).setFloat(3, 2.5f);
+        verify(statement).setLong(4, 13L);
+    }
+
+    @Test
+    @DisplayName("Леммы сайта вставляются одним запросом, если помещаются в пачку")
+    void testInsertLemmas_SingleStatementForSmallSite() throws SQLException {
+        // Arrange
+        SiteEntity siteEntity = new SiteEntity();
+        siteEntity.setId(7L);
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenReturn(2);
+        BulkIndexWriter writer = new BulkIndexWriter(jdbcTemplate, 1000);
+        ArgumentCaptor<PreparedStatementSetter> setter = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+
+        // Act
+        int inserted = writer.insertLemmas(siteEntity, List.of(new DtoLemma("цена", 3), new DtoLemma("товар", 1)));
+
+        // Assert
+        assertEquals(2, inserted);
+        verify(jdbcTemplate).update(
+                eq("INSERT INTO lemma (site_id, lemma, frequency) VALUES (?, ?, ?), (?, ?, ?)"),
+                setter.capture());
+        PreparedStatement statement = mock(PreparedStatement.class);
+        setter.getValue().setValues(statement);
+        verify(statement).setLong(4, 7L);
+        verify(statement).setString(5, "товар");
+        verify(statement).setInt(6, 1);
+    }
+}
@@ -0,0 +1,61 @@
+package com.skillbox.searchengine.services.indexation.indexing;
+
+import com.skillbox.searchengine.model.LemmaEntity;
+import com.skillbox.searchengine.model.SiteEntity;
+import com.skillbox.searchengine.repository.LemmaRepository;
+import com.skillbox.searchengine.services.indexation.lemmatization.LemmaDictionary;
+import com.skillbox.searchengine.services.indexation.lemmatization.PageLemmas;
+import com.skillbox.searchengine.services.indexation.lemmatization.SiteLemmas;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndexBuilderTest {
+
+    @Mock
+    private LemmaRepository lemmaRepository;
+
+    @Test
+    @DisplayName("Записи индекса строятся по леммам страниц с идентификаторами сохранённых лемм")
+    void testBuildIndexesForSite_UsesStoredLemmaIds() {
+        // Arrange
+        LemmaDictionary dictionary = new LemmaDictionary();
+        int phone = dictionary.intern("телефон");
+        int price = dictionary.intern("цена");
+        int unsaved = dictionary.intern("несохранённая");
+        SiteLemmas siteLemmas = new SiteLemmas(dictionary);
+        siteLemmas.addPage(new PageLemmas(10L, new int[]{phone, price, unsaved}, new int[]{3, 1, 5}));
+        siteLemmas.addPage(new PageLemmas(11L, new int[]{price}, new int[]{2}));
+        SiteEntity siteEntity = new SiteEntity();
+        siteEntity.setId(1L);
+        when(lemmaRepository.findBySiteId(1L)).thenReturn(List.of(
+                lemma(101L, "цена"), lemma(100L, "телефон"), lemma(102L, "чужая")));
+        IndexBuilder indexBuilder = new IndexBuilder(lemmaRepository);
+
+        // Act
+        IndexPostings postings = indexBuilder.buildIndexesForSite(siteEntity, siteLemmas);
+
+        // Assert
+        List<String> actual = new ArrayList<>();
+        for (int i = 0; i < postings.size(); i++) {
+            actual.add(postings.getPageId(i) + ":" + postings.getLemmaId(i) + ":" + postings.getRank(i));
+        }
+        assertEquals(List.of("10:100:3.0", "10:101:1.0", "11:101:2.0"), actual);
+    }
+
+    private static LemmaEntity lemma(Long id, String word) {
+        LemmaEntity lemmaEntity = new LemmaEntity();
+        lemmaEntity.setId(id);
+        lemmaEntity.setLemma(word);
+        return lemmaEntity;
+    }
+}
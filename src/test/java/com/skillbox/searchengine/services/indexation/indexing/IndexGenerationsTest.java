@@ -0,0 +1,129 @@
+package com.skillbox.searchengine.services.indexation.indexing;
+
+import com.skillbox.searchengine.config.Site;
+import com.skillbox.searchengine.model.SiteEntity;
+import com.skillbox.searchengine.model.SiteStatus;
+import com.skillbox.searchengine.repository.SiteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndexGenerationsTest {
+
+    private static final String URL = "https://example.com";
+
+    private final SiteRepository siteRepository = mock(SiteRepository.class);
+    private final SitePurger sitePurger = mock(SitePurger.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final IndexGenerations indexGenerations =
+            new IndexGenerations(siteRepository, sitePurger, jdbcTemplate, 0);
+
+    @AfterEach
+    void tearDown() {
+        indexGenerations.shutdown();
+    }
+
+    @Test
+    @DisplayName("Новое поколение строится рядом с действующим, недостроенное удаляется")
+    void testCreateGeneration_KeepsLiveAndPurgesAbandoned() {
+        // Arrange
+        SiteEntity live = generation(1L, 3, true);
+        SiteEntity abandoned = generation(2L, 4, false);
+        when(siteRepository.findAllByUrl(URL)).thenReturn(List.of(live, abandoned));
+        when(siteRepository.save(any(SiteEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        SiteEntity created = indexGenerations.createGeneration(site());
+
+        // Assert
+        verify(sitePurger).purgeSite(2L, URL);
+        verify(sitePurger, never()).purgeSite(1L, URL);
+        assertEquals(4, created.getGeneration());
+        assertFalse(created.isLive());
+        assertEquals(SiteStatus.INDEXING, created.getStatus());
+    }
+
+    @Test
+    @DisplayName("Прежнее поколение, ожидающее фонового удаления, не удаляется при создании нового")
+    void testCreateGeneration_DefersPurgeOfPreviousGeneration() {
+        // Arrange
+        IndexGenerations delayedGenerations = new IndexGenerations(siteRepository, sitePurger, jdbcTemplate, 3600);
+        SiteEntity previous = generation(1L, 2, false);
+        SiteEntity live = generation(2L, 3, true);
+        when(siteRepository.findAllByUrl(URL)).thenReturn(List.of(previous, live));
+        when(siteRepository.save(any(SiteEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        SiteEntity created = delayedGenerations.createGeneration(site());
+        delayedGenerations.shutdown();
+
+        // Assert
+        verify(sitePurger, never()).purgeSite(anyLong(), anyString());
+        assertEquals(4, created.getGeneration());
+    }
+
+    @Test
+    @DisplayName("Построенное поколение становится действующим, прежнее удаляется в фоне")
+    void testActivate_SwitchesLiveAndPurgesPrevious() {
+        // Arrange
+        SiteEntity previous = generation(1L, 1, true);
+        SiteEntity built = generation(2L, 2, false);
+        when(siteRepository.findAllByUrl(URL)).thenReturn(List.of(previous, built));
+
+        // Act
+        indexGenerations.activate(built);
+
+        // Assert
+        verify(jdbcTemplate).update("UPDATE site SET live = (id = ?) WHERE url = ?", 2L, URL);
+        verify(sitePurger, timeout(1000)).purgeSite(1L, URL);
+        verify(sitePurger, never()).purgeSite(2L, URL);
+        assertTrue(built.isLive());
+        assertEquals(SiteStatus.INDEXED, built.getStatus());
+    }
+
+    @Test
+    @DisplayName("Первое поколение сайта получает номер 1")
+    void testCreateGeneration_FirstGeneration() {
+        // Arrange
+        when(siteRepository.findAllByUrl(URL)).thenReturn(List.of());
+        when(siteRepository.save(any(SiteEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        SiteEntity created = indexGenerations.createGeneration(site());
+
+        // Assert
+        assertEquals(1, created.getGeneration());
+        verify(sitePurger, never()).purgeSite(anyLong(), anyString());
+    }
+
+    private static Site site() {
+        Site site = new Site();
+        site.setUrl(URL);
+        site.setName("Example");
+        return site;
+    }
+
+    private static SiteEntity generation(long id, int number, boolean live) {
+        SiteEntity siteEntity = new SiteEntity();
+        siteEntity.setId(id);
+        siteEntity.setUrl(URL);
+        siteEntity.setGeneration(number);
+        siteEntity.setLive(live);
+        return siteEntity;
+    }
+}
@@ -0,0 +1,57 @@
+package com.skillbox.searchengine.services.indexation.indexing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+class SitePurgerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SitePurger sitePurger = new SitePurger(jdbcTemplate, 100);
+
+    @Test
+    @DisplayName("Сайт удаляется порциями в порядке внешних ключей: индекс, леммы, страницы, сайт")
+    void testPurgeSite_DeletesInChunksInForeignKeyOrder() {
+        // Arrange
+        when(jdbcTemplate.update(startsWith("DELETE FROM `index`"), any(Object[].class)))
+                .thenReturn(100, 100, 30);
+        when(jdbcTemplate.update(startsWith("DELETE FROM lemma"), any(Object[].class))).thenReturn(100, 0);
+        when(jdbcTemplate.update(startsWith("DELETE FROM page"), any(Object[].class))).thenReturn(7);
+
+        // Act
+        sitePurger.purgeSite(5L, "https://example.com");
+
+        // Assert
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate, times(3)).update(startsWith("DELETE FROM `index`"), eq(5L), eq(100));
+        order.verify(jdbcTemplate, times(2)).update(startsWith("DELETE FROM lemma"), eq(5L), eq(100));
+        order.verify(jdbcTemplate).update(startsWith("DELETE FROM page"), eq(5L), eq(100));
+        order.verify(jdbcTemplate).update("DELETE FROM site WHERE id = ?", 5L);
+    }
+
+    @Test
+    @DisplayName("Страница удаляется после её записей индекса")
+    void testPurgePages_DeletesIndexBeforePage() {
+        // Arrange
+        when(jdbcTemplate.update(startsWith("DELETE FROM `index`"), any(Object[].class))).thenReturn(3);
+
+        // Act
+        sitePurger.purgePages(List.of(11L));
+
+        // Assert
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update("DELETE FROM `index` WHERE page_id = ? LIMIT ?", 11L, 100);
+        order.verify(jdbcTemplate).update("DELETE FROM page WHERE id = ?", 11L);
+    }
+}
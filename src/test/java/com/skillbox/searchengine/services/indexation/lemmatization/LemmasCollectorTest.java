@@ -0,0 +1,80 @@
+package com.skillbox.searchengine.services.indexation.lemmatization;
+
+import com.skillbox.searchengine.dto.indexing.DtoLemma;
+import com.skillbox.searchengine.utils.LemmaExtractor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class LemmasCollectorTest {
+
+    private final LemmaExtractor lemmaExtractor = mock(LemmaExtractor.class);
+    private final LemmasCollector lemmasCollector =
+            new LemmasCollector(lemmaExtractor, 4);
+
+    @AfterEach
+    void tearDown() {
+        lemmasCollector.shutdown();
+    }
+
+    @Test
+    @DisplayName("Параллельная лемматизация даёт те же леммы, что и последовательная")
+    void testCollectPages_ParallelMatchesSequential() {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(1);
+            for (String word : invocation.getArgument(0, String.class).split(" ")) {
+                consumer.accept(word);
+            }
+            return null;
+        }).when(lemmaExtractor).forEachLemma(anyString(), any());
+        List<StoredPageText> pages = new ArrayList<>();
+        Map<String, Integer> expectedFrequencies = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            String text = "товар раздел" + (i % 7) + " товар";
+            pages.add(page(i, i % 10 == 9 ? 500 : 200, text));
+            if (i % 10 != 9) {
+                expectedFrequencies.merge("товар", 1, Integer::sum);
+                expectedFrequencies.merge("раздел" + (i % 7), 1, Integer::sum);
+            }
+        }
+        SiteLemmas siteLemmas = new SiteLemmas();
+
+        // Act
+        lemmasCollector.collectPages(siteLemmas, pages.subList(0, 500));
+        lemmasCollector.collectPages(siteLemmas, pages.subList(500, 1_000));
+
+        // Assert
+        assertEquals(expectedFrequencies, lemmasCollector.extractLemmasForSite(siteLemmas).stream()
+                .collect(Collectors.toMap(DtoLemma::getLemma, DtoLemma::getFrequency)));
+        assertEquals(900, siteLemmas.getPages().size());
+        assertEquals(List.of(0L, 1L, 2L), siteLemmas.getPages().stream().limit(3)
+                .map(PageLemmas::getPageId).toList());
+        assertEquals(Map.of("товар", 2, "раздел0", 1), lemmasOnPage(siteLemmas, siteLemmas.getPages().get(0)));
+    }
+
+    private static Map<String, Integer> lemmasOnPage(SiteLemmas siteLemmas, PageLemmas page) {
+        Map<String, Integer> lemmas = new HashMap<>();
+        for (int i = 0; i < page.getLemmaIds().length; i++) {
+            lemmas.put(siteLemmas.getDictionary().getLemma(page.getLemmaIds()[i]), page.getCounts()[i]);
+        }
+        return lemmas;
+    }
+
+    private static StoredPageText page(long id, int code, String text) {
+        return new StoredPageText(id, code, text);
+    }
+}
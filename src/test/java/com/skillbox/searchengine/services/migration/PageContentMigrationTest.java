@@ -0,0 +1,35 @@
+package com.skillbox.searchengine.services.migration;
+
+import com.skillbox.searchengine.utils.parsing.HtmlPageParser;
+import com.skillbox.searchengine.utils.parsing.ParsedPage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PageContentMigrationTest {
+
+    @Test
+    @DisplayName("Адрес страницы собирается из адреса сайта и пути без двойной косой черты")
+    void testGetPageUrl_JoinsSiteUrlAndPath() {
+        assertEquals("https://example.com/a/b", PageContentMigration.getPageUrl("https://example.com", "/a/b"));
+        assertEquals("https://example.com/a/b", PageContentMigration.getPageUrl("https://example.com/", "/a/b"));
+    }
+
+    @Test
+    @DisplayName("Относительные ссылки перенесённой страницы разрешаются относительно её адреса")
+    void testMigratedLinks_AreAbsolute() {
+        // Arrange
+        String html = "<html><body><a href=\"c\">c</a><a href=\"/d\">d</a></body></html>";
+
+        // Act
+        ParsedPage parsedPage = HtmlPageParser.parse(html,
+                PageContentMigration.getPageUrl("https://example.com", "/a/b"));
+
+        // Assert
+        assertEquals(List.of("https://example.com/a/c", "https://example.com/d"),
+                ParsedPage.splitLinks(parsedPage.joinLinks()));
+    }
+}
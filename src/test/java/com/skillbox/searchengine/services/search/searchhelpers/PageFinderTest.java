@@ -39,7 +39,7 @@ class PageFinderTest {
         fakeSite.setId(1L);
 
         fakePage = new PageEntity(1L, fakeSite, "/auto.html",
-                200, "content", new ArrayList<>());
+                200, null, null, null, null, null, null, new ArrayList<>());
 
         fakeLemmaAuto = new LemmaEntity(1L, fakeSite, "автомобиль",
                 10, new ArrayList<>());
@@ -0,0 +1,72 @@
+package com.skillbox.searchengine.utils;
+
+import com.skillbox.searchengine.dto.metrics.MorphologyCacheStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MorphologyCacheTest {
+
+    @Test
+    @DisplayName("Словоформа разбирается один раз, включая неучитываемые слова")
+    void testGetLemma_AnalyzesEachWordOnce() {
+        // Arrange
+        MorphologyCache cache = new MorphologyCache(100);
+        AtomicInteger analyzed = new AtomicInteger();
+        Function<String, String> analyzer = word -> {
+            analyzed.incrementAndGet();
+            return word.equals("если") ? null : word.substring(0, 4);
+        };
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals("смар", cache.getLemma("смартфоны", analyzer));
+            assertNull(cache.getLemma("если", analyzer));
+        }
+        MorphologyCacheStats stats = cache.getStats();
+
+        // Assert
+        assertEquals(2, analyzed.get());
+        assertEquals(4, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(2, stats.getSize());
+        assertEquals(4.0 / 6, stats.getHitRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Размер кэша не превышает ёмкость")
+    void testGetLemma_BoundedByCapacity() {
+        // Arrange
+        MorphologyCache cache = new MorphologyCache(160);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            cache.getLemma("слово" + i, Function.identity());
+        }
+
+        // Assert
+        assertTrue(cache.getStats().getSize() <= 160);
+    }
+
+    @Test
+    @DisplayName("Нулевая ёмкость отключает кэш")
+    void testGetLemma_DisabledCache() {
+        // Arrange
+        MorphologyCache cache = new MorphologyCache(0);
+        AtomicInteger analyzed = new AtomicInteger();
+
+        // Act
+        cache.getLemma("дом", word -> word + analyzed.incrementAndGet());
+        cache.getLemma("дом", word -> word + analyzed.incrementAndGet());
+
+        // Assert
+        assertEquals(2, analyzed.get());
+        assertEquals(0, cache.getStats().getSize());
+    }
+}
@@ -0,0 +1,27 @@
+package com.skillbox.searchengine.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageContentCodecTest {
+
+    @Test
+    @DisplayName("Сжатый HTML распаковывается без изменений и занимает меньше места")
+    void testCompress_RoundTrip() {
+        // Arrange
+        String html = "<html><body>" + "<p>Смартфоны и аксессуары в наличии</p>".repeat(200) + "</body></html>";
+
+        // Act
+        byte[] compressed = PageContentCodec.compress(html);
+
+        // Assert
+        assertEquals(html, PageContentCodec.decompress(compressed));
+        assertTrue(compressed.length * 10 < html.getBytes().length);
+        assertNull(PageContentCodec.compress((String) null));
+        assertNull(PageContentCodec.decompress(null));
+    }
+}
@@ -0,0 +1,48 @@
+package com.skillbox.searchengine.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class PartOfSpeechTest {
+
+    @Test
+    @DisplayName("Часть речи определяется по обозначению после кода формы")
+    void testFromMorphInfo_DecodesTag() {
+        assertEquals(PartOfSpeech.NOUN, PartOfSpeech.fromMorphInfo("дом|Аа С мр,ед,им"));
+        assertEquals(PartOfSpeech.PRONOUN_ADJECTIVE, PartOfSpeech.fromMorphInfo("который|Ая МС-П мр,ед,им"));
+        assertEquals(PartOfSpeech.CONJUNCTION, PartOfSpeech.fromMorphInfo("и|Гл СОЮЗ"));
+        assertEquals(PartOfSpeech.ADVERB, PartOfSpeech.fromMorphInfo("быстро|Аб Н"));
+        assertEquals(PartOfSpeech.UNKNOWN, PartOfSpeech.fromMorphInfo("слово|Аб НЕЧТО"));
+        assertEquals(PartOfSpeech.UNKNOWN, PartOfSpeech.fromMorphInfo("слово"));
+    }
+
+    @Test
+    @DisplayName("Служебные части речи попадают в маску, знаменательные — нет")
+    void testStopMask() {
+        for (PartOfSpeech stop : List.of(PartOfSpeech.PRONOUN, PartOfSpeech.PRONOUN_ADJECTIVE,
+                PartOfSpeech.PRONOUN_PREDICATIVE, PartOfSpeech.PREPOSITION, PartOfSpeech.CONJUNCTION,
+                PartOfSpeech.INTERJECTION, PartOfSpeech.PARTICLE, PartOfSpeech.PARENTHESIS,
+                PartOfSpeech.OTHER)) {
+            assertNotEquals(0, stop.mask() & PartOfSpeech.STOP_MASK, stop.name());
+        }
+        for (PartOfSpeech content : List.of(PartOfSpeech.NOUN, PartOfSpeech.ADJECTIVE, PartOfSpeech.VERB,
+                PartOfSpeech.ADVERB, PartOfSpeech.NUMERAL, PartOfSpeech.UNKNOWN)) {
+            assertEquals(0, content.mask() & PartOfSpeech.STOP_MASK, content.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Слово отсеивается, если служебной частью речи является хотя бы одна его форма")
+    void testMaskOf_AnyStopForm() {
+        long stopWord = PartOfSpeech.maskOf(List.of("уже|Аб Н", "уже|Ас ЧАСТ"));
+        long contentWord = PartOfSpeech.maskOf(List.of("союзник|Ба С мр,ед,им,од"));
+
+        assertNotEquals(0, stopWord & PartOfSpeech.STOP_MASK);
+        assertEquals(0, contentWord & PartOfSpeech.STOP_MASK);
+    }
+}
@@ -0,0 +1,60 @@
+package com.skillbox.searchengine.utils.collections;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntIntHashMapTest {
+
+    @Test
+    @DisplayName("Подсчёт совпадает с HashMap, в том числе после расширения таблицы")
+    void testIncrement_MatchesHashMapAfterResize() {
+        // Arrange
+        IntIntHashMap counts = new IntIntHashMap(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(5_000) * 1024;
+            counts.increment(key);
+            expected.merge(key, 1, Integer::sum);
+        }
+
+        // Assert
+        assertEquals(expected.size(), counts.size());
+        expected.forEach((key, count) -> assertEquals(count, counts.get(key)));
+        assertEquals(0, counts.get(7));
+    }
+
+    @Test
+    @DisplayName("Ключи выгружаются по возрастанию вместе со значениями, очистка сбрасывает словарь")
+    void testToSortedArrays_AndClear() {
+        // Arrange
+        IntIntHashMap counts = new IntIntHashMap(16);
+        counts.addTo(30, 3);
+        counts.increment(0);
+        counts.addTo(17, 2);
+        counts.increment(30);
+        int[] keys = new int[counts.size()];
+        int[] values = new int[counts.size()];
+
+        // Act
+        counts.toSortedArrays(keys, values);
+        counts.clear();
+        counts.increment(5);
+
+        // Assert
+        assertArrayEquals(new int[]{0, 17, 30}, keys);
+        assertArrayEquals(new int[]{1, 2, 4}, values);
+        assertEquals(1, counts.size());
+        assertEquals(0, counts.get(30));
+        assertEquals(1, counts.get(5));
+    }
+}
@@ -0,0 +1,130 @@
+package com.skillbox.searchengine.utils.fetching;
+
+import com.skillbox.searchengine.config.ConnectionToSite;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpClientPageFetcherTest {
+
+    private static final int MAX_BODY_SIZE = 1000;
+    private static final int READ_TIMEOUT_MILLIS = 500;
+    private static final int MAX_RESOURCE_SIZE = 10_000;
+
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private HttpClientPageFetcher pageFetcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/big", exchange -> respond(exchange, "text/html", 1_000_000, 0));
+        server.createContext("/archive", exchange -> respond(exchange, "application/zip", 50_000_000, 0));
+        server.createContext("/slow", exchange -> respond(exchange, "text/html", 100, 50));
+        server.createContext("/sitemap.xml", exchange -> respond(exchange, "application/xml", MAX_RESOURCE_SIZE, 0));
+        server.createContext("/big-sitemap.xml",
+                exchange -> respond(exchange, "application/xml", 2 * MAX_RESOURCE_SIZE, 0));
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        ConnectionToSite connectionToSite = new ConnectionToSite();
+        connectionToSite.setUserAgent("FetcherTest");
+        connectionToSite.setReferrer("http://localhost");
+        connectionToSite.setReadTimeoutMillis(READ_TIMEOUT_MILLIS);
+        connectionToSite.setMaxBodySizeBytes(MAX_BODY_SIZE);
+        connectionToSite.setMaxResourceSizeBytes(MAX_RESOURCE_SIZE);
+        pageFetcher = new HttpClientPageFetcher(connectionToSite);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Тело страницы загружается не больше заданного размера")
+    void testFetch_TruncatesBodyAtLimit() {
+        // Act
+        Optional<FetchedPage> page = pageFetcher.fetch(url("/big"), null, null);
+
+        // Assert
+        assertTrue(page.isPresent());
+        assertTrue(page.get().getDocument().text().length() <= MAX_BODY_SIZE);
+    }
+
+    @Test
+    @DisplayName("Тело ответа другого типа не загружается")
+    void testFetch_SkipsNonHtmlBody() {
+        // Act
+        long startNanos = System.nanoTime();
+        Optional<FetchedPage> page = pageFetcher.fetch(url("/archive"), null, null);
+
+        // Assert
+        assertTrue(page.isEmpty());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) < READ_TIMEOUT_MILLIS);
+    }
+
+    @Test
+    @DisplayName("Медленно отдаваемое тело прерывается по истечении времени ответа")
+    void testFetch_AbortsSlowBodyAtDeadline() {
+        // Act
+        long startNanos = System.nanoTime();
+        Optional<FetchedPage> page = pageFetcher.fetch(url("/slow"), null, null);
+
+        // Assert
+        assertTrue(page.isEmpty());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) < 4 * READ_TIMEOUT_MILLIS);
+    }
+
+    @Test
+    @DisplayName("Служебный ресурс больше допустимого размера отбрасывается, а не обрезается")
+    void testFetchResource_RejectsOversizedResource() {
+        // Act
+        Optional<byte[]> resource = pageFetcher.fetchResource(url("/sitemap.xml"));
+        Optional<byte[]> bigResource = pageFetcher.fetchResource(url("/big-sitemap.xml"));
+
+        // Assert
+        assertEquals(MAX_RESOURCE_SIZE, resource.orElseThrow().length);
+        assertTrue(bigResource.isEmpty());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, int size, long delayPerByteMillis) {
+        byte[] chunk = "<p>a</p>".getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, 0);
+            out.flush();
+            for (int sent = 0; sent < size; sent += chunk.length) {
+                out.write(chunk);
+                if (delayPerByteMillis > 0) {
+                    out.flush();
+                    TimeUnit.MILLISECONDS.sleep(delayPerByteMillis * chunk.length);
+                }
+            }
+        } catch (IOException e) {
+            exchange.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
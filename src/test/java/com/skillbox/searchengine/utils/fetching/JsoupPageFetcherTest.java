@@ -0,0 +1,80 @@
+package com.skillbox.searchengine.utils.fetching;
+
+import com.skillbox.searchengine.config.ConnectionToSite;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsoupPageFetcherTest {
+
+    private static final int MAX_RESOURCE_SIZE = 10_000;
+
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private JsoupPageFetcher pageFetcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/sitemap.xml", exchange -> respond(exchange, MAX_RESOURCE_SIZE));
+        server.createContext("/big-sitemap.xml", exchange -> respond(exchange, 2 * MAX_RESOURCE_SIZE));
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        ConnectionToSite connectionToSite = new ConnectionToSite();
+        connectionToSite.setUserAgent("FetcherTest");
+        connectionToSite.setReferrer("http://localhost");
+        connectionToSite.setReadTimeoutMillis(500);
+        connectionToSite.setMaxResourceSizeBytes(MAX_RESOURCE_SIZE);
+        pageFetcher = new JsoupPageFetcher(connectionToSite);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Служебный ресурс больше допустимого размера отбрасывается, а не обрезается")
+    void testFetchResource_RejectsOversizedResource() {
+        // Act
+        Optional<byte[]> resource = pageFetcher.fetchResource(url("/sitemap.xml"));
+        Optional<byte[]> bigResource = pageFetcher.fetchResource(url("/big-sitemap.xml"));
+
+        // Assert
+        assertEquals(MAX_RESOURCE_SIZE, resource.orElseThrow().length);
+        assertTrue(bigResource.isEmpty());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(HttpExchange exchange, int size) {
+        byte[] chunk = "<url/>\n\n".getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/xml");
+            exchange.sendResponseHeaders(200, 0);
+            for (int sent = 0; sent < size; sent += chunk.length) {
+                out.write(chunk);
+            }
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.skillbox.searchengine.utils.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CrawlerMetricsTest {
+
+    @Test
+    @DisplayName("Ответы, время разбора и ошибки учитываются по хостам")
+    void testRecord_TagsMetersByHost() {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+        CrawlerMetrics metrics = new CrawlerMetrics(registry);
+
+        // Act
+        metrics.recordResponse("https://a.example.com/1", 200, millis(3), millis(15), 1_000);
+        metrics.recordResponse("https://a.example.com/2", 404, millis(4), millis(8), 200);
+        metrics.recordParse("https://a.example.com/1", millis(1));
+        metrics.recordFetchError("https://b.example.com/", new SocketTimeoutException());
+        metrics.recordFetchError("https://b.example.com/x", new IOException());
+
+        // Assert
+        Timer latency = registry.get("crawler.fetch.latency").tag("host", "a.example.com").timer();
+        assertEquals(2, latency.count());
+        assertEquals(15, latency.max(TimeUnit.MILLISECONDS));
+        assertEquals(1, registry.get("crawler.fetch.parse").tag("host", "a.example.com").timer().count());
+        assertEquals(1_200, registry.get("crawler.fetch.bytes").tag("host", "a.example.com")
+                .summary().totalAmount());
+        assertEquals(1, registry.get("crawler.fetch.responses")
+                .tags("host", "a.example.com", "status", "404").counter().count());
+        assertEquals(1, registry.get("crawler.fetch.errors")
+                .tags("host", "b.example.com", "exception", "SocketTimeoutException").counter().count());
+        assertEquals(1, registry.get("crawler.fetch.errors")
+                .tags("host", "b.example.com", "exception", "IOException").counter().count());
+    }
+
+    @Test
+    @DisplayName("Размер учёта ссылок сайта виден только на время обхода")
+    void testFrontierGauge_RegisteredAndRemoved() {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+        CrawlerMetrics metrics = new CrawlerMetrics(registry);
+
+        // Act
+        metrics.registerFrontier("https://example.com", () -> 42);
+        double during = registry.get("crawler.frontier.size").tag("site", "https://example.com").gauge().value();
+        metrics.removeFrontier("https://example.com");
+
+        // Assert
+        assertEquals(42, during);
+        assertNull(registry.find("crawler.frontier.size").gauge());
+    }
+
+    @Test
+    @DisplayName("Обработанные страницы и ошибки обработки считаются счётчиками")
+    void testRecordPageProcessed_CountsPagesAndErrors() {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+        CrawlerMetrics metrics = new CrawlerMetrics(registry);
+
+        // Act
+        metrics.recordPageProcessed();
+        metrics.recordPageProcessed();
+        metrics.recordProcessingError(new IllegalStateException());
+
+        // Assert
+        assertEquals(2, registry.get("crawler.pages.processed").counter().count());
+        assertEquals(1, registry.get("crawler.processing.errors")
+                .tag("exception", "IllegalStateException").counter().count());
+    }
+
+    private static long millis(long value) {
+        return TimeUnit.MILLISECONDS.toNanos(value);
+    }
+}
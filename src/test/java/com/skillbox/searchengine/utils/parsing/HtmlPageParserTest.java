@@ -0,0 +1,40 @@
+package com.skillbox.searchengine.utils.parsing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HtmlPageParserTest {
+
+    private static final String HTML = """
+            <html>
+            <head><title>Смартфоны</title><style>body { color: red; }</style></head>
+            <body>
+              <script>var tracking = "счётчик";</script>
+              <h1>Каталог</h1>
+              <p>Новые <b>смартфоны</b> в наличии.<br>Доставка по Москве</p>
+              <noscript>Включите JavaScript</noscript>
+              <a href="/catalog/1652.html">Подробнее</a>
+              <a href="https://other.ru/">Партнёр</a>
+              <a>Без адреса</a>
+            </body>
+            </html>""";
+
+    @Test
+    @DisplayName("Из страницы извлекаются заголовок, видимый текст и абсолютные ссылки")
+    void testParse_ExtractsTitleTextAndLinks() {
+        // Act
+        ParsedPage parsedPage = HtmlPageParser.parse(HTML, "https://www.playback.ru/");
+
+        // Assert
+        assertEquals("Смартфоны", parsedPage.getTitle());
+        assertEquals("Каталог Новые смартфоны в наличии. Доставка по Москве Подробнее Партнёр Без адреса",
+                parsedPage.getText());
+        assertEquals(List.of("https://www.playback.ru/catalog/1652.html", "https://other.ru/"),
+                parsedPage.getLinks());
+        assertEquals(parsedPage.getLinks(), ParsedPage.splitLinks(parsedPage.joinLinks()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.skillbox.searchengine.utils.parsing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WordTokenizerTest {
+
+    @Test
+    @DisplayName("Передаются только русские слова длиннее порога, в нижнем регистре и с границами")
+    void testTokenize_FiltersAndReportsOffsets() {
+        // Arrange
+        String text = "«Купить» СМАРТФОН за 10 000 руб., iPhone и Ёлка; смартфон-чехол кот";
+        List<String> tokens = new ArrayList<>();
+
+        // Act
+        WordTokenizer.tokenize(text, 3, (word, start, end) ->
+                tokens.add(word + "@" + start + ":" + text.substring(start, end)));
+
+        // Assert
+        assertEquals(List.of(
+                "купить@1:Купить",
+                "смартфон@9:СМАРТФОН",
+                "смартфон@49:смартфон",
+                "чехол@58:чехол"), tokens);
+    }
+
+    @Test
+    @DisplayName("Длинные слова и текст без слов обрабатываются корректно")
+    void testTokenize_LongWordsAndEmptyText() {
+        // Arrange
+        String longWord = "превысокомногорассмотрительствующийпревысокомногорассмотрительствующий";
+        List<String> tokens = new ArrayList<>();
+
+        // Act
+        WordTokenizer.tokenize("", 3, (word, start, end) -> tokens.add(word));
+        WordTokenizer.tokenize("... 123 !!!", 3, (word, start, end) -> tokens.add(word));
+        WordTokenizer.tokenize(" " + longWord.toUpperCase() + " ", 3, (word, start, end) -> tokens.add(word));
+
+        // Assert
+        assertEquals(List.of(longWord), tokens);
+    }
+}